@@ -0,0 +1,81 @@
+/* *************************************************************
+ * 
+ * Shared settings and fixtures for the server benchmarks.
+ * 
+ * Title		Benchmarks.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+final class Benchmarks {
+	
+	/* *************************************************************
+	 * 
+	 * Static constants.
+	 * 
+	 ************************************************************* */
+	
+	public static final int CLIENTS = 1000;
+	public static final int CONTENDED_THREADS = 4;
+	public static final int FORKS = 1;
+	public static final int ITERATION_TIME = 1;
+	public static final int MEASUREMENT_ITERATIONS = 5;
+	public static final int WARMUP_ITERATIONS = 3;
+	
+	private Benchmarks() {
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Starts the server's background log writer, which requests
+	 * are queued to. Without it a blocking log fills up and stalls
+	 * the benchmark.
+	 * 
+	 * Use:
+	 * 		Benchmarks.startLogger();
+	 * 
+	 ************************************************************* */
+	
+	public static synchronized void startLogger() {
+		if ( MBServer.LOGGER.getState() == Thread.State.NEW ) {
+			MBServer.LOGGER.start();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Class for an outbox that discards what it is given, so a
+	 * session can be benchmarked without a socket.
+	 * 
+	 ************************************************************* */
+	
+	static class NullOutbox extends Outbox {
+		
+		/* *************************************************************
+		 * 
+		 * Discards bytes as if they had been sent.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		protected void enqueue( byte[] bytes ) {
+			sent( bytes.length );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Marks the outbox closed.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public void close() {
+			closed = true;
+		}
+		
+	}
+	
+}
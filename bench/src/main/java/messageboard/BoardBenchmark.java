@@ -0,0 +1,79 @@
+/* *************************************************************
+ * 
+ * Benchmarks for adding messages to and looking up clients on
+ * a board, from one thread and from several at once.
+ * 
+ * Title		BoardBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+@State( Scope.Benchmark )
+public class BoardBenchmark {
+	
+	private Board board;
+	private String[] names;
+	
+	/* *************************************************************
+	 * 
+	 * Builds a board with CLIENTS connected clients.
+	 * 
+	 ************************************************************* */
+	
+	@Setup
+	public void setup() {
+		board = new Board();
+		names = new String[Benchmarks.CLIENTS];
+		for ( int i = 0; i < names.length; i++ ) {
+			names[i] = "user" + i;
+			board.addClient( new Client( i, names[i] ));
+		}
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public long addMsg() {
+		return board.addMsg( new Message( names[0], "hello world" ));
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public long addMsgContended() {
+		return board.addMsg( new Message( names[0], "hello world" ));
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public Client getClient() {
+		return board.getClient( names[ThreadLocalRandom.current().nextInt( names.length )] );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public Client getClientContended() {
+		return board.getClient( names[ThreadLocalRandom.current().nextInt( names.length )] );
+	}
+	
+}
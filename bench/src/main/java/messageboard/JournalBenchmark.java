@@ -0,0 +1,227 @@
+/* *************************************************************
+ * 
+ * Benchmarks for the message journal: the cost of recording a
+ * post under each sync policy, the time taken to rebuild the
+ * boards from a journal holding millions of records, and the
+ * cold-start time when a snapshot leaves only a short tail of the
+ * journal to replay.
+ * 
+ * Title		JournalBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+public class JournalBenchmark {
+	
+	public static final int CHANNELS = 8;
+	public static final int RECOVERY_ITERATIONS = 3;
+	public static final int RETENTION = 2;
+	public static final int TAIL = 10000;
+	
+	/* *************************************************************
+	 * 
+	 * A board that records its posts in a journal with a given
+	 * sync policy.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Benchmark )
+	public static class Journaled {
+		
+		@Param({ "none", "always" })
+		private String policy;
+		
+		private File directory;
+		private Journal journal;
+		private Board board;
+		
+		@Setup
+		public void setup() throws IOException {
+			directory = Files.createTempDirectory( "journal" ).toFile();
+			journal = new Journal( directory, MBServer.JOURNAL_SEGMENT_SIZE, RETENTION, policy, MBServer.JOURNAL_SYNC_INTERVAL );
+			journal.start();
+			board = new Board( MBServer.CHANNEL_DEFAULT, journal );
+		}
+		
+		@TearDown
+		public void tearDown() {
+			journal.shutdown();
+			delete( directory );
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * A journal holding a number of posts spread over several
+	 * channels, written once per trial.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Benchmark )
+	public static class Written {
+		
+		@Param({ "100000", "1000000", "4000000" })
+		private int messages;
+		
+		private File directory;
+		
+		@Setup
+		public void setup() throws IOException {
+			directory = write( messages, -1 );
+		}
+		
+		@TearDown
+		public void tearDown() {
+			delete( directory );
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * The same journal with a snapshot taken TAIL posts before the
+	 * end, as a server that snapshots periodically would leave it.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Benchmark )
+	public static class Snapshotted {
+		
+		@Param({ "100000", "1000000", "4000000" })
+		private int messages;
+		
+		private File directory;
+		
+		@Setup
+		public void setup() throws IOException {
+			directory = write( messages, messages - TAIL );
+		}
+		
+		@TearDown
+		public void tearDown() {
+			delete( directory );
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes a journal of posts spread over several channels into a
+	 * new directory, taking a snapshot after a given number of them
+	 * unless that number is negative.
+	 * 
+	 ************************************************************* */
+	
+	private static File write( int messages, int snapshot ) throws IOException {
+		File directory = Files.createTempDirectory( "journal" ).toFile();
+		Journal journal = open( directory );
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		Snapshots snapshots = new Snapshots( journal, channels, 0 );
+		for ( int i = 0; i < messages; i++ ) {
+			if ( i == snapshot ) {
+				snapshots.write();
+			}
+			channels.get( "channel" + ( i % CHANNELS )).addMsg( new Message( "user" + ( i % Benchmarks.CLIENTS ), "hello world " + i ));
+		}
+		journal.shutdown();
+		return directory;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Opens a journal that keeps its segments and leaves syncing
+	 * to the operating system.
+	 * 
+	 ************************************************************* */
+	
+	private static Journal open( File directory ) throws IOException {
+		return new Journal( directory, MBServer.JOURNAL_SEGMENT_SIZE, 0, MBServer.JOURNAL_POLICY_NONE, MBServer.JOURNAL_SYNC_INTERVAL );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Deletes a journal directory and the files in it.
+	 * 
+	 ************************************************************* */
+	
+	private static void delete( File directory ) {
+		File[] files = directory.listFiles();
+		if ( files != null ) {
+			for ( File file : files ) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public long post( Journaled journaled ) {
+		return journaled.board.addMsg( new Message( "user0", "hello world" ));
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public long postContended( Journaled journaled ) {
+		return journaled.board.addMsg( new Message( "user0", "hello world" ));
+	}
+	
+	@Benchmark
+	@BenchmarkMode( Mode.SingleShotTime )
+	@OutputTimeUnit( TimeUnit.MILLISECONDS )
+	@Warmup( iterations = 1 )
+	@Measurement( iterations = RECOVERY_ITERATIONS )
+	@Threads( 1 )
+	public long recover( Written written ) throws IOException {
+		Journal journal = open( written.directory );
+		try {
+			return journal.replay( 0, new Channels( MBServer.CHANNEL_LIMIT, journal ));
+		} finally {
+			journal.shutdown();
+		}
+	}
+	
+	@Benchmark
+	@BenchmarkMode( Mode.SingleShotTime )
+	@OutputTimeUnit( TimeUnit.MILLISECONDS )
+	@Warmup( iterations = 1 )
+	@Measurement( iterations = RECOVERY_ITERATIONS )
+	@Threads( 1 )
+	public long coldStart( Snapshotted snapshotted ) throws IOException {
+		Journal journal = open( snapshotted.directory );
+		try {
+			Channels channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+			return journal.replay( new Snapshots( journal, channels, 0 ).load(), channels );
+		} finally {
+			journal.shutdown();
+		}
+	}
+	
+}
@@ -0,0 +1,53 @@
+/* *************************************************************
+ * 
+ * Benchmarks for queueing a line to the server's log. The
+ * writer runs for the whole benchmark, so a producer that
+ * outruns it waits as it would in the server.
+ * 
+ * Title		LogBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+@State( Scope.Benchmark )
+public class LogBenchmark {
+	
+	@Setup
+	public void setup() {
+		Benchmarks.startLogger();
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public void log() {
+		MBServer.log( "4 user0 hello world" );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public void logContended() {
+		MBServer.log( "4 user0 hello world" );
+	}
+	
+}
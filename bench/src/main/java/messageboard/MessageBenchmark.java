@@ -0,0 +1,73 @@
+/* *************************************************************
+ * 
+ * Benchmarks for formatting a message for display, and for
+ * fetching its cached text-protocol line and binary fields, which
+ * history requests and broadcasts send.
+ * 
+ * Title		MessageBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+@State( Scope.Benchmark )
+public class MessageBenchmark {
+	
+	private Message message = new Message( "user0", "hello world" );
+	
+	@Setup
+	public void setup() {
+		new Board().addMsg( message );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public String format() {
+		return message.toString();
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public String formatContended() {
+		return message.toString();
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public byte[] line() {
+		return message.getLine();
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public byte[] lineContended() {
+		return message.getLine();
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public byte[] entry() {
+		return message.getEntry();
+	}
+	
+}
@@ -0,0 +1,55 @@
+/* *************************************************************
+ * 
+ * Benchmarks for the server's metrics: recording a serviced
+ * request, which every request pays for, and rendering a scrape.
+ * 
+ * Title		MetricsBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+@State( Scope.Benchmark )
+public class MetricsBenchmark {
+	
+	private final Metrics metrics = new Metrics();
+	private long nanos;
+	
+	@Benchmark
+	@Threads( 1 )
+	public void serviced() {
+		metrics.serviced( MBServer.CMD_POST, ( nanos++ & 0xFFFF ) << 4 );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public void servicedContended() {
+		metrics.serviced( MBServer.CMD_POST, 5000 );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public String scrape() {
+		return metrics.scrape( MBServer.LOGGER );
+	}
+	
+}
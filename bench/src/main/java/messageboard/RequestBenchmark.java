@@ -0,0 +1,56 @@
+/* *************************************************************
+ * 
+ * Benchmarks comparing the in-place request parser with the
+ * Scanner-based parsing it replaced.
+ * 
+ * Title		RequestBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+@State( Scope.Thread )
+public class RequestBenchmark {
+	
+	private Request request = new Request();
+	private String line = "4 user0 hello world";
+	
+	@Benchmark
+	public void parse( Blackhole blackhole ) {
+		if ( request.parse( line )) {
+			blackhole.consume( request.getCommand() );
+			blackhole.consume( request.getName() );
+			blackhole.consume( request.getText() );
+		}
+	}
+	
+	@Benchmark
+	public void scanner( Blackhole blackhole ) {
+		Scanner input = new Scanner( line );
+		blackhole.consume( input.nextInt() );
+		blackhole.consume( input.next() );
+		blackhole.consume( input.nextLine().substring( 1 ));
+		input.close();
+	}
+	
+}
@@ -0,0 +1,118 @@
+/* *************************************************************
+ * 
+ * Benchmarks for searching a board that retains millions of
+ * messages: a single common word, two words that must both
+ * appear, a rare word, and a word from one poster, along with
+ * the cost the index adds to each post.
+ * 
+ * Title		SearchBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( value = Benchmarks.FORKS, jvmArgsAppend = { "-Xmx4g" })
+@State( Scope.Benchmark )
+public class SearchBenchmark {
+	
+	public static final int VOCABULARY = 10000;
+	public static final int WORDS_PER_MESSAGE = 8;
+	
+	@Param({ "1000000", "4000000" })
+	private int messages;
+	
+	private Board board;
+	private Random random;
+	
+	/* *************************************************************
+	 * 
+	 * Fills a board to its capacity with messages of words drawn
+	 * from a skewed vocabulary, so that low-numbered words are
+	 * common and high-numbered ones rare.
+	 * 
+	 ************************************************************* */
+	
+	@Setup
+	public void setup() {
+		System.setProperty( MBServer.PROP_HISTORY_CAPACITY, String.valueOf( messages ));
+		board = new Board();
+		random = new Random( 42 );
+		for ( int i = 0; i < messages; i++ ) {
+			board.addMsg( new Message( "user" + ( i % Benchmarks.CLIENTS ), text() ));
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the text of one message.
+	 * 
+	 ************************************************************* */
+	
+	private String text() {
+		StringBuilder text = new StringBuilder();
+		for ( int i = 0; i < WORDS_PER_MESSAGE; i++ ) {
+			double skew = random.nextDouble();
+			text.append( "word" ).append( (int) ( skew * skew * skew * VOCABULARY )).append( ' ' );
+		}
+		return text.toString();
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public List<Message> common() {
+		return board.search( "word1", MBServer.HISTORY_PAGE_MAX );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public List<Message> and() {
+		return board.search( "word1 word2", MBServer.HISTORY_PAGE_MAX );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public List<Message> rare() {
+		return board.search( "word5000", MBServer.HISTORY_PAGE_MAX );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public List<Message> from() {
+		return board.search( "word1 from:user7", MBServer.HISTORY_PAGE_MAX );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public List<Message> andContended() {
+		return board.search( "word1 word2", MBServer.HISTORY_PAGE_MAX );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public long post() {
+		return board.addMsg( new Message( "user0", "word1 word2 word3 word4" ));
+	}
+	
+}
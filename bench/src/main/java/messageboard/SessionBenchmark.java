@@ -0,0 +1,150 @@
+/* *************************************************************
+ * 
+ * Benchmarks for servicing text requests, from parsing the line
+ * to queueing the response, with one session per thread on a
+ * shared board that holds a full page of history.
+ * 
+ * Title		SessionBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( Benchmarks.FORKS )
+public class SessionBenchmark {
+	
+	/* *************************************************************
+	 * 
+	 * The channels shared by every benchmark thread, with CLIENTS
+	 * clients connected to the default channel and a page of
+	 * messages posted to it.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Benchmark )
+	public static class Shared {
+		
+		private Channels channels;
+		private AtomicInteger ids;
+		
+		@Setup
+		public void setup() {
+			Benchmarks.startLogger();
+			channels = new Channels( MBServer.CHANNEL_LIMIT );
+			ids = new AtomicInteger( Benchmarks.CLIENTS );
+			Board board = channels.get( MBServer.CHANNEL_DEFAULT );
+			for ( int i = 0; i < Benchmarks.CLIENTS; i++ ) {
+				board.addClient( new Client( i, "user" + i ));
+			}
+			for ( int i = 0; i < MBServer.HISTORY_PAGE_MAX; i++ ) {
+				board.addMsg( new Message( "user" + ( i % Benchmarks.CLIENTS ), "hello world " + i ));
+			}
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * A connected session owned by one benchmark thread.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Thread )
+	public static class Connected {
+		
+		private Session session;
+		private String post;
+		private String update;
+		private String history;
+		private String presence;
+		private String snapshot;
+		
+		@Setup
+		public void setup( Shared shared ) {
+			int id = shared.ids.getAndIncrement();
+			session = new Session( shared.channels, id, new Benchmarks.NullOutbox() );
+			session.service( MBServer.CMD_CONNECT + " session" + id );
+			post = MBServer.CMD_POST + " session" + id + " hello world";
+			update = MBServer.CMD_UPDATE + " session" + id;
+			history = MBServer.CMD_HISTORY + " session" + id + " 0 " + MBServer.HISTORY_PAGE_MAX;
+			presence = MBServer.CMD_PRESENCE + " session" + id + " " + shared.channels.get( MBServer.CHANNEL_DEFAULT ).getPresenceVersion();
+			snapshot = MBServer.CMD_PRESENCE + " session" + id + " 0";
+		}
+		
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public void servicePost( Connected connected ) {
+		connected.session.service( connected.post );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public void servicePostContended( Connected connected ) {
+		connected.session.service( connected.post );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public void serviceUpdate( Connected connected ) {
+		connected.session.service( connected.update );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public void serviceUpdateContended( Connected connected ) {
+		connected.session.service( connected.update );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public void serviceHistory( Connected connected ) {
+		connected.session.service( connected.history );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public void serviceHistoryContended( Connected connected ) {
+		connected.session.service( connected.history );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public void servicePresence( Connected connected ) {
+		connected.session.service( connected.presence );
+	}
+	
+	@Benchmark
+	@Threads( Benchmarks.CONTENDED_THREADS )
+	public void servicePresenceContended( Connected connected ) {
+		connected.session.service( connected.presence );
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public void servicePresenceSnapshot( Connected connected ) {
+		connected.session.service( connected.snapshot );
+	}
+	
+}
@@ -0,0 +1,128 @@
+/* *************************************************************
+ * 
+ * Benchmarks comparing the heap and off-heap message stores on
+ * a board retaining millions of messages: the heap each leaves
+ * live, the pause of a full collection over it, and the cost of
+ * posting to and reading from the full board.
+ * 
+ * Title		StoreBenchmark.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = Benchmarks.WARMUP_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Measurement( iterations = Benchmarks.MEASUREMENT_ITERATIONS, time = Benchmarks.ITERATION_TIME )
+@Fork( value = Benchmarks.FORKS, jvmArgsAppend = { "-Xmx4g" })
+public class StoreBenchmark {
+	
+	public static final int ARENA_BYTES_PER_MESSAGE = 32;
+	public static final int COLLECT_ITERATIONS = 5;
+	
+	/* *************************************************************
+	 * 
+	 * A board of the chosen store filled to its capacity, with the
+	 * heap it added measured after a full collection.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Benchmark )
+	public static class Filled {
+		
+		@Param({ MBServer.HISTORY_STORE_HEAP, MBServer.HISTORY_STORE_OFFHEAP })
+		private String store;
+		
+		@Param({ "1000000", "4000000" })
+		private int messages;
+		
+		private Board board;
+		private long footprint;
+		
+		@Setup
+		public void setup() {
+			System.setProperty( MBServer.PROP_HISTORY_STORE, store );
+			System.setProperty( MBServer.PROP_HISTORY_CAPACITY, String.valueOf( messages ));
+			System.setProperty( MBServer.PROP_HISTORY_ARENA_SIZE, String.valueOf( (long) messages * ARENA_BYTES_PER_MESSAGE ));
+			long before = used();
+			board = new Board();
+			for ( int i = 0; i < messages; i++ ) {
+				board.addMsg( new Message( "user" + ( i % Benchmarks.CLIENTS ), "hello world " + i ));
+			}
+			footprint = used() - before;
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Reports the heap a filled board leaves live, in bytes, beside
+	 * the time of each full collection.
+	 * 
+	 ************************************************************* */
+	
+	@State( Scope.Thread )
+	@AuxCounters( AuxCounters.Type.EVENTS )
+	public static class Footprint {
+		
+		public long heapBytes;
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the heap in use after a full collection.
+	 * 
+	 ************************************************************* */
+	
+	private static long used() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		memory.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+	
+	@Benchmark
+	@BenchmarkMode( Mode.SingleShotTime )
+	@OutputTimeUnit( TimeUnit.MILLISECONDS )
+	@Warmup( iterations = 1 )
+	@Measurement( iterations = COLLECT_ITERATIONS )
+	@Threads( 1 )
+	public void collect( Filled filled, Footprint footprint ) {
+		ManagementFactory.getMemoryMXBean().gc();
+		footprint.heapBytes = filled.footprint;
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public long post( Filled filled ) {
+		return filled.board.addMsg( new Message( "user0", "hello world" ));
+	}
+	
+	@Benchmark
+	@Threads( 1 )
+	public List<Message> history( Filled filled ) {
+		return filled.board.getMsgs( 0, MBServer.HISTORY_PAGE_MAX );
+	}
+	
+}
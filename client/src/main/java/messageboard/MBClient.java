@@ -0,0 +1,1794 @@
+/* *************************************************************
+ * 
+ * A message board client with a GUI to support chat
+ * functionality for one connected client.
+ * 
+ * Title		MBClient.java
+ * Author		Dustin Dugal
+ * Email		dsdugal@gmail.com
+ * Updated		2019-06-22
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.geometry.NodeOrientation;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Menu;
+import javafx.scene.control.MenuBar;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.Separator;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TitledPane;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+public class MBClient {
+	
+	/* *************************************************************
+	 * 
+	 * Static constants.
+	 * 
+	 ************************************************************* */
+	
+	public static final int CHAT_CELL_HEIGHT = 18;
+	public static final int CHAT_LINES_MAX = 1000;
+	public static final int CMD_NULL = 0;
+	public static final int CMD_CONNECT = 1;
+	public static final int CMD_DISCONNECT = 2;
+	public static final int CMD_CLEAR = 3;
+	public static final int CMD_POST = 4;
+	public static final int CMD_UPDATE = 5;
+	public static final int CMD_SUBSCRIBE = 6;
+	public static final int CMD_HISTORY = 7;
+	public static final int CMD_BINARY = 8;
+	public static final int CMD_SEARCH = 9;
+	public static final int CMD_PRESENCE = 10;
+	public static final int FRAME_ERROR = 16;
+	public static final int FRAME_NAME = 17;
+	public static final int FRAME_PUSH = 18;
+	public static final int FRAME_TAG = 19;
+	public static final int HEARTBEAT_INTERVAL = 30000;
+	public static final int HISTORY_PAGE = 100;
+	public static final int IP_OCTET_MAX = 255;
+	public static final int IP_OCTET_MIN = 0;
+	public static final int NAME_INLINE = 0;
+	public static final int PORT_MAX = 65535;
+	public static final int PORT_MIN = 0;
+	public static final int VIEW_MAIN_HEIGHT = 400;
+	public static final int VIEW_MAIN_WIDTH = 510;
+	public static final Font FONT_BOARD = Font.font( "Agency FB", 12 );
+	public static final Font FONT_CONTROL = Font.font( "Agency FB", 14);
+	public static final Font FONT_LABEL = Font.font( "Verdana", 12 );
+	public static final String ERROR_NO_BINARY = "ERROR: SERVER DOES NOT SUPPORT THE BINARY PROTOCOL.";
+	public static final String ERROR_NO_ADDRESS_PORT = "ERROR: NO ADDRESS AND/OR PORT SPECIFIED.";
+	public static final String ERROR_NO_SERVER = "ERROR: COULD NOT ESTABLISH CONNECTION WITH SERVER.";
+	public static final String ERROR_PREFIX = "ERROR:";
+	public static final String NO_DELAY = "true";
+	public static final String PROP_CHANNEL = "mbclient.channel";
+	public static final String PROP_NO_DELAY = "mbclient.tcpNoDelay";
+	public static final String PROP_PROTOCOL = "mbclient.protocol";
+	public static final String PRESENCE_SNAPSHOT = "=";
+	public static final String PROTOCOL_BINARY = "binary";
+	public static final String PUSH_MARK = "*";
+	public static final String SEARCH_BEFORE = "before:";
+	public static final String TAG_MARK = "@";
+	public static final String TEXT_CONTROL_ABOUT = "About";
+	public static final String TEXT_CONTROL_CLEAR = "CLEAR";
+	public static final String TEXT_CONTROL_CONNECT = "CONNECT";
+	public static final String TEXT_CONTROL_DISCONNECT = "DISCONNECT";
+	public static final String TEXT_CONTROL_POST = "POST";
+	public static final String TEXT_LABEL_CONNECT = "CONNECTION";
+	public static final String TEXT_LABEL_IP = "IP Address:";
+	public static final String TEXT_LABEL_MESSAGE = "MESSAGE BOARD";
+	public static final String TEXT_LABEL_PORT = "Port:";
+	public static final String USERNAME_DEFAULT = "MBUser";
+	
+	/* *************************************************************
+	 * 
+	 * One message as the client shows it: its sequence number on
+	 * the board and its formatted line.
+	 * 
+	 ************************************************************* */
+	
+	public static class Entry {
+		
+		private final long sequence;
+		private final String line;
+		
+		/* *************************************************************
+		 * 
+		 * Constructor.
+		 * 
+		 * Use: Entry entry = new Entry( sequence, line )
+		 * 
+		 ************************************************************* */
+		
+		public Entry( long sequence, String line ) {
+			this.sequence = sequence;
+			this.line = line;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the sequence number of this message.
+		 * 
+		 * Use:
+		 * 		long sequence = entry.getSequence();
+		 * 
+		 ************************************************************* */
+		
+		public long getSequence() {
+			return this.sequence;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the formatted line of this message.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public String toString() {
+			return this.line;
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Receives the events of a connection to a server. Methods are
+	 * called on the connection's reader thread, so implementations
+	 * hand any GUI work to the JavaFX Application Thread.
+	 * 
+	 ************************************************************* */
+	
+	public interface Listener {
+		
+		void connected( String name );
+		
+		void message( Entry entry );
+		
+		void earlier( List<Entry> entries );
+		
+		void later( List<Entry> entries );
+		
+		void clients( List<String> clients );
+		
+		void error( String error );
+		
+		void closed();
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * A connection to a server that never blocks its caller. Requests
+	 * are tagged and queued for a writer thread without waiting for
+	 * earlier responses, and a reader thread matches each response
+	 * to its request by tag while passing pushed messages straight
+	 * on. Live messages reach the listener once each and in sequence
+	 * order, starting with the newest page of history; when a push
+	 * arrives ahead of a gap, such as this client's own post over
+	 * the text protocol, the gap is filled from history. Older and
+	 * newer pages are fetched on request for browsing. The client
+	 * list is kept from the changes made since the last presence
+	 * version seen, so only the first request fetches all of it.
+	 * 
+	 ************************************************************* */
+	
+	public static class Connection {
+		
+		private static final byte[] END = new byte[0];
+		
+		private final Socket socket;
+		private final String username;
+		private final String channel;
+		private final boolean binary;
+		private final Listener listener;
+		private final LinkedBlockingQueue<byte[]> outbox;
+		private final ConcurrentHashMap<Long, Integer> pending;
+		private final AtomicLong tags;
+		private final HashMap<Integer, String> names;
+		private final TreeMap<Integer, String> present;
+		private final SimpleDateFormat format;
+		private final InputStream input;
+		private final OutputStream output;
+		private long sequence;
+		private long highest;
+		private long historyTag;
+		private boolean paging;
+		private boolean behind;
+		private volatile long presence;
+		private volatile boolean closed;
+		
+		/* *************************************************************
+		 * 
+		 * Constructor. Opens a TCP socket to the given server and, if
+		 * asked for, negotiates the binary protocol. This blocks, so
+		 * it is called off the JavaFX Application Thread. The writer
+		 * already sends queued requests together, so Nagle's algorithm
+		 * is off unless mbclient.tcpNoDelay is false.
+		 * 
+		 * Parameters:
+		 * 		address (String)
+		 * 			A string in the format a.b.c.d.
+		 * 
+		 * 		port (int)
+		 * 			An integer between 0 and 65535.
+		 * 
+		 * 		username (String)
+		 * 			The name to connect as.
+		 * 
+		 * 		channel (String)
+		 * 			The channel to connect to, or null for the default.
+		 * 
+		 * 		binary (boolean)
+		 * 			Whether to use the binary protocol.
+		 * 
+		 * 		listener (Listener)
+		 * 			Receives this connection's events.
+		 * 
+		 * Use: Connection connection = new Connection( address, port, username, channel, binary, listener )
+		 * 
+		 ************************************************************* */
+		
+		public Connection( String address, int port, String username, String channel, boolean binary, Listener listener ) throws IOException {
+			this.socket = new Socket( address, port );
+			this.socket.setTcpNoDelay( Boolean.parseBoolean( System.getProperty( PROP_NO_DELAY, NO_DELAY )));
+			this.username = username;
+			this.channel = channel;
+			this.binary = binary;
+			this.listener = listener;
+			this.outbox = new LinkedBlockingQueue<byte[]>();
+			this.pending = new ConcurrentHashMap<Long, Integer>();
+			this.tags = new AtomicLong();
+			this.names = new HashMap<Integer, String>();
+			this.present = new TreeMap<Integer, String>();
+			this.format = new SimpleDateFormat( "hh:mm" );
+			this.input = new BufferedInputStream( socket.getInputStream() );
+			this.output = new BufferedOutputStream( socket.getOutputStream() );
+			this.sequence = 0;
+			this.highest = 0;
+			this.historyTag = -1;
+			this.paging = false;
+			this.behind = false;
+			this.presence = 0;
+			this.closed = false;
+			if ( binary ) {
+				output.write(( CMD_BINARY + " " + username + "\n" ).getBytes( StandardCharsets.UTF_8 ));
+				output.flush();
+				ByteArrayOutputStream reply = new ByteArrayOutputStream();
+				for ( int b = input.read(); b != '\n'; b = input.read() ) {
+					if ( b < 0 ) {
+						break;
+					}
+					reply.write( b );
+				}
+				if ( !reply.toString( "UTF-8" ).trim().equals( String.valueOf( CMD_BINARY ))) {
+					socket.close();
+					throw new IOException( ERROR_NO_BINARY );
+				}
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Connects as this connection's username, subscribes to new
+		 * posts, asks for the newest page of history and the client
+		 * list, and starts the reader and writer threads.
+		 * 
+		 * Use:
+		 * 		connection.start();
+		 * 
+		 ************************************************************* */
+		
+		public void start() {
+			request( CMD_CONNECT );
+			request( CMD_SUBSCRIBE );
+			paging = true;
+			historyTag = search( SEARCH_BEFORE + Long.MAX_VALUE );
+			presence();
+			Thread reader = new Thread( this::read, "mbclient-reader" );
+			reader.setDaemon( true );
+			reader.start();
+			Thread writer = new Thread( this::write, "mbclient-writer" );
+			writer.setDaemon( true );
+			writer.start();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a request that takes no text. CMD_POST, CMD_HISTORY
+		 * and CMD_PRESENCE requests are made by post(), the reader and
+		 * presence().
+		 * 
+		 * Parameters:
+		 *		command (int)
+		 *			A single-digit integer between 0 and 7, where each
+		 *			number corresponds to a specific command. 
+		 * 
+		 * Use:
+		 * 		connection.request( command );
+		 * 
+		 ************************************************************* */
+		
+		public void request( int command ) {
+			if ( command == CMD_CONNECT ) {
+				if ( binary ) {
+					ByteArrayOutputStream payload = payload( command );
+					putString( payload, username );
+					if ( channel != null ) {
+						putString( payload, channel );
+					}
+					send( command, payload );
+				} else {
+					send( command, command + " " + username + ( channel != null ? " " + channel : "" ));
+				}
+			} else if ( binary ) {
+				send( command, payload( command ));
+			} else {
+				send( command, command + " " + username );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a post of the given text.
+		 * 
+		 * Use:
+		 * 		connection.post( text );
+		 * 
+		 ************************************************************* */
+		
+		public void post( String text ) {
+			if ( binary ) {
+				ByteArrayOutputStream payload = payload( CMD_POST );
+				putString( payload, text );
+				send( CMD_POST, payload );
+			} else {
+				send( CMD_POST, CMD_POST + " " + username + " " + text );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a request for the changes to the client list since
+		 * the last presence version seen. The listener's clients() is
+		 * called only if there were any.
+		 * 
+		 * Use:
+		 * 		connection.presence();
+		 * 
+		 ************************************************************* */
+		
+		public void presence() {
+			if ( binary ) {
+				ByteArrayOutputStream payload = payload( CMD_PRESENCE );
+				putVarint( payload, presence );
+				send( CMD_PRESENCE, payload );
+			} else {
+				send( CMD_PRESENCE, CMD_PRESENCE + " " + username + " " + presence );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a request for the page of messages before a sequence
+		 * number, passed to the listener's earlier().
+		 * 
+		 * Use:
+		 * 		connection.earlier( before );
+		 * 
+		 ************************************************************* */
+		
+		public void earlier( long before ) {
+			search( SEARCH_BEFORE + before );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a request for the page of messages after a sequence
+		 * number, passed to the listener's later().
+		 * 
+		 * Use:
+		 * 		connection.later( after );
+		 * 
+		 ************************************************************* */
+		
+		public void later( long after ) {
+			history( after );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a disconnect request, after which the writer closes
+		 * the socket.
+		 * 
+		 * Use:
+		 * 		connection.disconnect();
+		 * 
+		 ************************************************************* */
+		
+		public void disconnect() {
+			request( CMD_DISCONNECT );
+			outbox.add( END );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns whether this connection has been closed.
+		 * 
+		 * Use:
+		 * 		boolean closed = connection.isClosed();
+		 * 
+		 ************************************************************* */
+		
+		public boolean isClosed() {
+			return closed;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Closes the socket, which ends the reader and writer.
+		 * 
+		 * Use:
+		 * 		connection.close();
+		 * 
+		 ************************************************************* */
+		
+		public void close() {
+			closed = true;
+			outbox.add( END );
+			try {
+				socket.close();
+			} catch ( IOException e ) {
+				e.printStackTrace();
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a request for the page of history after the last
+		 * message passed on. Called before the reader starts, and then
+		 * only by it.
+		 * 
+		 ************************************************************* */
+		
+		private void history() {
+			paging = true;
+			behind = false;
+			historyTag = history( sequence );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a request for the page of history after a sequence
+		 * number and returns its tag.
+		 * 
+		 ************************************************************* */
+		
+		private long history( long after ) {
+			if ( binary ) {
+				ByteArrayOutputStream payload = payload( CMD_HISTORY );
+				putVarint( payload, after );
+				putVarint( payload, HISTORY_PAGE );
+				return send( CMD_HISTORY, payload );
+			} else {
+				return send( CMD_HISTORY, CMD_HISTORY + " " + username + " " + after + " " + HISTORY_PAGE );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a search request and returns its tag.
+		 * 
+		 ************************************************************* */
+		
+		private long search( String query ) {
+			if ( binary ) {
+				ByteArrayOutputStream payload = payload( CMD_SEARCH );
+				putString( payload, query );
+				return send( CMD_SEARCH, payload );
+			} else {
+				return send( CMD_SEARCH, CMD_SEARCH + " " + username + " " + query );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns a new tag, noting the command it was sent with. The
+		 * server answers every tagged request, so each is forgotten
+		 * once its response arrives.
+		 * 
+		 ************************************************************* */
+		
+		private long tag( int command ) {
+			long tag = tags.incrementAndGet();
+			pending.put( tag, command );
+			return tag;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a text protocol request, prefixed with its tag, and
+		 * returns the tag.
+		 * 
+		 ************************************************************* */
+		
+		private long send( int command, String request ) {
+			long tag = tag( command );
+			outbox.add(( TAG_MARK + tag + " " + request + "\n" ).getBytes( Charset.defaultCharset() ));
+			return tag;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues a binary protocol request, wrapped in a FRAME_TAG
+		 * frame with its tag, and returns the tag.
+		 * 
+		 ************************************************************* */
+		
+		private long send( int command, ByteArrayOutputStream request ) {
+			long tag = tag( command );
+			ByteArrayOutputStream payload = payload( FRAME_TAG );
+			putVarint( payload, tag );
+			payload.write( request.toByteArray(), 0, request.size() );
+			outbox.add( frame( payload ));
+			return tag;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Writes queued requests until the connection ends, flushing
+		 * once the queue is drained rather than after every request.
+		 * 
+		 ************************************************************* */
+		
+		private void write() {
+			try {
+				while ( true ) {
+					byte[] request = outbox.take();
+					while ( request != null && request != END ) {
+						output.write( request );
+						request = outbox.poll();
+					}
+					output.flush();
+					if ( request == END ) {
+						break;
+					}
+				}
+			} catch ( InterruptedException | IOException e ) {
+				if ( !closed ) {
+					e.printStackTrace();
+				}
+			}
+			close();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads responses until the connection ends, then tells the
+		 * listener. A malformed response is skipped by the readers;
+		 * anything else that goes wrong still closes the connection
+		 * and tells the listener.
+		 * 
+		 ************************************************************* */
+		
+		private void read() {
+			try {
+				if ( binary ) {
+					readFrames( new DataInputStream( input ));
+				} else {
+					readLines( new BufferedReader( new InputStreamReader( input )));
+				}
+			} catch ( IOException | RuntimeException e ) {
+				if ( !closed ) {
+					e.printStackTrace();
+				}
+			}
+			close();
+			listener.closed();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads text protocol responses. Pushes are marked with a
+		 * leading "*" and responses with a leading tag; the header of
+		 * a page of history or search results is followed by its
+		 * lines. A line that cannot be parsed is skipped.
+		 * 
+		 ************************************************************* */
+		
+		private void readLines( BufferedReader in ) throws IOException {
+			for ( String line = in.readLine(); line != null; line = in.readLine() ) {
+				try {
+					if ( line.startsWith( PUSH_MARK + " " )) {
+						deliver( getEntry( line.substring( 2 )));
+						continue;
+					}
+					int end = line.indexOf( ' ' );
+					if ( !line.startsWith( TAG_MARK ) || end < 0 ) {
+						continue;
+					}
+					long tag = Long.parseLong( line.substring( 1, end ));
+					Integer command = pending.remove( tag );
+					line = line.substring( end + 1 );
+					if ( command == null ) {
+						continue;
+					} else if ( line.startsWith( ERROR_PREFIX )) {
+						listener.error( line );
+						if ( command == CMD_HISTORY || command == CMD_SEARCH ) {
+							answer( tag, command, new ArrayList<Entry>() );
+						}
+					} else if ( command == CMD_CONNECT ) {
+						listener.connected( line );
+					} else if ( command == CMD_POST ) {
+						catchUp();
+					} else if ( command == CMD_UPDATE ) {
+						listener.clients( line.isEmpty() ? new ArrayList<String>() : Arrays.asList( line.split( " " )));
+					} else if ( command == CMD_PRESENCE ) {
+						Scanner changes = new Scanner( line );
+						long version = changes.nextLong();
+						boolean reset = changes.hasNext( PRESENCE_SNAPSHOT );
+						if ( reset ) {
+							changes.next();
+						}
+						List<Integer> ids = new ArrayList<Integer>();
+						List<String> joined = new ArrayList<String>();
+						while ( changes.hasNext() ) {
+							String change = changes.next();
+							ids.add( Integer.parseInt( change.substring( 1 )));
+							joined.add( change.startsWith( "+" ) ? changes.next() : null );
+						}
+						changes.close();
+						present( version, reset, ids, joined );
+					} else if ( command == CMD_HISTORY || command == CMD_SEARCH ) {
+						long count = Long.parseLong( line.split( " " )[0] );
+						List<Entry> entries = new ArrayList<Entry>();
+						for ( long i = 0; i < count; i++ ) {
+							String message = in.readLine();
+							if ( message == null ) {
+								return;
+							}
+							try {
+								entries.add( getEntry( message ));
+							} catch ( RuntimeException e ) {
+								e.printStackTrace();
+							}
+						}
+						answer( tag, command, entries );
+					}
+				} catch ( RuntimeException e ) {
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads binary protocol frames. Usernames announced on the way
+		 * are remembered, pushes are passed on, and responses arrive
+		 * wrapped in FRAME_TAG frames. A frame that cannot be parsed
+		 * is skipped; the next one starts after its length.
+		 * 
+		 ************************************************************* */
+		
+		private void readFrames( DataInputStream in ) throws IOException {
+			while ( true ) {
+				long length = 0;
+				for ( int shift = 0;; shift += 7 ) {
+					byte b = in.readByte();
+					length |= (long) ( b & 0x7F ) << shift;
+					if ( b >= 0 ) {
+						break;
+					}
+				}
+				byte[] frame = new byte[(int) length];
+				in.readFully( frame );
+				ByteBuffer response = ByteBuffer.wrap( frame );
+				try {
+					int command = (int) getVarint( response );
+					if ( command == FRAME_NAME ) {
+						int id = (int) getVarint( response );
+						names.put( id, getString( response ));
+						continue;
+					} else if ( command == FRAME_PUSH ) {
+						deliver( getEntry( response ));
+						continue;
+					}
+					long tag = -1;
+					Integer awaited = null;
+					if ( command == FRAME_TAG ) {
+						tag = getVarint( response );
+						awaited = pending.remove( tag );
+						command = (int) getVarint( response );
+					}
+					if ( awaited == null ) {
+						continue;
+					} else if ( command == FRAME_ERROR ) {
+						listener.error( getString( response ));
+						if ( awaited == CMD_HISTORY || awaited == CMD_SEARCH ) {
+							answer( tag, awaited, new ArrayList<Entry>() );
+						}
+					} else if ( command == CMD_CONNECT ) {
+						listener.connected( getName( response ));
+					} else if ( command == CMD_POST ) {
+						deliver( getEntry( response ));
+					} else if ( command == CMD_UPDATE ) {
+						List<String> clients = new ArrayList<String>();
+						for ( long count = getVarint( response ); count > 0; count-- ) {
+							getVarint( response );
+							clients.add( getString( response ));
+						}
+						listener.clients( clients );
+					} else if ( command == CMD_PRESENCE ) {
+						long version = getVarint( response );
+						boolean reset = getVarint( response ) > 0;
+						List<Integer> ids = new ArrayList<Integer>();
+						List<String> joined = new ArrayList<String>();
+						for ( long count = getVarint( response ); count > 0; count-- ) {
+							ids.add( (int) getVarint( response ));
+							joined.add(( getVarint( response ) > 0 ) ? getString( response ) : null );
+						}
+						present( version, reset, ids, joined );
+					} else if ( command == CMD_HISTORY || command == CMD_SEARCH ) {
+						long count = getVarint( response );
+						getVarint( response );
+						List<Entry> entries = new ArrayList<Entry>();
+						for ( long i = 0; i < count; i++ ) {
+							entries.add( getEntry( response ));
+						}
+						answer( tag, command, entries );
+					}
+				} catch ( RuntimeException e ) {
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads a username's id from a frame and returns the name,
+		 * which follows the id if the server gave it none.
+		 * 
+		 ************************************************************* */
+		
+		private String getName( ByteBuffer response ) {
+			int id = (int) getVarint( response );
+			return ( id == NAME_INLINE ) ? getString( response ) : names.get( id );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads a message's sequence number, user, time and text from
+		 * a frame, formatting it as the text protocol does.
+		 * 
+		 ************************************************************* */
+		
+		private Entry getEntry( ByteBuffer response ) {
+			long sequence = getVarint( response );
+			String name = getName( response );
+			String timestamp = format.format( new Date( getVarint( response )));
+			return new Entry( sequence, timestamp + " " + name + " " + getString( response ));
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Splits a text protocol message line into its sequence number
+		 * and the rest of the line.
+		 * 
+		 ************************************************************* */
+		
+		private static Entry getEntry( String line ) {
+			int space = line.indexOf( ' ' );
+			return new Entry( Long.parseLong( line.substring( 0, space )), line.substring( space + 1 ));
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Passes on a page of messages. A page answering the request
+		 * that keeps live messages in order is delivered through
+		 * page(); any other page was asked for while browsing and goes
+		 * to the listener whole.
+		 * 
+		 ************************************************************* */
+		
+		private void answer( long tag, int command, List<Entry> entries ) {
+			if ( tag == historyTag ) {
+				for ( Entry entry : entries ) {
+					page( entry );
+				}
+				paged( entries.size(), command == CMD_HISTORY && entries.size() == HISTORY_PAGE );
+			} else if ( command == CMD_SEARCH ) {
+				listener.earlier( entries );
+			} else {
+				listener.later( entries );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Passes on a pushed or posted message if it is the next in
+		 * sequence, or otherwise catches up from history.
+		 * 
+		 ************************************************************* */
+		
+		private void deliver( Entry entry ) {
+			highest = Math.max( highest, entry.getSequence() );
+			if ( entry.getSequence() == sequence + 1 ) {
+				sequence = entry.getSequence();
+				listener.message( entry );
+			} else if ( entry.getSequence() > sequence ) {
+				catchUp();
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Passes on a message from a page of history unless it has
+		 * already been passed on.
+		 * 
+		 ************************************************************* */
+		
+		private void page( Entry entry ) {
+			if ( entry.getSequence() > sequence ) {
+				sequence = entry.getSequence();
+				listener.message( entry );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Applies the changes to the client list since a presence
+		 * version: a connection that joins or takes a new name is set
+		 * to it, and one whose name is null is removed. A snapshot
+		 * replaces the list first. Changes that overlap ones already
+		 * applied give the same list, and a response older than the
+		 * list is ignored. The listener gets the names in connection
+		 * order if anything changed.
+		 * 
+		 ************************************************************* */
+		
+		private void present( long version, boolean reset, List<Integer> ids, List<String> joined ) {
+			if ( version < presence ) {
+				return;
+			}
+			if ( reset ) {
+				present.clear();
+			}
+			for ( int i = 0; i < ids.size(); i++ ) {
+				if ( joined.get( i ) != null ) {
+					present.put( ids.get( i ), joined.get( i ));
+				} else {
+					present.remove( ids.get( i ));
+				}
+			}
+			presence = version;
+			if ( reset || !ids.isEmpty() ) {
+				listener.clients( new ArrayList<String>( present.values() ));
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Asks for the messages after the last one passed on, or, if a
+		 * page is already on its way, for another once it arrives.
+		 * 
+		 ************************************************************* */
+		
+		private void catchUp() {
+			if ( paging ) {
+				behind = true;
+			} else {
+				history();
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Finishes a page of history, asking for the next one if the
+		 * page was full or more messages are known to be waiting. A
+		 * gap that history cannot fill is skipped.
+		 * 
+		 ************************************************************* */
+		
+		private void paged( long count, boolean full ) {
+			if ( full || ( behind && count > 0 )) {
+				history();
+			} else {
+				if ( behind ) {
+					sequence = Math.max( sequence, highest );
+				}
+				paging = false;
+				behind = false;
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Starts a binary protocol payload with its command.
+		 * 
+		 ************************************************************* */
+		
+		private static ByteArrayOutputStream payload( int command ) {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			putVarint( payload, command );
+			return payload;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns a payload prefixed with its varint length.
+		 * 
+		 ************************************************************* */
+		
+		private static byte[] frame( ByteArrayOutputStream payload ) {
+			ByteArrayOutputStream frame = new ByteArrayOutputStream();
+			putVarint( frame, payload.size() );
+			frame.write( payload.toByteArray(), 0, payload.size() );
+			return frame.toByteArray();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Appends an unsigned varint (seven bits per byte, low bits
+		 * first) to a payload.
+		 * 
+		 * Use:
+		 * 		putVarint( payload, value );
+		 * 
+		 ************************************************************* */
+		
+		private static void putVarint( ByteArrayOutputStream payload, long value ) {
+			while (( value & ~0x7FL ) != 0 ) {
+				payload.write( (int) (( value & 0x7F ) | 0x80 ));
+				value >>>= 7;
+			}
+			payload.write( (int) value );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Appends a varint byte count and UTF-8 string to a payload.
+		 * 
+		 * Use:
+		 * 		putString( payload, value );
+		 * 
+		 ************************************************************* */
+		
+		private static void putString( ByteArrayOutputStream payload, String value ) {
+			byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+			putVarint( payload, bytes.length );
+			payload.write( bytes, 0, bytes.length );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads an unsigned varint from a received frame.
+		 * 
+		 * Use:
+		 * 		long value = getVarint( response );
+		 * 
+		 ************************************************************* */
+		
+		private static long getVarint( ByteBuffer response ) {
+			long value = 0;
+			for ( int shift = 0; shift < 64; shift += 7 ) {
+				byte b = response.get();
+				value |= (long) ( b & 0x7F ) << shift;
+				if ( b >= 0 ) {
+					break;
+				}
+			}
+			return value;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads a varint byte count and UTF-8 string from a received
+		 * frame.
+		 * 
+		 * Use:
+		 * 		String value = getString( response );
+		 * 
+		 ************************************************************* */
+		
+		private static String getString( ByteBuffer response ) {
+			int count = (int) getVarint( response );
+			String value = new String( response.array(), response.position(), count, StandardCharsets.UTF_8 );
+			response.position( response.position() + count );
+			return value;
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * A list cell that shows its item's string in the board font.
+	 * List views create only enough cells to fill what is visible
+	 * and reuse them as the list scrolls.
+	 * 
+	 ************************************************************* */
+	
+	private static class Cell<T> extends ListCell<T> {
+		
+		/* *************************************************************
+		 * 
+		 * Constructor.
+		 * 
+		 * Use: Cell<T> cell = new Cell<T>()
+		 * 
+		 ************************************************************* */
+		
+		public Cell() {
+			setFont( FONT_BOARD );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Shows an item, or nothing for an empty cell.
+		 * 
+		 * Required for JavaFX.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		protected void updateItem( T item, boolean empty ) {
+			super.updateItem( item, empty );
+			setText(( empty || item == null ) ? null : item.toString() );
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Interface to facilitate client-server interactions.
+	 * 
+	 ************************************************************* */
+	
+	public static class View extends Application implements EventHandler<ActionEvent>, Listener {
+		
+		/* *************************************************************
+		 * 
+		 * GUI elements.
+		 * 
+		 ************************************************************* */
+		
+		private Button btnClear;
+		private Button btnConnect;
+		private Button btnPost;
+		private HBox hbxChat;
+		private HBox hbxConnect;
+		private HBox hbxMessage;
+		private Label labIPaddress;
+		private Label labIPab;
+		private Label labIPbc;
+		private Label labIPcd;
+		private Label labPort;
+		private ListView<Entry> lstChat;
+		private ListView<String> lstClient;
+		private Menu mnuAbout;
+		private MenuBar mbrMain;
+		private ScrollBar sbrChat;
+		private Separator sepChat;
+		private Separator sepIP;
+		private Separator sepLine;
+		private Separator sepMessage;
+		private Separator sepPort;
+		private Separator sepPost;
+		private TextArea txaMessage;
+		private TextField txfIPa;
+		private TextField txfIPb;
+		private TextField txfIPc;
+		private TextField txfIPd;
+		private TextField txfPort;
+		private TitledPane tpnChat;
+		private TitledPane tpnConnect;
+		private VBox vbxBackground;
+		private VBox vbxChat;
+		private VBox vbxInteract;
+		
+		/* *************************************************************
+		 * 
+		 * Client resources. Messages and client lists arrive on the
+		 * connection's reader thread and wait here until the next
+		 * batched update of the GUI. The chat holds a window of at
+		 * most CHAT_LINES_MAX messages; while it follows the board,
+		 * live messages are added to it, and otherwise it is moved by
+		 * fetching pages as the user scrolls past either end.
+		 * 
+		 ************************************************************* */
+		
+		private volatile Connection connection;
+		private String username;
+		private String channel;
+		private boolean binary;
+		private ConcurrentLinkedQueue<Entry> arrived;
+		private AtomicReference<List<String>> clients;
+		private AtomicBoolean scheduled;
+		private boolean following;
+		private boolean loading;
+		private boolean exhausted;
+		
+		/* *************************************************************
+		 * 
+		 * Constructor.
+		 * 
+		 * Use: View view = new View()
+		 * 
+		 ************************************************************* */
+		
+		public View() {
+			this.connection = null;
+			this.username = USERNAME_DEFAULT;
+			this.channel = System.getProperty( PROP_CHANNEL );
+			this.binary = PROTOCOL_BINARY.equals( System.getProperty( PROP_PROTOCOL ));
+			this.arrived = new ConcurrentLinkedQueue<Entry>();
+			this.clients = new AtomicReference<List<String>>();
+			this.scheduled = new AtomicBoolean( false );
+			this.following = true;
+			this.loading = false;
+			this.exhausted = false;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Connects this client to the given server on a background
+		 * thread, so that neither the TCP handshake nor negotiating
+		 * the binary protocol (selected with the mbclient.protocol
+		 * property) holds up the GUI. The controls are enabled once
+		 * the connection is open.
+		 * 
+		 * Parameters:
+		 * 		address (String)
+		 * 			A string in the format a.b.c.d where a, b, c, and d
+		 * 			are integers between 0 and 255.
+		 *   
+		 *   	port (int)
+		 *   		An integer between 0 and 65535.
+		 * 
+		 * Use:
+		 * 		connect( address, port );
+		 * 
+		 ************************************************************* */
+		
+		private void connect( String address, int port ) {
+			btnConnect.setDisable( true );
+			Thread connector = new Thread(() -> {
+				Connection opened = null;
+				try {
+					opened = new Connection( address, port, username, channel, binary, this );
+					opened.start();
+				} catch ( UnknownHostException e ) {
+					e.printStackTrace();
+				} catch ( ConnectException e ) {
+					System.err.println( ERROR_NO_SERVER );
+				} catch ( IOException e ) {
+					System.err.println( e.getMessage() );
+				}
+				Connection result = opened;
+				Platform.runLater(() -> {
+					btnConnect.setDisable( false );
+					if ( result != null && !result.isClosed() ) {
+						connection = result;
+						btnClear.setDisable( false );
+						btnConnect.setText( TEXT_CONTROL_DISCONNECT );
+						btnPost.setDisable( false );
+						lstChat.setDisable( false );
+						lstClient.setDisable( false );
+						txaMessage.setDisable( false );
+						txfIPa.setDisable( true );
+						txfIPb.setDisable( true );
+						txfIPc.setDisable( true );
+						txfIPd.setDisable( true );
+						txfPort.setDisable( true );
+					}
+				});
+			}, "mbclient-connect" );
+			connector.setDaemon( true );
+			connector.start();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Disconnects this client from the server it is connected to,
+		 * or resets the GUI after the server closed the connection.
+		 * 
+		 * Use:
+		 * 		disconnect();
+		 * 
+		 ************************************************************* */
+		
+		private void disconnect() {
+			if ( connection != null && !connection.isClosed() ) {
+				connection.disconnect();
+			}
+			connection = null;
+			arrived.clear();
+			clients.set( null );
+			following = true;
+			loading = false;
+			exhausted = false;
+			btnClear.setDisable( true );
+			btnConnect.setText( TEXT_CONTROL_CONNECT );
+			btnPost.setDisable( true );
+			lstChat.getItems().clear();
+			lstChat.setDisable( true );
+			lstClient.getItems().clear();
+			lstClient.setDisable( true );
+			txaMessage.clear();
+			txaMessage.setDisable( true );
+			txfIPa.clear();
+			txfIPa.setDisable( false );
+			txfIPb.clear();
+			txfIPb.setDisable( false );
+			txfIPc.clear();
+			txfIPc.setDisable( false );
+			txfIPd.clear();
+			txfIPd.setDisable( false );
+			txfPort.clear();
+			txfPort.setDisable( false );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Constructs and returns a valid IP address from the
+		 * information input by a user into the GUI elements.
+		 * 
+		 * Use:
+		 * 		String address = getAddress();
+		 * 
+		 ************************************************************* */
+		
+		private String getAddress() {
+			boolean valid = true;
+			int values[] = new int[4];
+			try {
+				values[0] = Integer.parseInt( txfIPa.getText() );
+				values[1] = Integer.parseInt( txfIPb.getText() );
+				values[2] = Integer.parseInt( txfIPc.getText() );
+				values[3] = Integer.parseInt( txfIPd.getText() );
+				for ( int i = 0; i < 4; i++ ) {
+					if ( values[i] >= IP_OCTET_MIN && values[i] <= IP_OCTET_MAX ) {
+						valid = valid & true;
+					}
+				}
+				if ( valid ) {
+					return txfIPa.getText() + "." + txfIPb.getText() + "." + txfIPc.getText() + "." + txfIPd.getText();
+				} else {
+					return "";
+				}
+			} catch ( NumberFormatException e ) {
+				return "";
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Constructs and returns a valid network port number from the
+		 * information input by a user into the GUI elements.
+		 * 
+		 * Use:
+		 * 		String port = getPort();
+		 * 
+		 ************************************************************* */
+		
+		private int getPort() {
+			try {
+				int port = Integer.parseInt( txfPort.getText() );
+				if ( port >= PORT_MIN && port <= PORT_MAX ) {
+					return port;
+				} else {
+					return -1;
+				}
+			} catch ( NumberFormatException e ) {
+				return -1;
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Constructs and determines the properties of the GUI elements.
+		 * 
+		 * Use:
+		 * 		initializeView();
+		 * 
+		 ************************************************************* */
+		
+		private void initializeView() {
+			btnClear = new Button( TEXT_CONTROL_CLEAR );
+			btnClear.setDisable( true );
+			btnClear.setFont( FONT_CONTROL );
+			btnClear.setOnAction( this );
+			btnClear.setPrefSize( 80, 25 );
+			btnConnect = new Button( TEXT_CONTROL_CONNECT );
+			btnConnect.setFont( FONT_CONTROL );
+			btnConnect.setOnAction( this );
+			btnConnect.setPrefSize( 80, 25 );
+			btnPost = new Button( TEXT_CONTROL_POST );
+			btnPost.setDisable( true );
+			btnPost.setFont( FONT_CONTROL );
+			btnPost.setOnAction( this );
+			btnPost.setPrefSize( 80, 25 );
+			hbxChat = new HBox();
+			hbxConnect = new HBox();
+			hbxMessage = new HBox();
+			labIPaddress = new Label( TEXT_LABEL_IP );
+			labIPaddress.setAlignment( Pos.BASELINE_LEFT );
+			labIPaddress.setFont( FONT_LABEL );
+			labIPaddress.setPrefSize( 75, 25 );
+			labIPab = new Label( "." );
+			labIPab.setAlignment( Pos.BASELINE_CENTER );
+			labIPab.setFont( FONT_LABEL );
+			labIPab.setPrefSize( 10, 25 );
+			labIPbc = new Label( "." );
+			labIPbc.setAlignment( Pos.BASELINE_CENTER );
+			labIPbc.setFont( FONT_LABEL );
+			labIPbc.setPrefSize( 10, 25 );
+			labIPcd = new Label( "." );
+			labIPcd.setAlignment( Pos.BASELINE_CENTER );
+			labIPcd.setFont( FONT_LABEL );
+			labIPcd.setPrefSize( 10, 25 );
+			labPort = new Label( TEXT_LABEL_PORT );
+			labPort.setAlignment( Pos.BASELINE_LEFT );
+			labPort.setFont( FONT_LABEL );
+			labPort.setPrefSize( 35, 25 );
+			lstChat = new ListView<Entry>();
+			lstChat.addEventFilter( ScrollEvent.SCROLL, event -> scrolled() );
+			lstChat.setCellFactory( list -> new Cell<Entry>() );
+			lstChat.setDisable( true );
+			lstChat.setFixedCellSize( CHAT_CELL_HEIGHT );
+			lstChat.setPrefSize( 405, 150 );
+			lstClient = new ListView<String>();
+			lstClient.setCellFactory( list -> new Cell<String>() );
+			lstClient.setDisable( true );
+			lstClient.setFixedCellSize( CHAT_CELL_HEIGHT );
+			lstClient.setPrefSize( 80, 150 );
+			mnuAbout = new Menu( TEXT_CONTROL_ABOUT );
+			mbrMain = new MenuBar();
+			mbrMain.setPrefSize( VIEW_MAIN_WIDTH, 25 );
+			mbrMain.setNodeOrientation( NodeOrientation.RIGHT_TO_LEFT );
+			sepChat = new Separator();
+			sepChat.setPrefSize( 10,  25 );
+			sepChat.setVisible( false );
+			sepIP = new Separator();
+			sepIP.setPrefSize( 30, 25 );
+			sepIP.setVisible( false );
+			sepLine = new Separator();
+			sepLine.setPrefSize( 10,  25 );
+			sepLine.setVisible( true );
+			sepMessage = new Separator();
+			sepMessage.setPrefSize( 10,  25 );
+			sepMessage.setVisible( false );
+			sepPort = new Separator();
+			sepPort.setPrefSize( 10,  25 );
+			sepPort.setVisible( false );
+			sepPost = new Separator();
+			sepPost.setPrefSize( 80,  5 );
+			sepPost.setVisible( false );
+			txaMessage = new TextArea();
+			txaMessage.setDisable( true );
+			txaMessage.setFont( FONT_BOARD );
+			txaMessage.setPrefSize( 405, 50 );
+			txfIPa = new TextField();
+			txfIPa.setAlignment( Pos.CENTER );
+			txfIPa.setFont( FONT_CONTROL );
+			txfIPa.setPrefSize( 45, 25 );
+			txfIPb = new TextField();
+			txfIPb.setAlignment( Pos.CENTER );
+			txfIPb.setFont( FONT_CONTROL );
+			txfIPb.setPrefSize( 45, 25 );
+			txfIPc = new TextField();
+			txfIPc.setAlignment( Pos.CENTER );
+			txfIPc.setFont( FONT_CONTROL );
+			txfIPc.setPrefSize( 45, 25 );
+			txfIPd = new TextField();
+			txfIPd.setAlignment( Pos.CENTER );
+			txfIPd.setFont( FONT_CONTROL );
+			txfIPd.setPrefSize( 45, 25 );
+			txfPort = new TextField();
+			txfPort.setAlignment( Pos.CENTER );
+			txfPort.setFont( FONT_CONTROL );
+			txfPort.setPrefSize( 55, 25 );
+			tpnChat = new TitledPane();
+			tpnChat.setCollapsible( false );
+			tpnChat.setFont( FONT_CONTROL );
+			tpnChat.setPadding( new Insets( 5, 5, 5, 5 ));
+			tpnChat.setText( TEXT_LABEL_MESSAGE );
+			tpnConnect = new TitledPane();
+			tpnConnect.setCollapsible( false );
+			tpnConnect.setFont( FONT_CONTROL );
+			tpnConnect.setPadding( new Insets( 10, 5, 5, 5 ));
+			tpnConnect.setText( TEXT_LABEL_CONNECT );
+			vbxBackground = new VBox();
+			vbxChat = new VBox();
+			vbxInteract = new VBox();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Determines the structure and position of the GUI elements.
+		 * 
+		 * Use:
+		 * 		layoutView();
+		 * 
+		 ************************************************************* */
+		
+		private void layoutView() {
+			hbxConnect.getChildren().add( labIPaddress );
+			hbxConnect.getChildren().add( txfIPa );
+			hbxConnect.getChildren().add( labIPab );
+			hbxConnect.getChildren().add( txfIPb );
+			hbxConnect.getChildren().add( labIPbc );
+			hbxConnect.getChildren().add( txfIPc );
+			hbxConnect.getChildren().add( labIPcd );
+			hbxConnect.getChildren().add( txfIPd );
+			hbxConnect.getChildren().add( sepIP );
+			hbxConnect.getChildren().add( labPort );
+			hbxConnect.getChildren().add( txfPort );
+			hbxConnect.getChildren().add( sepPort );
+			hbxConnect.getChildren().add( btnConnect );
+			tpnConnect.setContent( hbxConnect );
+			hbxChat.getChildren().add( lstChat );
+			hbxChat.getChildren().add( sepChat );
+			hbxChat.getChildren().add( lstClient );
+			mbrMain.getMenus().add( mnuAbout );
+			vbxInteract.getChildren().add( btnPost );
+			vbxInteract.getChildren().add( sepPost );
+			vbxInteract.getChildren().add( btnClear );
+			hbxMessage.getChildren().add( txaMessage );
+			hbxMessage.getChildren().add( sepMessage );
+			hbxMessage.getChildren().add( vbxInteract );
+			vbxChat.getChildren().add( hbxChat );
+			vbxChat.getChildren().add( sepLine );
+			vbxChat.getChildren().add( hbxMessage );
+			tpnChat.setContent( vbxChat );
+			vbxBackground.getChildren().add( mbrMain );
+			vbxBackground.getChildren().add( tpnConnect );
+			vbxBackground.getChildren().add( tpnChat );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Listener methods, called on the connection's reader thread.
+		 * Messages and client lists are queued for the next update of
+		 * the GUI rather than each scheduling their own.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public void connected( String name ) {
+			clients.compareAndSet( null, Collections.singletonList( name ));
+			schedule();
+		}
+		
+		@Override
+		public void message( Entry entry ) {
+			arrived.add( entry );
+			schedule();
+		}
+		
+		@Override
+		public void earlier( List<Entry> entries ) {
+			Platform.runLater(() -> prepend( entries ));
+		}
+		
+		@Override
+		public void later( List<Entry> entries ) {
+			Platform.runLater(() -> {
+				loading = false;
+				append( entries );
+				if ( entries.size() < HISTORY_PAGE ) {
+					following = true;
+				}
+			});
+		}
+		
+		@Override
+		public void clients( List<String> clients ) {
+			this.clients.set( clients );
+			schedule();
+		}
+		
+		@Override
+		public void error( String error ) {
+			System.err.println( error );
+		}
+		
+		@Override
+		public void closed() {
+			Platform.runLater(() -> {
+				if ( connection != null && connection.isClosed() ) {
+					disconnect();
+				}
+			});
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Schedules an update of the GUI unless one is already waiting,
+		 * so that however fast messages arrive the JavaFX Application
+		 * Thread runs at most one update for each batch of them.
+		 * 
+		 ************************************************************* */
+		
+		private void schedule() {
+			if ( scheduled.compareAndSet( false, true )) {
+				Platform.runLater( this::flush );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Adds every queued message to the chat in one edit if it is
+		 * following the board, and shows the latest client list.
+		 * 
+		 ************************************************************* */
+		
+		private void flush() {
+			scheduled.set( false );
+			if ( connection == null ) {
+				return;
+			}
+			List<Entry> entries = new ArrayList<Entry>();
+			for ( Entry entry = arrived.poll(); entry != null; entry = arrived.poll() ) {
+				entries.add( entry );
+			}
+			if ( following && !entries.isEmpty() ) {
+				append( entries );
+			}
+			List<String> clients = this.clients.getAndSet( null );
+			if ( clients != null ) {
+				updateClients( clients );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Adds messages newer than the chat's last to its end, in one
+		 * edit. If the chat was scrolled to its end it stays there,
+		 * dropping its oldest messages past CHAT_LINES_MAX; otherwise
+		 * it stops following the board rather than grow or move the
+		 * messages being read.
+		 * 
+		 ************************************************************* */
+		
+		private void append( List<Entry> entries ) {
+			ObservableList<Entry> items = lstChat.getItems();
+			long last = items.isEmpty() ? 0 : items.get( items.size() - 1 ).getSequence();
+			int from = 0;
+			while ( from < entries.size() && entries.get( from ).getSequence() <= last ) {
+				from++;
+			}
+			if ( from == entries.size() ) {
+				return;
+			}
+			boolean end = sbrChat == null || sbrChat.getValue() >= sbrChat.getMax();
+			items.addAll( entries.subList( from, entries.size() ));
+			if ( items.size() > CHAT_LINES_MAX ) {
+				if ( end ) {
+					items.remove( 0, items.size() - CHAT_LINES_MAX );
+					exhausted = false;
+				} else {
+					items.remove( CHAT_LINES_MAX, items.size() );
+					following = false;
+				}
+			}
+			if ( end ) {
+				lstChat.scrollTo( items.size() - 1 );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Adds a page of messages older than the chat's first to its
+		 * start, in one edit, keeping the messages being read in view
+		 * and dropping the newest past CHAT_LINES_MAX. A short page
+		 * means nothing older is left on the board.
+		 * 
+		 ************************************************************* */
+		
+		private void prepend( List<Entry> entries ) {
+			loading = false;
+			if ( entries.size() < HISTORY_PAGE ) {
+				exhausted = true;
+			}
+			ObservableList<Entry> items = lstChat.getItems();
+			long first = items.isEmpty() ? Long.MAX_VALUE : items.get( 0 ).getSequence();
+			int to = entries.size();
+			while ( to > 0 && entries.get( to - 1 ).getSequence() >= first ) {
+				to--;
+			}
+			if ( to == 0 ) {
+				return;
+			}
+			items.addAll( 0, entries.subList( 0, to ));
+			if ( items.size() > CHAT_LINES_MAX ) {
+				items.remove( CHAT_LINES_MAX, items.size() );
+				following = false;
+			}
+			lstChat.scrollTo( to );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Fetches the page before the chat's first message when it is
+		 * scrolled to its start, or the page after its last when it
+		 * is scrolled to its end but not following the board.
+		 * 
+		 ************************************************************* */
+		
+		private void scrolled() {
+			ObservableList<Entry> items = lstChat.getItems();
+			if ( connection == null || loading || sbrChat == null || items.isEmpty() ) {
+				return;
+			}
+			if ( sbrChat.getValue() <= sbrChat.getMin() && !exhausted ) {
+				loading = true;
+				connection.earlier( items.get( 0 ).getSequence() );
+			} else if ( sbrChat.getValue() >= sbrChat.getMax() && !following ) {
+				loading = true;
+				connection.later( items.get( items.size() - 1 ).getSequence() );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Updates this client's list of server-connected users to
+		 * display on the GUI.
+		 * 
+		 * Parameters:
+		 * 		clients (List<String>)
+		 * 			The usernames of the clients connected to the
+		 * 			server.
+		 * 
+		 * Use:
+		 * 		updateClients( clients );
+		 * 
+		 ************************************************************* */
+		
+		private void updateClients( List<String> clients ) {
+			lstClient.getItems().setAll( clients );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Controls the client's responses to events related to the GUI.
+		 * Requests are queued on the connection, so none of these wait
+		 * on the server.
+		 * 
+		 * Required for JavaFX.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public void handle( ActionEvent event ) {
+			if ( event.getSource() == btnConnect ) {
+				if ( connection == null ) {
+					String address = getAddress();
+					int port = getPort();
+					if ( address != "" && port != -1 ) {
+						connect( address, port );
+					} else {
+						System.err.println( ERROR_NO_ADDRESS_PORT );
+					}
+				} else {
+					disconnect();
+				}
+			} else if ( connection != null ) {
+				if ( event.getSource() == btnPost ) {
+					if ( !txaMessage.getText().trim().isEmpty() ) {
+						connection.post( txaMessage.getText() );
+						txaMessage.clear();
+					}
+				} else if ( event.getSource() == btnClear ) {
+					connection.request( CMD_CLEAR );
+					arrived.clear();
+					lstChat.getItems().clear();
+					following = true;
+					exhausted = true;
+				}
+				connection.presence();
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Starts the client's GUI.
+		 * 
+		 * Required for JavaFX.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public void start( Stage main ) {
+			initializeView();
+			layoutView();
+			main.setResizable( false );
+			main.setScene( new Scene( vbxBackground, VIEW_MAIN_WIDTH, VIEW_MAIN_HEIGHT ));
+			main.setTitle( "Message Board" );
+			main.show();
+			for ( Node node : lstChat.lookupAll( ".scroll-bar" )) {
+				if ( node instanceof ScrollBar && ((ScrollBar) node ).getOrientation() == Orientation.VERTICAL ) {
+					sbrChat = (ScrollBar) node;
+					sbrChat.valueProperty().addListener(( value, before, after ) -> scrolled() );
+				}
+			}
+			Timeline heartbeat = new Timeline( new KeyFrame( Duration.millis( HEARTBEAT_INTERVAL ), event -> {
+				if ( connection != null ) {
+					connection.presence();
+				}
+			}));
+			heartbeat.setCycleCount( Timeline.INDEFINITE );
+			heartbeat.play();
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Launches the client.
+	 * 
+	 * Parameters:
+	 * 		args (String array)
+	 * 			Unused.
+	 * 
+	 ************************************************************* */
+	
+	public static void main( String[] args ) {
+		Application.launch( View.class, args );
+	}
+	
+}
@@ -0,0 +1,653 @@
+/* *************************************************************
+ * 
+ * A headless load generator that drives a message board server
+ * over real sockets with many concurrent text-protocol clients,
+ * and reports per-command latency percentiles and throughput.
+ * 
+ * Title		MBLoad.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.HdrHistogram.Histogram;
+
+public class MBLoad {
+	
+	/* *************************************************************
+	 * 
+	 * Static constants.
+	 * 
+	 ************************************************************* */
+	
+	public static final int CMD_NULL = 0;
+	public static final int CMD_CONNECT = 1;
+	public static final int CMD_DISCONNECT = 2;
+	public static final int CMD_CLEAR = 3;
+	public static final int CMD_POST = 4;
+	public static final int CMD_UPDATE = 5;
+	public static final int CMD_COUNT = 6;
+	public static final int CHANNELS = 1;
+	public static final int CONNECTIONS = 100;
+	public static final int HISTOGRAM_DIGITS = 3;
+	public static final int OUTSTANDING_MAX = 1024;
+	public static final int PORT_ARG = 2;
+	public static final int PORT_MAX = 65535;
+	public static final int PORT_MIN = 0;
+	public static final int POST_RATE = 1000;
+	public static final int POST_SIZE = 32;
+	public static final int READ_BUFFER_SIZE = 65536;
+	public static final int THREADS = Runtime.getRuntime().availableProcessors();
+	public static final int UPDATE_RATIO = 10;
+	public static final long DRAIN_TIMEOUT = 5000L;
+	public static final long DURATION = 30000L;
+	public static final long RAMP_UP = 5000L;
+	public static final String ERROR_INVALID_PORT = "ERROR: INVALID PORT SPECIFIED.";
+	public static final String ERROR_NO_HOST_PORT = "ERROR: NO HOST AND/OR PORT SPECIFIED.";
+	public static final String CHANNEL_PREFIX = "load";
+	public static final String PROP_CHANNELS = "mbload.channels";
+	public static final String PROP_CONNECTIONS = "mbload.connections";
+	public static final String PROP_DURATION = "mbload.duration";
+	public static final String PROP_RAMP_UP = "mbload.rampUp";
+	public static final String PROP_RATE = "mbload.rate";
+	public static final String PROP_SIZE = "mbload.size";
+	public static final String PROP_THREADS = "mbload.threads";
+	public static final String PROP_UPDATE_RATIO = "mbload.updateRatio";
+	public static final String USERNAME_PREFIX = "load";
+	
+	/* *************************************************************
+	 * 
+	 * Class for holding the settings and clock shared by every
+	 * driver of one run. Times are System.nanoTime() values.
+	 * 
+	 ************************************************************* */
+	
+	private static class Plan {
+		
+		private InetSocketAddress address;
+		private int channels;
+		private int connections;
+		private long interval;
+		private int updateRatio;
+		private byte[] text;
+		private long start;
+		private long steady;
+		private long stop;
+		private long rampUp;
+		
+		/* *************************************************************
+		 * 
+		 * Constructs and returns a plan from the mbload.* system
+		 * properties.
+		 * 
+		 * Parameters:
+		 * 		address (InetSocketAddress)
+		 * 			The server to drive.
+		 * 
+		 * Use:
+		 * 		Plan plan = new Plan( address );
+		 * 
+		 ************************************************************* */
+		
+		public Plan( InetSocketAddress address ) {
+			char[] text = new char[Math.max( 1, Integer.getInteger( PROP_SIZE, POST_SIZE ))];
+			Arrays.fill( text, 'x' );
+			int rate = Math.max( 1, Integer.getInteger( PROP_RATE, POST_RATE ));
+			this.address = address;
+			this.channels = Integer.getInteger( PROP_CHANNELS, CHANNELS );
+			this.connections = Math.max( 1, Integer.getInteger( PROP_CONNECTIONS, CONNECTIONS ));
+			this.interval = 1000000000L * connections / rate;
+			this.updateRatio = Integer.getInteger( PROP_UPDATE_RATIO, UPDATE_RATIO );
+			this.text = new String( text ).getBytes( StandardCharsets.UTF_8 );
+			this.rampUp = Long.getLong( PROP_RAMP_UP, RAMP_UP ) * 1000000L;
+			this.start = System.nanoTime();
+			this.steady = start + rampUp;
+			this.stop = steady + Long.getLong( PROP_DURATION, DURATION ) * 1000000L;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the time at which a connection should be opened,
+		 * spreading the connections evenly over the ramp-up.
+		 * 
+		 * Use:
+		 * 		long due = plan.openAt( index );
+		 * 
+		 ************************************************************* */
+		
+		public long openAt( int index ) {
+			return start + rampUp * index / connections;
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Class for one simulated client. Requests are written without
+	 * waiting for earlier responses; each is remembered with the
+	 * time it was due, and matched to the next response line, so
+	 * latency includes any time spent queued behind a slow server.
+	 * 
+	 ************************************************************* */
+	
+	private static class LoadSession implements Comparable<LoadSession> {
+		
+		private static final int NEW = 0;
+		private static final int CONNECTING = 1;
+		private static final int POSTING = 2;
+		private static final int CLOSING = 3;
+		private static final int CLOSED = 4;
+		
+		private int state;
+		private long due;
+		private long posts;
+		private byte[] username;
+		private byte[] channelName;
+		private SocketChannel channel;
+		private ByteBuffer out;
+		private byte[] line;
+		private int length;
+		private int[] commands;
+		private long[] starts;
+		private int head;
+		private int tail;
+		
+		/* *************************************************************
+		 * 
+		 * Constructs and returns a session that opens at a given time.
+		 * Sessions are spread evenly over the channels, if any.
+		 * 
+		 * Use:
+		 * 		LoadSession session = new LoadSession( index, due, channels );
+		 * 
+		 ************************************************************* */
+		
+		public LoadSession( int index, long due, int channels ) {
+			this.state = NEW;
+			this.due = due;
+			this.posts = 0;
+			this.username = ( USERNAME_PREFIX + index ).getBytes( StandardCharsets.UTF_8 );
+			this.channelName = ( channels > 1 ) ? ( CHANNEL_PREFIX + index % channels ).getBytes( StandardCharsets.UTF_8 ) : null;
+			this.channel = null;
+			this.out = ByteBuffer.allocate( 256 );
+			this.line = new byte[256];
+			this.length = 0;
+			this.commands = new int[16];
+			this.starts = new long[16];
+			this.head = 0;
+			this.tail = 0;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Orders sessions by the time of their next action.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public int compareTo( LoadSession other ) {
+			return Long.compare( this.due, other.due );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the number of requests awaiting a response.
+		 * 
+		 * Use:
+		 * 		int outstanding = session.outstanding();
+		 * 
+		 ************************************************************* */
+		
+		public int outstanding() {
+			return tail - head;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Queues one request line for writing.
+		 * 
+		 * Parameters:
+		 * 		command (int)
+		 * 			The command code.
+		 * 		text (byte array)
+		 * 			The argument string, or null for none.
+		 * 		start (long)
+		 * 			The time the request was due.
+		 * 		reply (boolean)
+		 * 			True if the server answers this command.
+		 * 
+		 * Use:
+		 * 		session.request( command, text, start, reply );
+		 * 
+		 ************************************************************* */
+		
+		public void request( int command, byte[] text, long start, boolean reply ) {
+			int size = 4 + username.length + ( text == null ? 0 : text.length );
+			if ( out.remaining() < size ) {
+				ByteBuffer grown = ByteBuffer.allocate( Math.max( out.capacity() * 2, out.position() + size ));
+				out.flip();
+				grown.put( out );
+				out = grown;
+			}
+			out.put( (byte) ( '0' + command )).put( (byte) ' ' ).put( username );
+			if ( text != null ) {
+				out.put( (byte) ' ' ).put( text );
+			}
+			out.put( (byte) '\n' );
+			if ( reply ) {
+				if ( tail - head == commands.length ) {
+					int[] commands = new int[this.commands.length * 2];
+					long[] starts = new long[commands.length];
+					for ( int i = head; i < tail; i++ ) {
+						commands[i - head] = this.commands[i % this.commands.length];
+						starts[i - head] = this.starts[i % this.starts.length];
+					}
+					this.commands = commands;
+					this.starts = starts;
+					tail -= head;
+					head = 0;
+				}
+				commands[tail % commands.length] = command;
+				starts[tail % starts.length] = start;
+				tail++;
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the command code of the oldest outstanding request.
+		 * 
+		 * Use:
+		 * 		int command = session.peekCommand();
+		 * 
+		 ************************************************************* */
+		
+		public int peekCommand() {
+			return commands[head % commands.length];
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Removes the oldest outstanding request and returns the time
+		 * it was due.
+		 * 
+		 * Use:
+		 * 		long start = session.poll();
+		 * 
+		 ************************************************************* */
+		
+		public long poll() {
+			return starts[head++ % starts.length];
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Class for driving a share of the sessions from one thread with
+	 * a selector. Each driver keeps its own histograms, which are
+	 * merged when the run ends.
+	 * 
+	 ************************************************************* */
+	
+	private static class Driver extends Thread {
+		
+		private Plan plan;
+		private Selector selector;
+		private PriorityQueue<LoadSession> schedule;
+		private ByteBuffer input;
+		private Histogram[] latency;
+		private long[] errors;
+		private long completed;
+		private long failed;
+		private long skipped;
+		private long lost;
+		private int open;
+		
+		/* *************************************************************
+		 * 
+		 * Constructs and returns a driver for the sessions whose index
+		 * modulo the number of drivers equals its own.
+		 * 
+		 * Use:
+		 * 		Driver driver = new Driver( plan, index, drivers );
+		 * 
+		 ************************************************************* */
+		
+		public Driver( Plan plan, int index, int drivers ) throws IOException {
+			super( "MBLoad-" + index );
+			this.plan = plan;
+			this.selector = Selector.open();
+			this.schedule = new PriorityQueue<LoadSession>();
+			this.input = ByteBuffer.allocate( READ_BUFFER_SIZE );
+			this.latency = new Histogram[CMD_COUNT];
+			this.errors = new long[CMD_COUNT];
+			for ( int i = 0; i < CMD_COUNT; i++ ) {
+				latency[i] = new Histogram( HISTOGRAM_DIGITS );
+			}
+			for ( int i = index; i < plan.connections; i += drivers ) {
+				schedule.add( new LoadSession( i, plan.openAt( i ), plan.channels ));
+				open++;
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Performs a session's next scheduled action: opening its
+		 * connection, posting, or giving up on a slow close.
+		 * 
+		 * Use:
+		 * 		act( session, now );
+		 * 
+		 ************************************************************* */
+		
+		private void act( LoadSession session, long now ) throws IOException {
+			if ( session.state == LoadSession.NEW ) {
+				session.channel = SocketChannel.open();
+				session.channel.configureBlocking( false );
+				session.state = LoadSession.CONNECTING;
+				session.due = now;
+				if ( session.channel.connect( plan.address )) {
+					connected( session, now );
+				} else {
+					session.channel.register( selector, SelectionKey.OP_CONNECT, session );
+				}
+			} else if ( session.state == LoadSession.POSTING ) {
+				while ( session.due <= now && session.due < plan.stop ) {
+					if ( session.outstanding() < OUTSTANDING_MAX ) {
+						session.request( CMD_POST, plan.text, session.due, true );
+						session.posts++;
+						if ( plan.updateRatio > 0 && session.posts % plan.updateRatio == 0 ) {
+							session.request( CMD_UPDATE, null, session.due, true );
+						}
+					} else {
+						skipped++;
+					}
+					session.due += plan.interval;
+				}
+				if ( session.due >= plan.stop ) {
+					session.request( CMD_DISCONNECT, null, now, false );
+					session.state = LoadSession.CLOSING;
+					session.due = now + DRAIN_TIMEOUT * 1000000L;
+				}
+				write( session );
+				if ( session.state == LoadSession.CLOSING && session.outstanding() == 0 ) {
+					close( session );
+				} else {
+					schedule.add( session );
+				}
+			} else if ( session.state == LoadSession.CLOSING ) {
+				lost += session.outstanding();
+				close( session );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Sends a session's CMD_CONNECT once its socket is open.
+		 * 
+		 * Use:
+		 * 		connected( session, now );
+		 * 
+		 ************************************************************* */
+		
+		private void connected( LoadSession session, long now ) throws IOException {
+			session.channel.register( selector, SelectionKey.OP_READ, session );
+			session.request( CMD_CONNECT, session.channelName, session.due, true );
+			write( session );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Writes as much of a session's queued requests as the socket
+		 * accepts, and asks to be told when it can take the rest.
+		 * 
+		 * Use:
+		 * 		write( session );
+		 * 
+		 ************************************************************* */
+		
+		private void write( LoadSession session ) throws IOException {
+			session.out.flip();
+			session.channel.write( session.out );
+			session.out.compact();
+			SelectionKey key = session.channel.keyFor( selector );
+			if ( key != null ) {
+				key.interestOps( session.out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Reads response lines and matches each to the oldest
+		 * outstanding request of its session.
+		 * 
+		 * Use:
+		 * 		read( session, now );
+		 * 
+		 ************************************************************* */
+		
+		private void read( LoadSession session, long now ) throws IOException {
+			input.clear();
+			if ( session.channel.read( input ) < 0 ) {
+				throw new IOException( "closed by server" );
+			}
+			input.flip();
+			while ( input.hasRemaining() ) {
+				byte b = input.get();
+				if ( b != '\n' ) {
+					if ( session.length < session.line.length ) {
+						session.line[session.length++] = b;
+					}
+				} else if ( session.outstanding() > 0 ) {
+					int command = session.peekCommand();
+					long start = session.poll();
+					if ( session.length >= 6 && session.line[0] == 'E' && new String( session.line, 0, 6, StandardCharsets.UTF_8 ).equals( "ERROR:" )) {
+						errors[command]++;
+					} else {
+						latency[command].recordValue( Math.max( 0, ( now - start ) / 1000 ));
+					}
+					if ( now >= plan.steady && now < plan.stop ) {
+						completed++;
+					}
+					if ( command == CMD_CONNECT ) {
+						session.state = LoadSession.POSTING;
+						session.due = now;
+						schedule.add( session );
+					}
+					session.length = 0;
+				} else {
+					session.length = 0;
+				}
+			}
+			if ( session.state == LoadSession.CLOSING && session.outstanding() == 0 ) {
+				close( session );
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Closes a session's connection.
+		 * 
+		 * Use:
+		 * 		close( session );
+		 * 
+		 ************************************************************* */
+		
+		private void close( LoadSession session ) {
+			if ( session.state != LoadSession.CLOSED ) {
+				session.state = LoadSession.CLOSED;
+				open--;
+				try {
+					if ( session.channel != null ) {
+						session.channel.close();
+					}
+				} catch ( IOException e ) {
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Runs the driver until every session has closed.
+		 * 
+		 ************************************************************* */
+		
+		@Override
+		public void run() {
+			try {
+				while ( open > 0 ) {
+					long now = System.nanoTime();
+					LoadSession next;
+					while (( next = schedule.peek() ) != null && next.due <= now ) {
+						schedule.poll();
+						if ( next.state != LoadSession.CLOSED ) {
+							try {
+								act( next, now );
+							} catch ( IOException e ) {
+								failed++;
+								close( next );
+							}
+						}
+					}
+					long wait = ( next == null ) ? DRAIN_TIMEOUT : Math.max( 1, ( next.due - now ) / 1000000L );
+					selector.select( wait );
+					now = System.nanoTime();
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while ( keys.hasNext() ) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						LoadSession session = (LoadSession) key.attachment();
+						try {
+							if ( key.isValid() && key.isConnectable() && session.channel.finishConnect() ) {
+								connected( session, now );
+							}
+							if ( key.isValid() && key.isReadable() ) {
+								read( session, now );
+							}
+							if ( key.isValid() && key.isWritable() ) {
+								write( session );
+							}
+						} catch ( IOException e ) {
+							if ( session.state != LoadSession.CLOSED ) {
+								failed++;
+								lost += session.outstanding();
+								close( session );
+							}
+						}
+					}
+				}
+				selector.close();
+			} catch ( IOException e ) {
+				e.printStackTrace();
+			}
+		}
+		
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Runs the load described by the mbload.* properties against a
+	 * server and prints the merged results.
+	 * 
+	 * Use:
+	 * 		drive( address );
+	 * 
+	 ************************************************************* */
+	
+	private static void drive( InetSocketAddress address ) throws IOException, InterruptedException {
+		Plan plan = new Plan( address );
+		int threads = Math.max( 1, Math.min( plan.connections, Integer.getInteger( PROP_THREADS, THREADS )));
+		List<Driver> drivers = new ArrayList<Driver>();
+		for ( int i = 0; i < threads; i++ ) {
+			drivers.add( new Driver( plan, i, threads ));
+		}
+		for ( Driver driver : drivers ) {
+			driver.start();
+		}
+		Histogram[] latency = new Histogram[CMD_COUNT];
+		long[] errors = new long[CMD_COUNT];
+		long completed = 0;
+		long failed = 0;
+		long skipped = 0;
+		long lost = 0;
+		for ( int i = 0; i < CMD_COUNT; i++ ) {
+			latency[i] = new Histogram( HISTOGRAM_DIGITS );
+		}
+		for ( Driver driver : drivers ) {
+			driver.join();
+			for ( int i = 0; i < CMD_COUNT; i++ ) {
+				latency[i].add( driver.latency[i] );
+				errors[i] += driver.errors[i];
+			}
+			completed += driver.completed;
+			failed += driver.failed;
+			skipped += driver.skipped;
+			lost += driver.lost;
+		}
+		double seconds = ( plan.stop - plan.steady ) / 1e9;
+		System.out.printf( "%d connections on %d channels, %d threads, target %.0f posts/s for %.0f s after %.0f s ramp-up%n",
+				plan.connections, Math.max( 1, plan.channels ), threads, plan.connections * 1e9 / plan.interval, seconds, plan.rampUp / 1e9 );
+		System.out.printf( "%-8s %10s %8s %10s %10s %10s %10s%n", "command", "count", "errors", "p50(us)", "p99(us)", "p999(us)", "max(us)" );
+		String[] names = { "NULL", "CONNECT", "DISCONNECT", "CLEAR", "POST", "UPDATE" };
+		for ( int i = 0; i < CMD_COUNT; i++ ) {
+			Histogram histogram = latency[i];
+			if ( histogram.getTotalCount() > 0 || errors[i] > 0 ) {
+				System.out.printf( "%-8s %10d %8d %10d %10d %10d %10d%n", names[i], histogram.getTotalCount(), errors[i],
+						histogram.getValueAtPercentile( 50 ), histogram.getValueAtPercentile( 99 ),
+						histogram.getValueAtPercentile( 99.9 ), histogram.getMaxValue() );
+			}
+		}
+		System.out.printf( "throughput %.0f responses/s; %d failed connections, %d skipped posts, %d lost responses%n",
+				completed / seconds, failed, skipped, lost );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Launches the load generator.
+	 * 
+	 * Parameters:
+	 * 		args (String array)
+	 * 			Must contain the host and port of the server. The
+	 * 			load is set with the mbload.connections, channels
+	 * 			(connections are spread over this many), rate
+	 * 			(posts per second in total), size (characters per
+	 * 			post), updateRatio (posts per CMD_UPDATE, 0 for
+	 * 			none), rampUp and duration (ms) and threads system
+	 * 			properties.
+	 * 
+	 ************************************************************* */
+	
+	public static void main( String[] args ) {
+		if ( args.length >= PORT_ARG ) {
+			try {
+				int port = Integer.parseInt( args[1] );
+				if ( port >= PORT_MIN && port <= PORT_MAX ) {
+					drive( new InetSocketAddress( args[0], port ));
+				} else {
+					System.err.println( ERROR_INVALID_PORT );
+				}
+			} catch ( NumberFormatException | IOException | InterruptedException e ) {
+				e.printStackTrace();
+			}
+		} else {
+			System.err.println( ERROR_NO_HOST_PORT );
+		}
+	}
+	
+}
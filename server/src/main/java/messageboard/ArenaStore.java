@@ -0,0 +1,561 @@
+/* *************************************************************
+ * 
+ * Class for holding recent messages outside the heap, so that a
+ * board retaining millions of them costs the garbage collector
+ * nothing to trace. Each message's sequence number, time,
+ * username id and the place of its text are kept in a ring of
+ * fixed-size slots in one direct buffer, and the UTF-8 text in a
+ * second direct buffer, the arena, written round and round like
+ * a log. A message is evicted when its slot or its text is
+ * overwritten. Each store interns the usernames of the messages
+ * it holds, counting the slots that refer to each, so an id is
+ * freed and reused once its last message is evicted.
+ * Messages read back are views built on demand, which do not
+ * cache their encoded forms. Readers share a read lock and
+ * writers take its write lock, a ReentrantReadWriteLock rather
+ * than a monitor so virtual threads park instead of pinning;
+ * each call only copies a few fields in or out.
+ * 
+ * Slot layout: [long sequence][long time][long start][int user]
+ * [int length], where start counts every byte ever written to
+ * the arena, and a sequence that does not match the slot's
+ * message marks it empty.
+ * 
+ * Title		ArenaStore.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class ArenaStore extends MessageStore {
+	
+	/* *************************************************************
+	 * 
+	 * Class for a store's table of usernames. A name keeps its id
+	 * while any slot refers to it; ids freed by eviction are handed
+	 * out again first, so the table never holds more names than
+	 * the store has slots. Guarded by the store.
+	 * 
+	 ************************************************************* */
+	
+	private static class Usernames {
+		
+		private final HashMap<String, Integer> ids;
+		private String[] names;
+		private int[] counts;
+		private int[] free;
+		private int freeCount;
+		private int size;
+		
+		public Usernames() {
+			this.ids = new HashMap<String, Integer>();
+			this.names = new String[16];
+			this.counts = new int[16];
+			this.free = new int[16];
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns a username's id, counting one more slot that
+		 * refers to it.
+		 * 
+		 * Use:
+		 * 		int user = usernames.acquire( name );
+		 * 
+		 ************************************************************* */
+		
+		public int acquire( String name ) {
+			Integer known = ids.get( name );
+			int id;
+			if ( known != null ) {
+				id = known;
+			} else {
+				if ( freeCount > 0 ) {
+					id = free[--freeCount];
+				} else {
+					if ( size == names.length ) {
+						names = Arrays.copyOf( names, size * 2 );
+						counts = Arrays.copyOf( counts, size * 2 );
+					}
+					id = size++;
+				}
+				names[id] = name;
+				ids.put( name, id );
+			}
+			counts[id]++;
+			return id;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Counts one fewer slot referring to an id, and frees the
+		 * id when none are left.
+		 * 
+		 * Use:
+		 * 		usernames.release( user );
+		 * 
+		 ************************************************************* */
+		
+		public void release( int id ) {
+			if ( --counts[id] == 0 ) {
+				ids.remove( names[id] );
+				names[id] = null;
+				if ( freeCount == free.length ) {
+					free = Arrays.copyOf( free, freeCount * 2 );
+				}
+				free[freeCount++] = id;
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the username with an id.
+		 * 
+		 * Use:
+		 * 		String name = usernames.get( user );
+		 * 
+		 ************************************************************* */
+		
+		public String get( int id ) {
+			return names[id];
+		}
+		
+	}
+	
+	private final ReentrantReadWriteLock lock;
+	private final Usernames usernames;
+	private final ByteBuffer slots;
+	private final ByteBuffer arena;
+	private final int mask;
+	private final long maxAge;
+	private long first;
+	private long next;
+	private long head;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns an off-heap message store.
+	 * 
+	 * Parameters:
+	 * 		capacity (int)
+	 * 			The most messages kept; rounded up to a power of
+	 * 			two, and at most 2^25.
+	 * 		maxAge (long)
+	 * 			The age in milliseconds after which messages are
+	 * 			evicted, or 0 to keep them until they are pushed
+	 * 			out by newer ones.
+	 * 		size (long)
+	 * 			The bytes of text kept; at least HISTORY_ARENA_MIN
+	 * 			and at most 2 GiB.
+	 * 
+	 * Use:
+	 * 		MessageStore store = new ArenaStore( capacity, maxAge, size );
+	 * 
+	 ************************************************************* */
+	
+	public ArenaStore( int capacity, long maxAge, long size ) {
+		int slotCount = Integer.highestOneBit( Math.max( 2, Math.min( capacity, 1 << 25 )) - 1 ) << 1;
+		this.lock = new ReentrantReadWriteLock();
+		this.usernames = new Usernames();
+		this.slots = ByteBuffer.allocateDirect( slotCount * ARENA_SLOT_SIZE );
+		this.arena = ByteBuffer.allocateDirect( (int) Math.min( Integer.MAX_VALUE, Math.max( HISTORY_ARENA_MIN, size )));
+		this.mask = slotCount - 1;
+		this.maxAge = maxAge;
+		this.first = 1;
+		this.next = 1;
+		this.head = 0;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the position in the slot buffer of a sequence
+	 * number's slot.
+	 * 
+	 * Use:
+	 * 		int slot = slot( sequence );
+	 * 
+	 ************************************************************* */
+	
+	private int slot( long sequence ) {
+		return ( (int) sequence & mask ) * ARENA_SLOT_SIZE;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Copies a message into its slot and its text to the head of
+	 * the arena, dropping whatever message the slot held. The
+	 * original message is released, since the store keeps only
+	 * the copy.
+	 * 
+	 * Use:
+	 * 		put( msg );
+	 * 
+	 ************************************************************* */
+	
+	private void put( Message msg ) {
+		byte[] text = msg.getText().getBytes( StandardCharsets.UTF_8 );
+		int size = arena.capacity();
+		int length = Math.min( text.length, size );
+		long start = head;
+		int position = (int) ( start % size );
+		if ( position + length > size ) {
+			start += size - position;
+			position = 0;
+		}
+		head = start + length;
+		int slot = slot( msg.getSequence() );
+		empty( slot );
+		slots.putLong( slot, msg.getSequence() ).putLong( slot + 8, msg.getTime().getTime() ).putLong( slot + 16, start );
+		slots.putInt( slot + 24, usernames.acquire( msg.getName() )).putInt( slot + 28, length );
+		ByteBuffer writer = arena.duplicate();
+		writer.position( position );
+		writer.put( text, 0, length );
+		msg.release();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Marks a slot empty, releasing the username of the message
+	 * it held, if any.
+	 * 
+	 * Use:
+	 * 		empty( slot );
+	 * 
+	 ************************************************************* */
+	
+	private void empty( int slot ) {
+		if ( slots.getLong( slot ) != 0 ) {
+			usernames.release( slots.getInt( slot + 24 ));
+			slots.putLong( slot, 0 );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a message built from a slot.
+	 * 
+	 * Use:
+	 * 		Message msg = view( slot );
+	 * 
+	 ************************************************************* */
+	
+	private Message view( int slot ) {
+		byte[] text = new byte[slots.getInt( slot + 28 )];
+		ByteBuffer reader = arena.duplicate();
+		reader.position( (int) ( slots.getLong( slot + 16 ) % arena.capacity() ));
+		reader.get( text );
+		Message msg = new Message( slots.getLong( slot ), slots.getLong( slot + 8 ), usernames.get( slots.getInt( slot + 24 )),
+				new String( text, StandardCharsets.UTF_8 ));
+		msg.release();
+		return msg;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Moves the oldest retained sequence number past messages
+	 * whose slot or text has been overwritten, or that were
+	 * posted before a cutoff.
+	 * 
+	 * Use:
+	 * 		reclaim( cutoff );
+	 * 
+	 ************************************************************* */
+	
+	private void reclaim( long cutoff ) {
+		first = Math.max( first, next - slots.capacity() / ARENA_SLOT_SIZE );
+		long overwritten = head - arena.capacity();
+		for ( ; first < next; first++ ) {
+			int slot = slot( first );
+			if ( slots.getLong( slot ) == first ) {
+				if ( slots.getLong( slot + 16 ) >= overwritten && slots.getLong( slot + 8 ) >= cutoff ) {
+					break;
+				}
+				empty( slot );
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Numbers a message and copies it into the store, evicting
+	 * whatever its slot held, messages whose text the copy
+	 * overwrote, and messages older than the maximum age.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			The message to store; released once copied.
+	 * 
+	 * Returns:
+	 * 		The sequence number given to the message.
+	 * 
+	 * Use:
+	 * 		long sequence = store.add( msg );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public long add( Message msg ) {
+		lock.writeLock().lock();
+		try {
+			long sequence = next++;
+			msg.setSequence( sequence );
+			put( msg );
+			reclaim(( maxAge > 0 ) ? msg.getTime().getTime() - maxAge : Long.MIN_VALUE );
+			return sequence;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Copies in a message that already has a sequence number, as
+	 * read back from the journal or a snapshot. A message older
+	 * than the oldest retained one, or than the one already in
+	 * its slot, is dropped.
+	 * 
+	 * Use:
+	 * 		store.restore( msg );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void restore( Message msg ) {
+		lock.writeLock().lock();
+		try {
+			long sequence = msg.getSequence();
+			if ( sequence < first || slots.getLong( slot( sequence )) >= sequence ) {
+				return;
+			}
+			put( msg );
+			if ( sequence >= next ) {
+				next = sequence + 1;
+			}
+			reclaim( Long.MIN_VALUE );
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns views of the retained messages after a sequence
+	 * number, oldest first, skipping removed and expired ones.
+	 * 
+	 * Parameters:
+	 * 		sequence (long)
+	 * 			The last sequence number already seen, or 0 for
+	 * 			the whole history.
+	 * 		limit (int)
+	 * 			The most messages to return.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = store.since( sequence, limit );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public List<Message> since( long sequence, int limit ) {
+		lock.readLock().lock();
+		try {
+			long cutoff = ( maxAge > 0 ) ? System.currentTimeMillis() - maxAge : Long.MIN_VALUE;
+			long start = Math.max( sequence + 1, first );
+			List<Message> messages = new ArrayList<Message>( (int) Math.min( limit, Math.max( 0, next - start )));
+			for ( long s = start; s < next && messages.size() < limit; s++ ) {
+				int slot = slot( s );
+				if ( slots.getLong( slot ) == s && slots.getLong( slot + 8 ) >= cutoff ) {
+					messages.add( view( slot ));
+				}
+			}
+			return messages;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a view of the retained message with a sequence
+	 * number, or null if it was evicted, removed or has expired.
+	 * 
+	 * Use:
+	 * 		Message msg = store.get( sequence );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public Message get( long sequence ) {
+		lock.readLock().lock();
+		try {
+			int slot = slot( sequence );
+			if ( sequence < first || sequence >= next || slots.getLong( slot ) != sequence
+					|| ( maxAge > 0 && slots.getLong( slot + 8 ) < System.currentTimeMillis() - maxAge )) {
+				return null;
+			}
+			return view( slot );
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the sequence number of the newest message, or 0 if
+	 * none has been added.
+	 * 
+	 * Use:
+	 * 		long last = store.last();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public long last() {
+		lock.readLock().lock();
+		try {
+			return next - 1;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the oldest sequence number still retained.
+	 * 
+	 * Use:
+	 * 		long oldest = store.oldest();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public long oldest() {
+		lock.readLock().lock();
+		try {
+			return first;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns views of every retained message, oldest first,
+	 * for a snapshot. Expired messages are kept until the next
+	 * post reclaims them.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = store.retained();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public List<Message> retained() {
+		lock.readLock().lock();
+		try {
+			List<Message> messages = new ArrayList<Message>( (int) Math.max( 0, next - first ));
+			for ( long s = first; s < next; s++ ) {
+				int slot = slot( s );
+				if ( slots.getLong( slot ) == s ) {
+					messages.add( view( slot ));
+				}
+			}
+			return messages;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sets the retained range after a snapshot's messages have
+	 * been restored: the next sequence number follows the
+	 * snapshot's newest, and the oldest retained sequence moves
+	 * up to the snapshot's. Slots never restored are already
+	 * empty.
+	 * 
+	 * Use:
+	 * 		store.resume( oldest, last );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void resume( long oldest, long last ) {
+		lock.writeLock().lock();
+		try {
+			if ( last >= next ) {
+				next = last + 1;
+			}
+			first = Math.max( first, oldest );
+			reclaim( Long.MIN_VALUE );
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Empties one message's slot. Its text stays in the arena
+	 * until it is overwritten.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			The message to remove.
+	 * 
+	 * Returns:
+	 * 		True if the message was still stored.
+	 * 
+	 * Use:
+	 * 		boolean removed = store.remove( msg );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public boolean remove( Message msg ) {
+		lock.writeLock().lock();
+		try {
+			int slot = slot( msg.getSequence() );
+			if ( slots.getLong( slot ) != msg.getSequence() ) {
+				return false;
+			}
+			empty( slot );
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes every message numbered before a sequence number by
+	 * moving the oldest retained sequence up to it; the slots
+	 * are emptied as they are reused. Clearing to the same
+	 * sequence again has no further effect.
+	 * 
+	 * Use:
+	 * 		store.clear( end );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void clear( long end ) {
+		lock.writeLock().lock();
+		try {
+			first = Math.max( first, end );
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+}
@@ -0,0 +1,282 @@
+/* *************************************************************
+ * 
+ * Class for holding shared server information. The client
+ * registry and ring store are lock-free, and the off-heap store,
+ * search index and journal lock with java.util.concurrent locks
+ * rather than monitors, so virtual threads park instead of
+ * pinning their carrier while they wait.
+ * 
+ * Title		Board.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.List;
+
+class Board {
+	
+	Broadcaster broadcaster;
+	ClientRegistry clients;
+	MessageStore messages;
+	private SearchIndex index;
+	String channel;
+	private Journal journal;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 * Use:
+	 * 		Board board = new Board();
+	 * 
+	 ************************************************************* */
+	
+	public Board() {
+		this( CHANNEL_DEFAULT, null );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns the board of a channel.
+	 * 
+	 * Parameters:
+	 * 		channel (String)
+	 * 			The name of the channel.
+	 * 		journal (Journal)
+	 * 			The journal to record posts and clears in, or null.
+	 * 
+	 * Use:
+	 * 		Board board = new Board( channel, journal );
+	 * 
+	 ************************************************************* */
+	
+	public Board( String channel, Journal journal ) {
+		this.channel = channel;
+		this.journal = journal;
+		this.broadcaster = new Broadcaster();
+		this.clients = new ClientRegistry();
+		int capacity = Integer.getInteger( PROP_HISTORY_CAPACITY, HISTORY_CAPACITY );
+		long maxAge = Long.getLong( PROP_HISTORY_MAX_AGE, HISTORY_MAX_AGE );
+		if ( HISTORY_STORE_OFFHEAP.equals( System.getProperty( PROP_HISTORY_STORE, HISTORY_STORE_HEAP ))) {
+			this.messages = new ArenaStore( capacity, maxAge, Long.getLong( PROP_HISTORY_ARENA_SIZE, HISTORY_ARENA_SIZE ));
+		} else {
+			this.messages = new RingStore( capacity, maxAge );
+		}
+		this.index = new SearchIndex( this.messages );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds a message to this server's message board.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			A message object to be added to the server's internal
+	 * 			message list.
+	 * 
+	 * Returns:
+	 * 		The sequence number given to the message.
+	 * 
+	 * Use:
+	 * 		long sequence = board.addMsg( msg );
+	 * 
+	 ************************************************************* */
+	
+	public long addMsg( Message msg ) {
+		long sequence = messages.add( msg );
+		index.add( msg );
+		if ( journal != null ) {
+			journal.post( channel, msg );
+		}
+		return sequence;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Puts back a message read from the journal, keeping its
+	 * sequence number.
+	 * 
+	 * Use:
+	 * 		board.restore( msg );
+	 * 
+	 ************************************************************* */
+	
+	public void restore( Message msg ) {
+		messages.restore( msg );
+		index.add( msg );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the messages posted after a sequence number, oldest
+	 * first.
+	 * 
+	 * Parameters:
+	 * 		sequence (long)
+	 * 			The last sequence number already seen, or 0 for
+	 * 			the whole history.
+	 * 		limit (int)
+	 * 			The most messages to return.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = board.getMsgs( sequence, limit );
+	 * 
+	 ************************************************************* */
+	
+	public List<Message> getMsgs( long sequence, int limit ) {
+		return messages.since( sequence, limit );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the newest messages that match a search query,
+	 * oldest first.
+	 * 
+	 * Parameters:
+	 * 		query (String)
+	 * 			Words that must all appear in a message, with
+	 * 			optional from:<username> and before:<sequence>
+	 * 			terms.
+	 * 		limit (int)
+	 * 			The most messages to return.
+	 * 
+	 * Use:
+	 * 		List<Message> matches = board.search( query, limit );
+	 * 
+	 ************************************************************* */
+	
+	public List<Message> search( String query, int limit ) {
+		return index.find( query, limit );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes a message from this server's message board.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			The message object to be removed from the server's
+	 * 			internal message list.
+	 * 
+	 * Use:
+	 * 		board.removeMsg( msg );
+	 * 
+	 ************************************************************* */
+	
+	public void removeMsg( Message msg ) {
+		messages.remove( msg );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds a client to this server's list of connected clients.
+	 * 
+	 * Parameters:
+	 * 		client (Client)
+	 * 			The client object to be added to this server's
+	 * 			internal client list.
+	 * 
+	 * Returns:
+	 * 		False if the client's username is already in use by
+	 * 		another connection, otherwise true.
+	 * 
+	 * Use:
+	 * 		boolean added = board.addClient( client );
+	 * 
+	 ************************************************************* */
+	
+	public boolean addClient( Client client ) {
+		return clients.add( client );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a client from this server's list of connected
+	 * clients that matches a given username.
+	 * 
+	 * Parameters:
+	 * 		username (String)
+	 * 			The username associated with the client.
+	 * 
+	 * Returns:
+	 * 		A client object if it exists in the client list,
+	 * 		otherwise null.
+	 * 
+	 * Use:
+	 * 		Client client = board.getClient( username );
+	 * 
+	 ************************************************************* */
+	
+	public Client getClient( String username ) {
+		return clients.get( username );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns every connected client in the order they connected.
+	 * The array is a shared snapshot and must not be modified.
+	 * 
+	 * Use:
+	 * 		Client[] clients = board.getClients();
+	 * 
+	 ************************************************************* */
+	
+	public Client[] getClients() {
+		return clients.snapshot();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the current presence version, which increases each
+	 * time a client connects, renames or disconnects.
+	 * 
+	 * Use:
+	 * 		long version = board.getPresenceVersion();
+	 * 
+	 ************************************************************* */
+	
+	public long getPresenceVersion() {
+		return clients.version();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes and returns the client registered by a connection
+	 * if one exists, otherwise returns null.
+	 * 
+	 * Parameters:
+	 * 		id (int)
+	 * 			The connection number of the client.
+	 * 
+	 * Use:
+	 * 		Client client = board.removeClient( id );
+	 * 
+	 ************************************************************* */
+	
+	public Client removeClient( int id ) {
+		return clients.remove( id );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes all messages from this server's message board.
+	 * 
+	 * Use:
+	 * 		board.clear();
+	 * 
+	 ************************************************************* */
+	
+	public void clear() {
+		long end = messages.clear();
+		index.sweep();
+		if ( journal != null ) {
+			journal.clear( channel, end );
+		}
+	}
+	
+}
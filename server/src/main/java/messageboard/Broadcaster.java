@@ -0,0 +1,120 @@
+/* *************************************************************
+ * 
+ * Class for fanning out server-pushed lines to every subscribed
+ * session.
+ * 
+ * Title		Broadcaster.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class Broadcaster {
+	
+	private static final byte[] PREFIX = ( PUSH_MARK + " " ).getBytes( CHARSET );
+	
+	private Set<Session> subscribers;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 * Use:
+	 * 		Broadcaster broadcaster = new Broadcaster();
+	 * 
+	 ************************************************************* */
+	
+	public Broadcaster() {
+		this.subscribers = ConcurrentHashMap.newKeySet();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds a session to the set that receives broadcasts.
+	 * 
+	 * Use:
+	 * 		broadcaster.subscribe( session );
+	 * 
+	 ************************************************************* */
+	
+	public void subscribe( Session session ) {
+		subscribers.add( session );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes a session from the set that receives broadcasts.
+	 * 
+	 * Use:
+	 * 		broadcaster.unsubscribe( session );
+	 * 
+	 ************************************************************* */
+	
+	public void unsubscribe( Session session ) {
+		subscribers.remove( session );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Pushes a new message to every subscriber except one. The
+	 * text line and the binary frame are each encoded once and
+	 * shared by every subscriber that speaks that protocol. Slow
+	 * subscribers are disconnected rather than waited on.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			The message, already added to the board.
+	 * 		user (int)
+	 * 			The interned id of the message's username, or -1
+	 * 			to intern it only if a binary subscriber needs it.
+	 * 		sender (Session)
+	 * 			The session that caused the broadcast, which has
+	 * 			already had its own response; may be null.
+	 * 
+	 * Use:
+	 * 		broadcaster.publish( msg, user, sender );
+	 * 
+	 ************************************************************* */
+	
+	public void publish( Message msg, int user, Session sender ) {
+		long start = System.nanoTime();
+		byte[] line = null;
+		byte[] frame = null;
+		for ( Session session : subscribers ) {
+			if ( session == sender ) {
+				continue;
+			}
+			byte[] bytes;
+			if ( session.isBinary() ) {
+				if ( frame == null ) {
+					if ( user < 0 ) {
+						user = session.channels.names.intern( msg.getName() );
+					}
+					frame = new Frame( FRAME_PUSH ).putMessage( msg, user ).toBytes();
+				}
+				session.announce( user, msg.getName() );
+				bytes = frame;
+			} else {
+				if ( line == null ) {
+					byte[] cached = msg.getLine();
+					line = Arrays.copyOf( PREFIX, PREFIX.length + cached.length );
+					System.arraycopy( cached, 0, line, PREFIX.length, cached.length );
+				}
+				bytes = line;
+			}
+			if ( !session.outbox.offer( bytes )) {
+				subscribers.remove( session );
+			}
+		}
+		METRICS.broadcast( System.nanoTime() - start );
+	}
+	
+}
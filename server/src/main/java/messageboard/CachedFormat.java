@@ -0,0 +1,83 @@
+/* *************************************************************
+ * 
+ * Class for formatting timestamps at a fixed granularity. The
+ * last formatted value is cached, so callers within the same
+ * second (or minute) share one string. Safe for any number of
+ * threads.
+ * 
+ * Title		CachedFormat.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+class CachedFormat {
+	
+	private static class Entry {
+		
+		private final long start;
+		private final String text;
+		
+		public Entry( long start, String text ) {
+			this.start = start;
+			this.text = text;
+		}
+		
+	}
+	
+	private final DateTimeFormatter formatter;
+	private final long granularity;
+	private volatile Entry entry;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a cached format object.
+	 * 
+	 * Parameters:
+	 * 		pattern (String)
+	 * 			A DateTimeFormatter pattern.
+	 * 		granularity (long)
+	 * 			The smallest unit shown by the pattern, in
+	 * 			milliseconds.
+	 * 
+	 * Use:
+	 * 		CachedFormat format = new CachedFormat( pattern, 1000 );
+	 * 
+	 ************************************************************* */
+	
+	public CachedFormat( String pattern, long granularity ) {
+		this.formatter = DateTimeFormatter.ofPattern( pattern ).withZone( ZoneId.systemDefault() );
+		this.granularity = granularity;
+		this.entry = new Entry( -1, "" );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the formatted form of a point in time.
+	 * 
+	 * Parameters:
+	 * 		millis (long)
+	 * 			Milliseconds since the epoch.
+	 * 
+	 * Use:
+	 * 		String time = format.format( System.currentTimeMillis() );
+	 * 
+	 ************************************************************* */
+	
+	public String format( long millis ) {
+		long start = millis - Math.floorMod( millis, granularity );
+		Entry current = entry;
+		if ( current.start != start ) {
+			current = new Entry( start, formatter.format( Instant.ofEpochMilli( millis )));
+			entry = current;
+		}
+		return current.text;
+	}
+	
+}
@@ -0,0 +1,214 @@
+/* *************************************************************
+ * 
+ * Class for holding the named channels of the server, each with
+ * its own board. Boards are kept in a concurrent map and share
+ * no state, so clients on different channels never contend.
+ * Channels are created when first joined, up to a limit, and
+ * share one set of interned usernames so ids stay valid when a
+ * client moves between channels.
+ * 
+ * Title		Channels.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+class Channels {
+	
+	private ConcurrentHashMap<String, Board> boards;
+	Names names;
+	private Journal journal;
+	private ConcurrentHashMap<String, TokenBucket> posters;
+	private AtomicLong swept;
+	private int limit;
+	private int rate;
+	private int burst;
+	private int strikes;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a set of channels holding only the
+	 * default channel.
+	 * 
+	 * Parameters:
+	 * 		limit (int)
+	 * 			The most channels that may exist at once.
+	 * 
+	 * Use:
+	 * 		Channels channels = new Channels( limit );
+	 * 
+	 ************************************************************* */
+	
+	public Channels( int limit ) {
+		this( limit, null, 0, 0, 0 );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a set of channels holding only the
+	 * default channel, whose boards record changes in a journal.
+	 * 
+	 * Parameters:
+	 * 		limit (int)
+	 * 			The most channels that may exist at once.
+	 * 		journal (Journal)
+	 * 			The journal to record posts and clears in, or null
+	 * 			to keep boards in memory only.
+	 * 
+	 * Use:
+	 * 		Channels channels = new Channels( limit, journal );
+	 * 
+	 ************************************************************* */
+	
+	public Channels( int limit, Journal journal ) {
+		this( limit, journal, 0, 0, 0 );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a set of channels that also limits
+	 * how fast each connection and each username may post.
+	 * 
+	 * Parameters:
+	 * 		limit (int)
+	 * 			The most channels that may exist at once.
+	 * 		journal (Journal)
+	 * 			The journal to record posts and clears in, or null.
+	 * 		rate (int)
+	 * 			The posts per second allowed to each connection
+	 * 			and to each username, or 0 for no limit.
+	 * 		burst (int)
+	 * 			The posts allowed at once after a quiet spell.
+	 * 		strikes (int)
+	 * 			The rejected posts, refilled one per second, after
+	 * 			which a connection is dropped.
+	 * 
+	 * Use:
+	 * 		Channels channels = new Channels( limit, journal, rate, burst, strikes );
+	 * 
+	 ************************************************************* */
+	
+	public Channels( int limit, Journal journal, int rate, int burst, int strikes ) {
+		this.boards = new ConcurrentHashMap<String, Board>();
+		this.names = new Names( NAMES_LIMIT );
+		this.journal = journal;
+		this.posters = new ConcurrentHashMap<String, TokenBucket>();
+		this.swept = new AtomicLong( System.nanoTime() );
+		this.limit = Math.max( 1, limit );
+		this.rate = Math.max( 0, rate );
+		this.burst = Math.max( 1, burst );
+		this.strikes = Math.max( 1, strikes );
+		this.boards.put( CHANNEL_DEFAULT, new Board( CHANNEL_DEFAULT, journal ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the board of a channel, creating the channel if it
+	 * does not exist yet.
+	 * 
+	 * Returns:
+	 * 		The board, or null if the channel does not exist and
+	 * 		the limit has been reached.
+	 * 
+	 * Use:
+	 * 		Board board = channels.get( name );
+	 * 
+	 ************************************************************* */
+	
+	public Board get( String name ) {
+		Board board = boards.get( name );
+		if ( board == null && boards.size() < limit ) {
+			board = boards.computeIfAbsent( name, key -> new Board( key, journal ));
+		}
+		return board;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns new post and strike buckets for a connection, or
+	 * null if posting is not rate limited.
+	 * 
+	 * Use:
+	 * 		TokenBucket[] buckets = channels.newBuckets();
+	 * 
+	 ************************************************************* */
+	
+	public TokenBucket[] newBuckets() {
+		if ( rate == 0 ) {
+			return null;
+		}
+		return new TokenBucket[] { new TokenBucket( rate, burst ), new TokenBucket( 1, strikes ) };
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Takes a token from a username's post bucket, creating the
+	 * bucket on the username's first post. At most once every
+	 * RATE_SWEEP_INTERVAL, buckets that have refilled are dropped,
+	 * so the map holds only usernames that posted recently.
+	 * 
+	 * Returns:
+	 * 		True if the username may post now.
+	 * 
+	 * Use:
+	 * 		boolean allowed = channels.admit( username, now );
+	 * 
+	 ************************************************************* */
+	
+	public boolean admit( String username, long now ) {
+		long last = swept.get();
+		if ( now - last > RATE_SWEEP_INTERVAL && swept.compareAndSet( last, now )) {
+			posters.values().removeIf( idle -> idle.isFull( now ));
+		}
+		TokenBucket bucket = posters.get( username );
+		if ( bucket == null ) {
+			bucket = posters.computeIfAbsent( username, key -> new TokenBucket( rate, burst ));
+		}
+		return bucket.take( now );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the boards of every channel. The collection is a
+	 * live view that may change while it is read.
+	 * 
+	 * Use:
+	 * 		Collection<Board> boards = channels.getBoards();
+	 * 
+	 ************************************************************* */
+	
+	public Collection<Board> getBoards() {
+		return boards.values();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true if a string may be used as a channel name: one
+	 * word of at most CHANNEL_NAME_MAX characters.
+	 * 
+	 * Use:
+	 * 		boolean valid = Channels.isValid( name );
+	 * 
+	 ************************************************************* */
+	
+	public static boolean isValid( String name ) {
+		if ( name.isEmpty() || name.length() > CHANNEL_NAME_MAX ) {
+			return false;
+		}
+		for ( int i = 0; i < name.length(); i++ ) {
+			if ( Request.isSpace( name.charAt( i ))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+}
@@ -0,0 +1,77 @@
+/* *************************************************************
+ * 
+ * Class for holding connected client information.
+ * 
+ * Title		Client.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+public class Client {
+	
+	private int id;
+	private String username;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a client object.
+	 * 
+	 * Parameters:
+	 * 		id (int)
+	 * 			The connection number assigned by the server, which
+	 * 			is unique among connected clients.
+	 * 		username (String)
+	 * 			The username associated with this client.
+	 * 
+	 ************************************************************* */
+	
+	public Client( int id, String username ) {
+		this.id = id;
+		this.username = username;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the unique ID of this client.
+	 * 
+	 * Use:
+	 * 		int id = client.getID();
+	 * 
+	 ************************************************************* */
+	
+	public int getID() {
+		return this.id;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the username associated with this client.
+	 * 
+	 * Use:
+	 * 		String username = client.getName();
+	 * 
+	 ************************************************************* */
+	
+	public String getName() {
+		return this.username;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a string object to represent the attributes of this
+	 * class to enable easy printing and comparisons.
+	 * 
+	 * Use:
+	 * 		System.out.println( this );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public String toString() {
+		return ( this.id + " " + this.username );
+	}
+	
+}
@@ -0,0 +1,284 @@
+/* *************************************************************
+ * 
+ * Class for indexing connected clients by username and by
+ * connection number. Connecting, disconnecting and lookups are
+ * constant time; the presence list is an immutable snapshot
+ * that is rebuilt only when it is read after a change.
+ * 
+ * Every change is also numbered with the presence version and
+ * kept in a ring of the last PRESENCE_LOG changes, so a client
+ * that knows the version it last saw can be sent only what has
+ * changed since.
+ * 
+ * Title		ClientRegistry.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+class ClientRegistry {
+	
+	/* *************************************************************
+	 * 
+	 * Class for one change to the presence list: a connection
+	 * joining, or taking a new name, under a username, or leaving
+	 * when the username is null.
+	 * 
+	 ************************************************************* */
+	
+	static class Change {
+		
+		private final long version;
+		private final int id;
+		private final String name;
+		
+		public Change( long version, int id, String name ) {
+			this.version = version;
+			this.id = id;
+			this.name = name;
+		}
+		
+		public long getVersion() {
+			return version;
+		}
+		
+		public int getID() {
+			return id;
+		}
+		
+		public String getName() {
+			return name;
+		}
+		
+	}
+	
+	static class Snapshot {
+		
+		final long version;
+		final Client[] clients;
+		
+		public Snapshot( long version, Client[] clients ) {
+			this.version = version;
+			this.clients = clients;
+		}
+		
+	}
+	
+	private ConcurrentHashMap<Integer, Client> byID;
+	private ConcurrentHashMap<String, Client> byName;
+	private AtomicLong version;
+	private AtomicReferenceArray<Change> changes;
+	private volatile Snapshot snapshot;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 * Use:
+	 * 		ClientRegistry registry = new ClientRegistry();
+	 * 
+	 ************************************************************* */
+	
+	public ClientRegistry() {
+		this.byID = new ConcurrentHashMap<Integer, Client>();
+		this.byName = new ConcurrentHashMap<String, Client>();
+		this.version = new AtomicLong();
+		this.changes = new AtomicReferenceArray<Change>( PRESENCE_LOG );
+		this.snapshot = new Snapshot( 0, new Client[0] );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Registers a client. A connection holds at most one username,
+	 * so registering again under a new name releases the old one.
+	 * 
+	 * Parameters:
+	 * 		client (Client)
+	 * 			The client to register.
+	 * 
+	 * Returns:
+	 * 		False if the username is held by another connection,
+	 * 		otherwise true.
+	 * 
+	 * Use:
+	 * 		boolean added = registry.add( client );
+	 * 
+	 ************************************************************* */
+	
+	public boolean add( Client client ) {
+		Client existing = byName.putIfAbsent( client.getName(), client );
+		if ( existing != null ) {
+			return existing.getID() == client.getID();
+		}
+		Client previous = byID.put( client.getID(), client );
+		if ( previous != null ) {
+			byName.remove( previous.getName(), previous );
+		}
+		record( client.getID(), client.getName() );
+		return true;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the client registered under a username, or null.
+	 * 
+	 * Use:
+	 * 		Client client = registry.get( username );
+	 * 
+	 ************************************************************* */
+	
+	public Client get( String username ) {
+		return byName.get( username );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the client registered by a connection, or null.
+	 * 
+	 * Use:
+	 * 		Client client = registry.get( id );
+	 * 
+	 ************************************************************* */
+	
+	public Client get( int id ) {
+		return byID.get( id );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes and returns the client registered by a connection,
+	 * or null if it has none.
+	 * 
+	 * Use:
+	 * 		Client client = registry.remove( id );
+	 * 
+	 ************************************************************* */
+	
+	public Client remove( int id ) {
+		Client client = byID.remove( id );
+		if ( client != null ) {
+			byName.remove( client.getName(), client );
+			record( id, null );
+		}
+		return client;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Numbers a change with the next presence version and keeps
+	 * it in the ring, over the change PRESENCE_LOG versions older.
+	 * The version is taken after the maps have changed, so a
+	 * snapshot holds every change up to its version. Changes to
+	 * one connection are made by one thread at a time and so are
+	 * numbered in order; changes to different connections may
+	 * be numbered in either order without changing the result.
+	 * 
+	 * Use:
+	 * 		record( id, name );
+	 * 
+	 ************************************************************* */
+	
+	private void record( int id, String name ) {
+		long next = version.incrementAndGet();
+		changes.set( (int) ( next % PRESENCE_LOG ), new Change( next, id, name ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the current presence version.
+	 * 
+	 * Use:
+	 * 		long version = registry.version();
+	 * 
+	 ************************************************************* */
+	
+	public long version() {
+		return version.get();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the changes made after a presence version, oldest
+	 * first, or null if the ring no longer holds all of them or
+	 * the version was never reached, in which case the caller
+	 * should send a snapshot instead. A change still being
+	 * recorded also gives null rather than waiting for it.
+	 * 
+	 * Parameters:
+	 * 		since (long)
+	 * 			The last presence version the client has seen.
+	 * 
+	 * Use:
+	 * 		List<Change> changes = registry.changes( since );
+	 * 
+	 ************************************************************* */
+	
+	public List<Change> changes( long since ) {
+		long last = version.get();
+		if ( since <= 0 || since > last || last - since > PRESENCE_LOG ) {
+			return null;
+		}
+		List<Change> result = new ArrayList<Change>( (int) ( last - since ));
+		for ( long next = since + 1; next <= last; next++ ) {
+			Change change = changes.get( (int) ( next % PRESENCE_LOG ));
+			if ( change == null || change.getVersion() != next ) {
+				return null;
+			}
+			result.add( change );
+		}
+		return result;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns every registered client in connection order. The
+	 * array is shared between callers and must not be modified.
+	 * 
+	 * Use:
+	 * 		Client[] clients = registry.snapshot();
+	 * 
+	 ************************************************************* */
+	
+	public Client[] snapshot() {
+		return current().clients;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the snapshot of every registered client along with
+	 * the presence version it was taken at.
+	 * 
+	 * Use:
+	 * 		Snapshot current = registry.current();
+	 * 
+	 ************************************************************* */
+	
+	public Snapshot current() {
+		Snapshot current = snapshot;
+		long expected = version.get();
+		while ( current.version != expected ) {
+			Client[] clients = byID.values().toArray( new Client[0] );
+			Arrays.sort( clients, ( a, b ) -> Integer.compare( a.getID(), b.getID() ));
+			long actual = version.get();
+			if ( actual == expected ) {
+				current = new Snapshot( expected, clients );
+				snapshot = current;
+			} else {
+				expected = actual;
+			}
+		}
+		return current;
+	}
+	
+}
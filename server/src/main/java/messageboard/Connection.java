@@ -0,0 +1,149 @@
+/* *************************************************************
+ * 
+ * Class for holding the buffers of one non-blocking client
+ * connection owned by a reactor. Its outbox is drained by the
+ * reactor at the end of each pass of its event loop, with up to
+ * REACTOR_GATHER_MAX queued buffers in each gathering write;
+ * bytes queued from other threads wake the reactor once per pass.
+ * 
+ * Title		Connection.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class Connection extends Outbox {
+	
+	Framer framer;
+	private ConcurrentLinkedQueue<ByteBuffer> pending;
+	private ByteBuffer[] gather;
+	AtomicBoolean scheduled;
+	private MBReactor reactor;
+	Session session;
+	SocketChannel channel;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a connection object.
+	 * 
+	 * Parameters:
+	 * 		channels (Channels)
+	 * 			The channels shared by every connected client.
+	 * 		id (int)
+	 * 			The connection number assigned by the server.
+	 * 		channel (SocketChannel)
+	 * 			The non-blocking channel of the client.
+	 * 		reactor (MBReactor)
+	 * 			The reactor that owns the channel.
+	 * 
+	 * Use:
+	 * 		Connection connection = new Connection( channels, id, channel, reactor );
+	 * 
+	 ************************************************************* */
+	
+	public Connection( Channels channels, int id, SocketChannel channel, MBReactor reactor ) {
+		this.pending = new ConcurrentLinkedQueue<ByteBuffer>();
+		this.gather = new ByteBuffer[REACTOR_GATHER_MAX];
+		this.scheduled = new AtomicBoolean( false );
+		this.reactor = reactor;
+		this.session = new Session( channels, id, this );
+		this.framer = new Framer( session );
+		this.channel = channel;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Queues bytes and asks the reactor to flush them, unless it
+	 * has already been asked since it last flushed.
+	 * 
+	 * Use:
+	 * 		enqueue( bytes );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	protected void enqueue( byte[] bytes ) {
+		pending.add( ByteBuffer.wrap( bytes ));
+		if ( scheduled.compareAndSet( false, true )) {
+			reactor.wake( this );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Closes the channel and releases the session, so that a
+	 * client dropped from another thread, e.g. as a slow consumer
+	 * during a broadcast, leaves the board at once rather than
+	 * when the reactor next sees its key, which closing the
+	 * channel cancels. The reactor drops the key on the next
+	 * select.
+	 * 
+	 * Use:
+	 * 		connection.close();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void close() {
+		closed = true;
+		session.close();
+		try {
+			channel.close();
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes as much pending output as the channel will accept
+	 * without blocking, gathering the buffers at the head of the
+	 * queue into each write. Only the reactor removes buffers, so
+	 * the head stays put while it is being written.
+	 * 
+	 * Returns:
+	 * 		True if all pending output was written, otherwise false.
+	 * 
+	 * Use:
+	 * 		boolean drained = connection.drain();
+	 * 
+	 ************************************************************* */
+	
+	public boolean drain() throws IOException {
+		while ( true ) {
+			int count = 0;
+			for ( ByteBuffer buffer : pending ) {
+				gather[count++] = buffer;
+				if ( count == gather.length ) {
+					break;
+				}
+			}
+			if ( count == 0 ) {
+				return true;
+			}
+			long written = ( count == 1 ) ? channel.write( gather[0] ) : channel.write( gather, 0, count );
+			METRICS.written();
+			sent( written );
+			boolean drained = !gather[count - 1].hasRemaining();
+			for ( int i = 0; i < count && !gather[i].hasRemaining(); i++ ) {
+				pending.poll();
+			}
+			Arrays.fill( gather, 0, count, null );
+			if ( !drained ) {
+				return false;
+			}
+		}
+	}
+	
+}
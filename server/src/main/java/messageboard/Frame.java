@@ -0,0 +1,231 @@
+/* *************************************************************
+ * 
+ * Class for building one frame of the binary protocol. A frame
+ * is a varint payload length followed by the payload: a varint
+ * command, then that command's fields. Numbers are unsigned
+ * varints (seven bits per byte, low bits first) and strings are
+ * a varint byte count followed by UTF-8.
+ * 
+ * Title		Frame.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+class Frame {
+	
+	private byte[] bytes;
+	private int length;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs a frame holding only a command.
+	 * 
+	 * Use:
+	 * 		Frame frame = new Frame( command );
+	 * 
+	 ************************************************************* */
+	
+	public Frame( int command ) {
+		this();
+		putVarint( command );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Constructs an empty frame, for encoding fields that will be
+	 * copied into other frames.
+	 * 
+	 * Use:
+	 * 		Frame fields = new Frame();
+	 * 
+	 ************************************************************* */
+	
+	public Frame() {
+		this.bytes = new byte[64];
+		this.length = 0;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Makes room for more bytes.
+	 * 
+	 * Use:
+	 * 		ensure( count );
+	 * 
+	 ************************************************************* */
+	
+	private void ensure( int count ) {
+		if ( length + count > bytes.length ) {
+			bytes = Arrays.copyOf( bytes, Math.max( bytes.length * 2, length + count ));
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends an unsigned varint.
+	 * 
+	 * Use:
+	 * 		frame.putVarint( value );
+	 * 
+	 ************************************************************* */
+	
+	public Frame putVarint( long value ) {
+		ensure( 10 );
+		while (( value & ~0x7FL ) != 0 ) {
+			bytes[length++] = (byte) (( value & 0x7F ) | 0x80 );
+			value >>>= 7;
+		}
+		bytes[length++] = (byte) value;
+		return this;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends a length-prefixed UTF-8 string.
+	 * 
+	 * Use:
+	 * 		frame.putString( value );
+	 * 
+	 ************************************************************* */
+	
+	public Frame putString( String value ) {
+		byte[] encoded = value.getBytes( StandardCharsets.UTF_8 );
+		return putVarint( encoded.length ).putBytes( encoded );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends the id of a username, followed by the username
+	 * itself if the id is NAME_INLINE.
+	 * 
+	 * Use:
+	 * 		frame.putName( id, username );
+	 * 
+	 ************************************************************* */
+	
+	public Frame putName( int id, String username ) {
+		putVarint( id );
+		return ( id == NAME_INLINE ) ? putString( username ) : this;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends a message: its sequence number, its username as
+	 * putName() does, its time in epoch milliseconds and its text.
+	 * 
+	 * Use:
+	 * 		frame.putMessage( msg, id );
+	 * 
+	 ************************************************************* */
+	
+	public Frame putMessage( Message msg, int id ) {
+		return putVarint( msg.getSequence() ).putName( id, msg.getName() ).putBytes( msg.getEntry() );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends bytes that are already encoded.
+	 * 
+	 * Use:
+	 * 		frame.putBytes( encoded );
+	 * 
+	 ************************************************************* */
+	
+	public Frame putBytes( byte[] encoded ) {
+		ensure( encoded.length );
+		System.arraycopy( encoded, 0, bytes, length, encoded.length );
+		length += encoded.length;
+		return this;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the fields appended so far, without a length
+	 * prefix.
+	 * 
+	 * Use:
+	 * 		byte[] fields = frame.toPayload();
+	 * 
+	 ************************************************************* */
+	
+	public byte[] toPayload() {
+		return Arrays.copyOf( bytes, length );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the frame, prefixed with its length, ready to send.
+	 * 
+	 * Use:
+	 * 		byte[] bytes = frame.toBytes();
+	 * 
+	 ************************************************************* */
+	
+	public byte[] toBytes() {
+		int prefix = 1;
+		for ( int rest = length >>> 7; rest != 0; rest >>>= 7 ) {
+			prefix++;
+		}
+		byte[] frame = new byte[prefix + length];
+		int position = 0;
+		int value = length;
+		while (( value & ~0x7F ) != 0 ) {
+			frame[position++] = (byte) (( value & 0x7F ) | 0x80 );
+			value >>>= 7;
+		}
+		frame[position++] = (byte) value;
+		System.arraycopy( bytes, 0, frame, position, length );
+		return frame;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Reads an unsigned varint from a received payload.
+	 * 
+	 * Use:
+	 * 		long value = Frame.getVarint( payload );
+	 * 
+	 ************************************************************* */
+	
+	public static long getVarint( ByteBuffer payload ) {
+		long value = 0;
+		for ( int shift = 0; shift < 64; shift += 7 ) {
+			byte b = payload.get();
+			value |= (long) ( b & 0x7F ) << shift;
+			if ( b >= 0 ) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException( ERROR_MALFORMED_REQUEST );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Reads a length-prefixed UTF-8 string from a received
+	 * payload, which must be backed by an array.
+	 * 
+	 * Use:
+	 * 		String value = Frame.getString( payload );
+	 * 
+	 ************************************************************* */
+	
+	public static String getString( ByteBuffer payload ) {
+		long count = getVarint( payload );
+		if ( count > payload.remaining() ) {
+			throw new IllegalArgumentException( ERROR_MALFORMED_REQUEST );
+		}
+		String value = new String( payload.array(), payload.arrayOffset() + payload.position(), (int) count, StandardCharsets.UTF_8 );
+		payload.position( payload.position() + (int) count );
+		return value;
+	}
+	
+}
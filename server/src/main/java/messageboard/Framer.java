@@ -0,0 +1,173 @@
+/* *************************************************************
+ * 
+ * Class for splitting the bytes received on one connection into
+ * requests: newline-terminated lines for the text protocol, or
+ * length-prefixed frames once the session has switched to the
+ * binary protocol. Bytes that arrive after the switch in the
+ * same read are framed correctly. Used by every server mode.
+ * 
+ * Title		Framer.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+class Framer {
+	
+	private byte[] line;
+	private ByteBuffer view;
+	private int length;
+	private int prefix;
+	private int shift;
+	private int size;
+	private CharBuffer chars;
+	private CharsetDecoder decoder;
+	private Session session;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs a framer that services requests on a session.
+	 * 
+	 * Use:
+	 * 		Framer framer = new Framer( session );
+	 * 
+	 ************************************************************* */
+	
+	public Framer( Session session ) {
+		this.line = new byte[128];
+		this.view = ByteBuffer.wrap( line );
+		this.length = 0;
+		this.prefix = 0;
+		this.shift = 0;
+		this.size = -1;
+		this.chars = CharBuffer.allocate( 128 );
+		this.decoder = CHARSET.newDecoder()
+				.onMalformedInput( CodingErrorAction.REPLACE )
+				.onUnmappableCharacter( CodingErrorAction.REPLACE );
+		this.session = session;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Grows the request buffer to hold at least a given number of
+	 * bytes.
+	 * 
+	 * Use:
+	 * 		ensure( count );
+	 * 
+	 ************************************************************* */
+	
+	private void ensure( int count ) {
+		if ( count > line.length ) {
+			line = Arrays.copyOf( line, Math.min( Math.max( line.length * 2, count ), LINE_MAX ));
+			view = ByteBuffer.wrap( line );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Decodes the first bytes of the request buffer into a
+	 * character buffer that is reused for every line.
+	 * 
+	 * Use:
+	 * 		CharBuffer text = decode( end );
+	 * 
+	 ************************************************************* */
+	
+	private CharBuffer decode( int end ) {
+		if ( chars.capacity() < end ) {
+			chars = CharBuffer.allocate( line.length );
+		}
+		view.limit( end ).position( 0 );
+		chars.clear();
+		decoder.reset();
+		decoder.decode( view, chars, true );
+		decoder.flush( chars );
+		chars.flip();
+		return chars;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Frames the bytes in a buffer and services each complete
+	 * request. A trailing partial request is kept until the rest
+	 * of it arrives. Stops as soon as servicing a request closes
+	 * the session.
+	 * 
+	 * Parameters:
+	 * 		input (ByteBuffer)
+	 * 			A buffer flipped for reading.
+	 * 
+	 * Returns:
+	 * 		False if a request exceeded LINE_MAX or the session was
+	 * 		closed, otherwise true.
+	 * 
+	 * Use:
+	 * 		boolean valid = framer.frame( input );
+	 * 
+	 ************************************************************* */
+	
+	public boolean frame( ByteBuffer input ) {
+		METRICS.received( input.remaining() );
+		session.touch();
+		while ( input.hasRemaining() ) {
+			if ( session.isClosed() ) {
+				return false;
+			}
+			if ( session.isBinary() ) {
+				if ( size < 0 ) {
+					byte b = input.get();
+					prefix |= ( b & 0x7F ) << shift;
+					shift += 7;
+					if ( b >= 0 ) {
+						size = prefix;
+						prefix = 0;
+						shift = 0;
+						if ( size > LINE_MAX ) {
+							return false;
+						}
+						ensure( size );
+					} else if ( shift > 21 ) {
+						return false;
+					}
+				}
+				if ( size >= 0 ) {
+					int count = Math.min( input.remaining(), size - length );
+					input.get( line, length, count );
+					length += count;
+					if ( length == size ) {
+						view.limit( size ).position( 0 );
+						session.service( view );
+						size = -1;
+						length = 0;
+					}
+				}
+			} else {
+				byte b = input.get();
+				if ( b == '\n' ) {
+					int end = ( length > 0 && line[length - 1] == '\r' ) ? length - 1 : length;
+					session.service( decode( end ));
+					length = 0;
+				} else {
+					if ( length == LINE_MAX ) {
+						return false;
+					}
+					ensure( length + 1 );
+					line[length++] = b;
+				}
+			}
+		}
+		return true;
+	}
+	
+}
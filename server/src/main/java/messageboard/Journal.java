@@ -0,0 +1,708 @@
+/* *************************************************************
+ * 
+ * Class for recording posts and clears in an append-only binary
+ * journal, so boards can be rebuilt when the server restarts.
+ * Records are written through memory-mapped segment files named
+ * after the number of their first record; a full segment is
+ * forced to disk and a new one started, and only the newest
+ * segments are kept. Every JOURNAL_INDEX_INTERVAL records the
+ * offset of a record is noted in a small index file beside its
+ * segment, so a reader can seek close to any record number
+ * without scanning the whole segment.
+ * 
+ * A record is its length, a CRC32 of its body, then the body:
+ * a type byte and the record's fields. A torn or corrupt record
+ * ends a segment when it is read back.
+ * 
+ * How often the mapped pages are forced to disk is set by the
+ * sync policy: "none" leaves it to the operating system,
+ * "interval" forces them every sync interval, and "always"
+ * makes each append wait until it has been forced. Appends that
+ * arrive while a force is under way share the next one.
+ * 
+ * Appends are guarded by a ReentrantLock rather than a monitor,
+ * and every wait is on one of its conditions, so an appending
+ * virtual thread parks instead of pinning its carrier. Mapping
+ * the next segment and forcing the full one are done outside
+ * the lock; appends that arrive meanwhile wait for the roll.
+ * 
+ * Title		Journal.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+class Journal extends Thread {
+	
+	/* *************************************************************
+	 * 
+	 * Class for one segment file and its index, mapped for
+	 * appending.
+	 * 
+	 ************************************************************* */
+	
+	private static class Segment {
+		
+		private long base;
+		private FileChannel channel;
+		private FileChannel index;
+		private MappedByteBuffer buffer;
+		
+		/* *************************************************************
+		 * 
+		 * Opens or creates the segment that starts at a record
+		 * number.
+		 * 
+		 * Use:
+		 * 		Segment segment = new Segment( directory, base, size );
+		 * 
+		 ************************************************************* */
+		
+		public Segment( File directory, long base, long size ) throws IOException {
+			this.base = base;
+			this.channel = new RandomAccessFile( new File( directory, name( base, JOURNAL_SEGMENT_SUFFIX )), "rw" ).getChannel();
+			this.index = new RandomAccessFile( new File( directory, name( base, JOURNAL_INDEX_SUFFIX )), "rw" ).getChannel();
+			this.buffer = channel.map( FileChannel.MapMode.READ_WRITE, 0, Math.max( size, channel.size() ));
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Notes the offset of a record in the index file.
+		 * 
+		 * Use:
+		 * 		segment.mark( record, offset );
+		 * 
+		 ************************************************************* */
+		
+		public void mark( long record, int offset ) throws IOException {
+			int relative = (int) ( record - base );
+			ByteBuffer entry = ByteBuffer.allocate( 8 ).putInt( relative ).putInt( offset );
+			entry.flip();
+			index.write( entry, (long) relative / JOURNAL_INDEX_INTERVAL * 8 );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Forces the segment and its index to disk and closes them.
+		 * 
+		 * Use:
+		 * 		segment.close();
+		 * 
+		 ************************************************************* */
+		
+		public void close() throws IOException {
+			buffer.force();
+			index.force( false );
+			index.close();
+			channel.close();
+		}
+		
+	}
+	
+	private final File directory;
+	private final long segmentSize;
+	private final int retention;
+	private final String policy;
+	private final long syncInterval;
+	private final ReentrantLock lock;
+	private final Condition appended;
+	private final Condition forced;
+	private final Condition rolled;
+	private Segment segment;
+	private boolean rolling;
+	private long records;
+	private volatile long written;
+	private volatile long synced;
+	private volatile boolean running;
+	
+	/* *************************************************************
+	 * 
+	 * Opens the journal in a directory, creating it if needed, and
+	 * finds the end of the newest segment so appends continue
+	 * after the last intact record.
+	 * 
+	 * Parameters:
+	 * 		directory (File)
+	 * 			The directory that holds the segment files.
+	 * 		segmentSize (long)
+	 * 			The size in bytes of each segment file.
+	 * 		retention (int)
+	 * 			The number of segments to keep, or 0 for all.
+	 * 		policy (String)
+	 * 			The sync policy: "none", "interval" or "always".
+	 * 		syncInterval (long)
+	 * 			The time in milliseconds between forces under the
+	 * 			"interval" policy.
+	 * 
+	 * Use:
+	 * 		Journal journal = new Journal( directory, segmentSize, retention, policy, syncInterval );
+	 * 
+	 ************************************************************* */
+	
+	public Journal( File directory, long segmentSize, int retention, String policy, long syncInterval ) throws IOException {
+		super( "MBJournal" );
+		if ( !directory.isDirectory() && !directory.mkdirs() ) {
+			throw new IOException( ERROR_JOURNAL_DIR + " " + directory );
+		}
+		this.directory = directory;
+		this.segmentSize = Math.max( JOURNAL_SEGMENT_MIN, Math.min( segmentSize, Integer.MAX_VALUE ));
+		this.retention = Math.max( 0, retention );
+		this.policy = policy;
+		this.syncInterval = Math.max( 1, syncInterval );
+		this.lock = new ReentrantLock();
+		this.appended = lock.newCondition();
+		this.forced = lock.newCondition();
+		this.rolled = lock.newCondition();
+		this.running = true;
+		long[] bases = segments();
+		long base = ( bases.length > 0 ) ? bases[bases.length - 1] : 0;
+		this.segment = new Segment( directory, base, this.segmentSize );
+		CRC32 crc = new CRC32();
+		MappedByteBuffer buffer = segment.buffer;
+		long[] start = seek( segment.index, buffer, base, Long.MAX_VALUE, crc );
+		long record = start[0];
+		int offset = (int) start[1];
+		for ( int end; ( end = check( buffer, offset, crc )) >= 0; offset = end ) {
+			record++;
+		}
+		if ( offset + 4 <= buffer.limit() && buffer.getInt( offset ) != 0 ) {
+			for ( int i = offset; i < buffer.limit(); i++ ) {
+				buffer.put( i, (byte) 0 );
+			}
+		}
+		buffer.position( offset );
+		this.records = record;
+		this.written = 0;
+		this.synced = 0;
+		setDaemon( true );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the name of a segment or index file.
+	 * 
+	 * Use:
+	 * 		String name = Journal.name( base, suffix );
+	 * 
+	 ************************************************************* */
+	
+	static String name( long base, String suffix ) {
+		return String.format( "%020d%s", base, suffix );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the first record numbers of the segments in the
+	 * journal directory, in order.
+	 * 
+	 * Use:
+	 * 		long[] bases = segments();
+	 * 
+	 ************************************************************* */
+	
+	private long[] segments() {
+		String[] files = directory.list();
+		List<Long> bases = new ArrayList<Long>();
+		if ( files != null ) {
+			for ( String file : files ) {
+				if ( file.endsWith( JOURNAL_SEGMENT_SUFFIX )) {
+					try {
+						bases.add( Long.parseLong( file.substring( 0, file.length() - JOURNAL_SEGMENT_SUFFIX.length() )));
+					} catch ( NumberFormatException e ) {
+						continue;
+					}
+				}
+			}
+		}
+		long[] sorted = new long[bases.size()];
+		for ( int i = 0; i < sorted.length; i++ ) {
+			sorted[i] = bases.get( i );
+		}
+		Arrays.sort( sorted );
+		return sorted;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the offset just past an intact record, or -1 if the
+	 * bytes at an offset are not one.
+	 * 
+	 * Use:
+	 * 		int end = Journal.check( buffer, offset, crc );
+	 * 
+	 ************************************************************* */
+	
+	private static int check( ByteBuffer buffer, int offset, CRC32 crc ) {
+		if ( offset < 0 || offset + 8 > buffer.limit() ) {
+			return -1;
+		}
+		int length = buffer.getInt( offset );
+		if ( length <= 0 || length > buffer.limit() - offset - 8 ) {
+			return -1;
+		}
+		ByteBuffer body = buffer.duplicate();
+		body.limit( offset + 8 + length ).position( offset + 8 );
+		crc.reset();
+		crc.update( body );
+		return ( (int) crc.getValue() == buffer.getInt( offset + 4 )) ? offset + 8 + length : -1;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Finds the indexed record closest to, and not after, a record
+	 * number in a segment. Index entries that do not point at an
+	 * intact record are ignored.
+	 * 
+	 * Returns:
+	 * 		The record number and offset to start scanning from.
+	 * 
+	 * Use:
+	 * 		long[] start = Journal.seek( index, buffer, base, record, crc );
+	 * 
+	 ************************************************************* */
+	
+	private static long[] seek( FileChannel index, ByteBuffer buffer, long base, long record, CRC32 crc ) throws IOException {
+		long[] start = { base, 0 };
+		ByteBuffer entries = ByteBuffer.allocate( (int) Math.min( index.size(), Integer.MAX_VALUE ) & ~7 );
+		index.read( entries, 0 );
+		entries.flip();
+		while ( entries.remaining() >= 8 ) {
+			long relative = entries.getInt();
+			int offset = entries.getInt();
+			if ( base + relative > record || check( buffer, offset, crc ) < 0 ) {
+				break;
+			}
+			start[0] = base + relative;
+			start[1] = offset;
+		}
+		return start;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Encodes a record with its length and checksum.
+	 * 
+	 * Use:
+	 * 		byte[] record = Journal.encode( type, channel, sequence, msg );
+	 * 
+	 ************************************************************* */
+	
+	private static byte[] encode( int type, String channel, long sequence, Message msg ) {
+		byte[] name = channel.getBytes( StandardCharsets.UTF_8 );
+		byte[] user = ( msg != null ) ? msg.getName().getBytes( StandardCharsets.UTF_8 ) : null;
+		byte[] text = ( msg != null ) ? msg.getText().getBytes( StandardCharsets.UTF_8 ) : null;
+		int length = 1 + 4 + name.length + 8 + (( msg != null ) ? 8 + 4 + user.length + 4 + text.length : 0 );
+		ByteBuffer record = ByteBuffer.allocate( 8 + length );
+		record.putInt( length ).putInt( 0 ).put( (byte) type ).putInt( name.length ).put( name ).putLong( sequence );
+		if ( msg != null ) {
+			record.putLong( msg.getTime().getTime() );
+			record.putInt( user.length ).put( user ).putInt( text.length ).put( text );
+		}
+		CRC32 crc = new CRC32();
+		crc.update( record.array(), 8, length );
+		record.putInt( 4, (int) crc.getValue() );
+		return record.array();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Reads a length-prefixed UTF-8 string from a record.
+	 * 
+	 * Use:
+	 * 		String value = Journal.getString( body );
+	 * 
+	 ************************************************************* */
+	
+	static String getString( ByteBuffer body ) {
+		byte[] bytes = new byte[body.getInt()];
+		body.get( bytes );
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Records a message added to a channel's board.
+	 * 
+	 * Use:
+	 * 		journal.post( channel, msg );
+	 * 
+	 ************************************************************* */
+	
+	public void post( String channel, Message msg ) {
+		append( encode( JOURNAL_POST, channel, msg.getSequence(), msg ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Records that a channel's board was cleared up to a sequence
+	 * number.
+	 * 
+	 * Use:
+	 * 		journal.clear( channel, end );
+	 * 
+	 ************************************************************* */
+	
+	public void clear( String channel, long end ) {
+		append( encode( JOURNAL_CLEAR, channel, end, null ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends an encoded record, starting a new segment if it
+	 * does not fit, and under the "always" policy waits until it
+	 * has been forced to disk.
+	 * 
+	 * Use:
+	 * 		append( record );
+	 * 
+	 ************************************************************* */
+	
+	private void append( byte[] record ) {
+		long end;
+		lock.lock();
+		try {
+			while ( true ) {
+				while ( rolling ) {
+					rolled.awaitUninterruptibly();
+				}
+				if ( segment == null ) {
+					return;
+				}
+				if ( segment.buffer.remaining() >= record.length ) {
+					break;
+				}
+				roll();
+			}
+			if (( records - segment.base ) % JOURNAL_INDEX_INTERVAL == 0 ) {
+				segment.mark( records, segment.buffer.position() );
+			}
+			segment.buffer.put( record );
+			records++;
+			written += record.length;
+			end = written;
+			if ( JOURNAL_POLICY_ALWAYS.equals( policy )) {
+				appended.signal();
+				while ( synced < end && running ) {
+					forced.await();
+				}
+			}
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Starts the next segment in place of the full one. Called
+	 * while holding the journal's lock, which is released while
+	 * the new segment is mapped and the full one forced and
+	 * closed; appends wait for the roll meanwhile, so the record
+	 * count the new segment is named after cannot change. Then
+	 * deletes segments beyond the retention count.
+	 * 
+	 * Use:
+	 * 		roll();
+	 * 
+	 ************************************************************* */
+	
+	private void roll() throws IOException {
+		Segment full = segment;
+		long base = records;
+		long end = written;
+		Segment next;
+		rolling = true;
+		lock.unlock();
+		try {
+			next = new Segment( directory, base, segmentSize );
+			full.close();
+		} finally {
+			lock.lock();
+			rolling = false;
+			rolled.signalAll();
+		}
+		segment = next;
+		if ( end > synced ) {
+			synced = end;
+		}
+		forced.signalAll();
+		if ( retention > 0 ) {
+			long[] bases = segments();
+			for ( int i = 0; i < bases.length - retention; i++ ) {
+				new File( directory, name( bases[i], JOURNAL_SEGMENT_SUFFIX )).delete();
+				new File( directory, name( bases[i], JOURNAL_INDEX_SUFFIX )).delete();
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Rebuilds boards from the journal, starting at a record
+	 * number. Records for channels that cannot be created, once
+	 * CHANNEL_LIMIT is reached, are dropped; each is logged, and
+	 * then how many there were. Must be called before anything
+	 * is appended.
+	 * 
+	 * Parameters:
+	 * 		from (long)
+	 * 			The first record to apply; 0 for all.
+	 * 		channels (Channels)
+	 * 			The channels to rebuild.
+	 * 
+	 * Returns:
+	 * 		The number of records applied.
+	 * 
+	 * Use:
+	 * 		long count = journal.replay( from, channels );
+	 * 
+	 ************************************************************* */
+	
+	public long replay( long from, Channels channels ) throws IOException {
+		long[] bases = segments();
+		CRC32 crc = new CRC32();
+		long count = 0;
+		long dropped = 0;
+		for ( int i = 0; i < bases.length; i++ ) {
+			if ( i + 1 < bases.length && bases[i + 1] <= from ) {
+				continue;
+			}
+			ByteBuffer buffer;
+			long[] start;
+			if ( bases[i] == segment.base ) {
+				buffer = segment.buffer.duplicate();
+				start = seek( segment.index, buffer, bases[i], from, crc );
+			} else {
+				try ( FileChannel channel = new RandomAccessFile( new File( directory, name( bases[i], JOURNAL_SEGMENT_SUFFIX )), "r" ).getChannel();
+						FileChannel index = new RandomAccessFile( new File( directory, name( bases[i], JOURNAL_INDEX_SUFFIX )), "rw" ).getChannel() ) {
+					buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+					start = seek( index, buffer, bases[i], from, crc );
+				}
+			}
+			long record = start[0];
+			for ( int offset = (int) start[1], end; ( end = check( buffer, offset, crc )) >= 0; offset = end ) {
+				if ( record >= from ) {
+					ByteBuffer body = buffer.duplicate();
+					body.limit( end ).position( offset + 8 );
+					if ( apply( record, body, channels )) {
+						count++;
+					} else {
+						dropped++;
+					}
+				}
+				record++;
+			}
+		}
+		if ( dropped > 0 ) {
+			log( LOG_JOURNAL_DROPPED_TOTAL + " " + dropped );
+		}
+		return count;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Applies one record body to the boards, logging it instead
+	 * if its channel cannot be created.
+	 * 
+	 * Returns:
+	 * 		True if the record was applied.
+	 * 
+	 * Use:
+	 * 		boolean applied = apply( record, body, channels );
+	 * 
+	 ************************************************************* */
+	
+	private boolean apply( long record, ByteBuffer body, Channels channels ) {
+		int type = body.get();
+		String channel = getString( body );
+		Board board = channels.get( channel );
+		if ( board == null ) {
+			log( LOG_JOURNAL_DROPPED + " " + record + " " + channel );
+			return false;
+		}
+		long sequence = body.getLong();
+		if ( type == JOURNAL_POST ) {
+			long time = body.getLong();
+			String username = getString( body );
+			board.restore( new Message( sequence, time, username, getString( body )));
+		} else if ( type == JOURNAL_CLEAR ) {
+			board.messages.clear( sequence );
+		}
+		return true;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Deletes the segments that only hold records before a record
+	 * number. The segment being appended to is always kept.
+	 * 
+	 * Use:
+	 * 		journal.truncate( record );
+	 * 
+	 ************************************************************* */
+	
+	public void truncate( long record ) {
+		long[] bases = segments();
+		long current;
+		lock.lock();
+		try {
+			current = ( segment != null ) ? segment.base : Long.MAX_VALUE;
+		} finally {
+			lock.unlock();
+		}
+		for ( int i = 0; i + 1 < bases.length && bases[i + 1] <= record && bases[i] < current; i++ ) {
+			new File( directory, name( bases[i], JOURNAL_SEGMENT_SUFFIX )).delete();
+			new File( directory, name( bases[i], JOURNAL_INDEX_SUFFIX )).delete();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the directory that holds the journal.
+	 * 
+	 * Use:
+	 * 		File directory = journal.getDirectory();
+	 * 
+	 ************************************************************* */
+	
+	public File getDirectory() {
+		return directory;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the number of the next record to be appended.
+	 * 
+	 * Use:
+	 * 		long records = journal.getRecords();
+	 * 
+	 ************************************************************* */
+	
+	public long getRecords() {
+		lock.lock();
+		try {
+			return records;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Forces what has been appended so far to disk.
+	 * 
+	 * Use:
+	 * 		sync();
+	 * 
+	 ************************************************************* */
+	
+	private void sync() {
+		Segment current;
+		long target;
+		lock.lock();
+		try {
+			current = segment;
+			target = written;
+		} finally {
+			lock.unlock();
+		}
+		if ( current != null && target > synced ) {
+			current.buffer.force();
+			lock.lock();
+			try {
+				if ( target > synced ) {
+					synced = target;
+				}
+				forced.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Forces appended records to disk as the sync policy asks,
+	 * until the journal is shut down.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		try {
+			while ( running ) {
+				if ( JOURNAL_POLICY_ALWAYS.equals( policy )) {
+					lock.lock();
+					try {
+						while ( running && written == synced ) {
+							appended.await();
+						}
+					} finally {
+						lock.unlock();
+					}
+				} else if ( JOURNAL_POLICY_INTERVAL.equals( policy )) {
+					Thread.sleep( syncInterval );
+				} else {
+					return;
+				}
+				sync();
+			}
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stops the sync thread, then forces and closes the current
+	 * segment. Later appends are ignored.
+	 * 
+	 * Use:
+	 * 		journal.shutdown();
+	 * 
+	 ************************************************************* */
+	
+	public void shutdown() {
+		running = false;
+		interrupt();
+		lock.lock();
+		try {
+			appended.signalAll();
+			forced.signalAll();
+			while ( rolling ) {
+				rolled.awaitUninterruptibly();
+			}
+			if ( segment != null ) {
+				try {
+					segment.close();
+				} catch ( IOException e ) {
+					e.printStackTrace();
+				}
+				segment = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+}
@@ -0,0 +1,283 @@
+/* *************************************************************
+ * 
+ * Class for writing the server's log from a single background
+ * thread, so that no connection handler performs file I/O.
+ * 
+ * Handlers claim slots in a bounded ring with one CAS and
+ * return; the writer drains the ring into an open file and
+ * flushes once per batch (group commit), when either the batch
+ * size or the flush interval is reached. A full ring either
+ * blocks the caller or drops the line, depending on policy.
+ * 
+ * Title		MBLogger.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+class MBLogger extends Thread {
+	
+	private final AtomicReferenceArray<String> slots;
+	private final long[] times;
+	private final int mask;
+	private final AtomicLong tail;
+	private volatile long head;
+	private final LongAdder dropped;
+	private final boolean blocking;
+	private final int flushSize;
+	private final long flushInterval;
+	private final long rotateSize;
+	private final long rotateInterval;
+	private final CachedFormat format;
+	private final File file;
+	private volatile boolean running;
+	private OutputStream out;
+	private long opened;
+	private long reported;
+	private long written;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a logger object.
+	 * 
+	 * Parameters:
+	 * 		filename (String)
+	 * 			The file to append to.
+	 * 		capacity (int)
+	 * 			The number of lines that may wait to be written;
+	 * 			rounded up to a power of two.
+	 * 		flushSize (int)
+	 * 			The number of lines written per flush.
+	 * 		flushInterval (long)
+	 * 			The longest a written line waits to be flushed, in
+	 * 			milliseconds.
+	 * 		rotateSize (long)
+	 * 			The size in bytes at which the file is rotated, or
+	 * 			0 to never rotate by size.
+	 * 		rotateInterval (long)
+	 * 			The age in milliseconds at which the file is
+	 * 			rotated, or 0 to never rotate by age.
+	 * 		blocking (boolean)
+	 * 			True to make callers wait when the ring is full,
+	 * 			false to drop their lines.
+	 * 
+	 ************************************************************* */
+	
+	public MBLogger( String filename, int capacity, int flushSize, long flushInterval,
+			long rotateSize, long rotateInterval, boolean blocking ) {
+		int size = Integer.highestOneBit( Math.max( 2, capacity ) - 1 ) << 1;
+		this.slots = new AtomicReferenceArray<String>( size );
+		this.times = new long[size];
+		this.mask = size - 1;
+		this.tail = new AtomicLong();
+		this.head = 0;
+		this.dropped = new LongAdder();
+		this.blocking = blocking;
+		this.flushSize = Math.max( 1, flushSize );
+		this.flushInterval = Math.max( 1, flushInterval );
+		this.rotateSize = rotateSize;
+		this.rotateInterval = rotateInterval;
+		this.format = new CachedFormat( LOG_TIME_FORMAT, 1000 );
+		this.file = new File( filename );
+		this.running = true;
+		setDaemon( true );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Queues a line to be timestamped and written to the log.
+	 * 
+	 * Parameters:
+	 * 		message (String)
+	 * 			The information to be logged.
+	 * 
+	 * Use:
+	 * 		logger.log( message );
+	 * 
+	 ************************************************************* */
+	
+	public void log( String message ) {
+		long now = System.currentTimeMillis();
+		while ( true ) {
+			long t = tail.get();
+			if ( t - head >= times.length ) {
+				if ( !blocking ) {
+					dropped.increment();
+					return;
+				}
+				LockSupport.parkNanos( LOG_BLOCK_PARK );
+			} else if ( tail.compareAndSet( t, t + 1 )) {
+				int i = (int) t & mask;
+				times[i] = now;
+				slots.lazySet( i, message );
+				return;
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the number of lines dropped because the ring was
+	 * full.
+	 * 
+	 * Use:
+	 * 		long dropped = logger.getDropped();
+	 * 
+	 ************************************************************* */
+	
+	public long getDropped() {
+		return dropped.sum();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the number of lines waiting to be written.
+	 * 
+	 * Use:
+	 * 		long depth = logger.getDepth();
+	 * 
+	 ************************************************************* */
+	
+	public long getDepth() {
+		return Math.max( 0, tail.get() - head );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stops the writer once every queued line has been written,
+	 * waiting for it to finish.
+	 * 
+	 * Use:
+	 * 		logger.shutdown();
+	 * 
+	 ************************************************************* */
+	
+	public void shutdown() {
+		running = false;
+		LockSupport.unpark( this );
+		try {
+			join();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Opens the log file for appending.
+	 * 
+	 * Use:
+	 * 		open();
+	 * 
+	 ************************************************************* */
+	
+	private void open() throws IOException {
+		out = new BufferedOutputStream( new FileOutputStream( file, true ));
+		written = file.length();
+		opened = System.currentTimeMillis();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Renames the current log file with a timestamp suffix and
+	 * starts a new one if it has grown too large or too old.
+	 * 
+	 * Use:
+	 * 		rotate( now );
+	 * 
+	 ************************************************************* */
+	
+	private void rotate( long now ) throws IOException {
+		if (( rotateSize > 0 && written >= rotateSize )
+				|| ( rotateInterval > 0 && now - opened >= rotateInterval )) {
+			out.close();
+			String suffix = new SimpleDateFormat( LOG_ROTATE_FORMAT ).format( new Date( now ));
+			File rotated = new File( file.getPath() + "." + suffix );
+			for ( int i = 1; rotated.exists(); i++ ) {
+				rotated = new File( file.getPath() + "." + suffix + "." + i );
+			}
+			if ( !file.renameTo( rotated )) {
+				System.err.println( "ERROR: COULD NOT ROTATE " + file );
+			}
+			open();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes one timestamped line without flushing, adding its
+	 * length in encoded bytes to the size of the file.
+	 * 
+	 * Use:
+	 * 		write( time, message );
+	 * 
+	 ************************************************************* */
+	
+	private void write( long time, String message ) throws IOException {
+		rotate( time );
+		byte[] line = ( format.format( time ) + " " + message + System.lineSeparator() ).getBytes( CHARSET );
+		out.write( line );
+		written += line.length;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Runs the writer thread.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		try {
+			open();
+			int batch = 0;
+			long first = 0;
+			while ( running || head != tail.get() ) {
+				int i = (int) head & mask;
+				String message = slots.get( i );
+				if ( message != null ) {
+					long time = times[i];
+					slots.lazySet( i, null );
+					head = head + 1;
+					if ( batch == 0 ) {
+						first = System.nanoTime();
+					}
+					write( time, message );
+					batch++;
+				}
+				long waited = System.nanoTime() - first;
+				long interval = flushInterval * 1000000L;
+				if ( batch >= flushSize || ( batch > 0 && ( message == null || !running ) && waited >= interval )) {
+					if ( dropped.sum() > reported ) {
+						reported = dropped.sum();
+						write( System.currentTimeMillis(), LOG_DROPPED + " " + reported );
+					}
+					out.flush();
+					batch = 0;
+				} else if ( message == null ) {
+					LockSupport.parkNanos( batch > 0 ? interval - waited : interval );
+				}
+			}
+			out.close();
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+}
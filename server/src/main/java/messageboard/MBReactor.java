@@ -0,0 +1,216 @@
+/* *************************************************************
+ * 
+ * Class for multiplexing many non-blocking client connections
+ * onto a single thread.
+ * 
+ * Title		MBReactor.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+class MBReactor extends Thread {
+	
+	private Channels channels;
+	private ByteBuffer input;
+	private ConcurrentLinkedQueue<Connection> accepted;
+	private ConcurrentLinkedQueue<Connection> woken;
+	private Selector selector;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 * Use:
+	 * 		MBReactor reactor = new MBReactor( channels );
+	 * 
+	 ************************************************************* */
+	
+	public MBReactor( Channels channels ) throws IOException {
+		this.channels = channels;
+		this.input = ByteBuffer.allocateDirect( REACTOR_BUFFER_SIZE );
+		this.accepted = new ConcurrentLinkedQueue<Connection>();
+		this.woken = new ConcurrentLinkedQueue<Connection>();
+		this.selector = Selector.open();
+		setDaemon( true );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Hands a newly accepted channel to this reactor. Safe to call
+	 * from the accepting thread.
+	 * 
+	 * Parameters:
+	 * 		id (int)
+	 * 			The connection number assigned by the server.
+	 * 		channel (SocketChannel)
+	 * 			The accepted channel.
+	 * 
+	 * Use:
+	 * 		reactor.register( id, channel );
+	 * 
+	 ************************************************************* */
+	
+	public void register( int id, SocketChannel channel ) throws IOException {
+		channel.configureBlocking( false );
+		SOCKETS.apply( channel.socket() );
+		accepted.add( new Connection( channels, id, channel, this ));
+		selector.wakeup();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Asks this reactor to flush a connection that had output
+	 * queued outside its own read, waking the selector if called
+	 * from another thread.
+	 * 
+	 * Use:
+	 * 		reactor.wake( connection );
+	 * 
+	 ************************************************************* */
+	
+	public void wake( Connection connection ) {
+		woken.add( connection );
+		if ( Thread.currentThread() != this ) {
+			selector.wakeup();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Closes a connection and cancels its selection key.
+	 * 
+	 * Use:
+	 * 		close( key );
+	 * 
+	 ************************************************************* */
+	
+	private void close( SelectionKey key ) {
+		key.cancel();
+		((Connection) key.attachment()).session.close();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Reads whatever is available on a connection and services
+	 * every complete line. The responses are written at the end
+	 * of this pass of the event loop, together with anything
+	 * else queued for the connection meanwhile, unless they
+	 * already fill a flush.
+	 * 
+	 * Use:
+	 * 		read( key );
+	 * 
+	 ************************************************************* */
+	
+	private void read( SelectionKey key ) throws IOException {
+		Connection connection = (Connection) key.attachment();
+		input.clear();
+		if ( connection.channel.read( input ) < 0 ) {
+			close( key );
+			return;
+		}
+		input.flip();
+		if ( !connection.framer.frame( input ) || connection.closed ) {
+			close( key );
+			return;
+		}
+		if ( connection.queued.get() >= SOCKETS.getFlushSize() ) {
+			write( key );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Flushes pending output on a connection, waiting for
+	 * OP_WRITE only while the socket buffer is full.
+	 * 
+	 * Use:
+	 * 		write( key );
+	 * 
+	 ************************************************************* */
+	
+	private void write( SelectionKey key ) throws IOException {
+		Connection connection = (Connection) key.attachment();
+		if ( connection.drain() ) {
+			key.interestOps( SelectionKey.OP_READ );
+		} else {
+			key.interestOps( SelectionKey.OP_READ | SelectionKey.OP_WRITE );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Runs the event loop. A failure on one connection, including
+	 * a key cancelled by another thread closing its channel or an
+	 * unexpected error while servicing it, closes only that
+	 * connection, so the reactor keeps serving the rest.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		while ( true ) {
+			try {
+				selector.select();
+			} catch ( IOException e ) {
+				e.printStackTrace();
+				continue;
+			}
+			Connection connection;
+			while (( connection = accepted.poll() ) != null ) {
+				try {
+					connection.channel.register( selector, SelectionKey.OP_READ, connection );
+				} catch ( IOException | RuntimeException e ) {
+					connection.session.close();
+				}
+			}
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			while ( keys.hasNext() ) {
+				SelectionKey key = keys.next();
+				keys.remove();
+				try {
+					if ( key.isValid() && key.isReadable() ) {
+						read( key );
+					}
+					if ( key.isValid() && key.isWritable() ) {
+						write( key );
+					}
+				} catch ( IOException | CancelledKeyException e ) {
+					close( key );
+				} catch ( RuntimeException e ) {
+					e.printStackTrace();
+					close( key );
+				}
+			}
+			while (( connection = woken.poll() ) != null ) {
+				connection.scheduled.set( false );
+				SelectionKey key = connection.channel.keyFor( selector );
+				if ( key != null && key.isValid() ) {
+					try {
+						write( key );
+					} catch ( IOException | CancelledKeyException e ) {
+						close( key );
+					} catch ( RuntimeException e ) {
+						e.printStackTrace();
+						close( key );
+					}
+				}
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,483 @@
+/* *************************************************************
+ * 
+ * A multi-threaded message board server to support chat
+ * functionality for multiple connected clients.
+ * 
+ * Title	    MBServer.java
+ * Author	    Dustin Dugal
+ * Email	    dsdugal@gmail.com
+ * Updated	    2019-06-22
+ * Version	    0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+public class MBServer {
+	
+	/* *************************************************************
+	 * 
+	 * Static constants.
+	 * 
+	 ************************************************************* */
+	
+	public static final int ACCEPT_BACKOFF = 100;
+	public static final int BROADCAST_INTERVAL = 15000;
+	public static final int CHANNEL_LIMIT = 1024;
+	public static final int CHANNEL_NAME_MAX = 64;
+	public static final int CMD_NULL = 0;
+	public static final int CMD_CONNECT = 1;
+	public static final int CMD_DISCONNECT = 2;
+	public static final int CMD_CLEAR = 3;
+	public static final int CMD_POST = 4;
+	public static final int CMD_UPDATE = 5;
+	public static final int CMD_SUBSCRIBE = 6;
+	public static final int CMD_HISTORY = 7;
+	public static final int CMD_BINARY = 8;
+	public static final int CMD_SEARCH = 9;
+	public static final int CMD_PRESENCE = 10;
+	public static final int FRAME_ERROR = 16;
+	public static final int FRAME_NAME = 17;
+	public static final int FRAME_PUSH = 18;
+	public static final int FRAME_TAG = 19;
+	public static final int ARENA_SLOT_SIZE = 32;
+	public static final int HISTORY_CAPACITY = 4096;
+	public static final int HISTORY_PAGE_MAX = 256;
+	public static final int JOURNAL_CLEAR = 2;
+	public static final int JOURNAL_INDEX_INTERVAL = 256;
+	public static final int JOURNAL_POST = 1;
+	public static final int JOURNAL_RETENTION = 0;
+	public static final int LINE_MAX = 8192;
+	public static final int LOG_FLUSH_SIZE = 256;
+	public static final int LOG_QUEUE_SIZE = 65536;
+	public static final int MAX_CONNECTIONS = 100000;
+	public static final int METRICS_BUCKETS = 22;
+	public static final int METRICS_MIN_SHIFT = 9;
+	public static final int METRICS_PORT = -1;
+	public static final int MODE_ARG = 2;
+	public static final int NAME_INLINE = 0;
+	public static final int NAMES_LIMIT = 65536;
+	public static final int PORT_ARG = 1;
+	public static final int PORT_MAX = 65535;
+	public static final int PORT_MIN = 0;
+	public static final int PRESENCE_LOG = 1024;
+	public static final int RATE_BURST = 40;
+	public static final int RATE_POSTS = 20;
+	public static final int RATE_STRIKES = 20;
+	public static final int REACTOR_BUFFER_SIZE = 65536;
+	public static final int REACTOR_GATHER_MAX = 64;
+	public static final int REAPER_SLOTS = 64;
+	public static final int SEARCH_SWEEP_MIN = 4096;
+	public static final int SEARCH_TOKEN_MAX = 32;
+	public static final int SNAPSHOT_RETENTION = 2;
+	public static final int SOCKET_FLUSH_SIZE = 8192;
+	public static final int SOCKET_RECEIVE_BUFFER = 0;
+	public static final int SOCKET_SEND_BUFFER = 0;
+	public static final int REACTOR_THREADS = Math.max( 1, Runtime.getRuntime().availableProcessors() / 2 );
+	public static final int OUTBOX_LIMIT = 1024 * 1024;
+	public static final int THREAD_BUFFER_SIZE = 1024;
+	public static final long HISTORY_ARENA_MIN = 64L * 1024;
+	public static final long HISTORY_ARENA_SIZE = 1024L * 1024;
+	public static final long HISTORY_CACHE_BYTES = 64L * 1024 * 1024;
+	public static final long HISTORY_MAX_AGE = 0L;
+	public static final long IDLE_TIMEOUT = 120000L;
+	public static final long JOURNAL_SEGMENT_MIN = 1024L * 1024;
+	public static final long JOURNAL_SEGMENT_SIZE = 64L * 1024 * 1024;
+	public static final long JOURNAL_SYNC_INTERVAL = 1000L;
+	public static final long LOG_BLOCK_PARK = 100000L;
+	public static final long LOG_FLUSH_INTERVAL = 200L;
+	public static final long LOG_ROTATE_INTERVAL = 0L;
+	public static final long LOG_ROTATE_SIZE = 64L * 1024 * 1024;
+	public static final long MESSAGE_TIME_GRANULARITY = 60000L;
+	public static final long RATE_SWEEP_INTERVAL = 1000000000L;
+	public static final long REAPER_TICK_MIN = 10L;
+	public static final long SNAPSHOT_INTERVAL = 60000L;
+	public static final String CHANNEL_DEFAULT = "main";
+	public static final String ERROR_CHANNEL_LIMIT = "ERROR: TOO MANY CHANNELS.";
+	public static final String ERROR_JOURNAL_DIR = "ERROR: CANNOT CREATE JOURNAL DIRECTORY:";
+	public static final String ERROR_INVALID_MODE = "ERROR: INVALID MODE SPECIFIED.";
+	public static final String ERROR_INVALID_PORT = "ERROR: INVALID PORT SPECIFIED.";
+	public static final String ERROR_MALFORMED_REQUEST = "ERROR: MALFORMED REQUEST.";
+	public static final String ERROR_RATE_LIMITED = "ERROR: RATE LIMITED.";
+	public static final String ERROR_NO_PORT = "ERROR: NO PORT SPECIFIED.";
+	public static final String ERROR_NOT_CONNECTED = "ERROR: NOT CONNECTED.";
+	public static final String ERROR_NO_VIRTUAL = "ERROR: VIRTUAL THREADS REQUIRE JAVA 21 OR LATER.";
+	public static final String ERROR_USERNAME_TAKEN = "ERROR: USERNAME ALREADY CONNECTED.";
+	public static final String HISTORY_STORE_HEAP = "heap";
+	public static final String HISTORY_STORE_OFFHEAP = "offheap";
+	public static final String JOURNAL_DIR = "journal";
+	public static final String JOURNAL_INDEX_SUFFIX = ".idx";
+	public static final String JOURNAL_POLICY_ALWAYS = "always";
+	public static final String JOURNAL_POLICY_INTERVAL = "interval";
+	public static final String JOURNAL_POLICY_NONE = "none";
+	public static final String JOURNAL_SEGMENT_SUFFIX = ".log";
+	public static final String LOG_DROPPED = "MBLOGGER DROPPED LINES:";
+	public static final String LOG_FILENAME = "logfile.txt";
+	public static final String LOG_JOURNAL_DROPPED = "JOURNAL DROPPED RECORD:";
+	public static final String LOG_JOURNAL_DROPPED_TOTAL = "JOURNAL DROPPED RECORDS:";
+	public static final String LOG_JOURNAL_REPLAYED = "JOURNAL REPLAYED RECORDS:";
+	public static final String LOG_SNAPSHOT_LOADED = "SNAPSHOT LOADED AT RECORD:";
+	public static final String LOG_POLICY_BLOCK = "block";
+	public static final String LOG_POLICY_DROP = "drop";
+	public static final String LOG_RATE_DISCONNECT = "RATE LIMIT DISCONNECTED:";
+	public static final String LOG_REAPED = "REAPED IDLE SESSIONS:";
+	public static final String LOG_ROTATE_FORMAT = "yyyyMMdd-HHmmss";
+	public static final String LOG_SERVER_START = "MBSERVER STARTED";
+	public static final String LOG_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+	public static final String MESSAGE_TIME_FORMAT = "hh:mm";
+	public static final String METRICS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	public static final String METRICS_HOST = "127.0.0.1";
+	public static final String METRICS_PATH = "/metrics";
+	public static final String MODE_NIO = "nio";
+	public static final String MODE_THREAD = "thread";
+	public static final String MODE_VIRTUAL = "virtual";
+	public static final String PROP_CHANNEL_LIMIT = "mbserver.channels.limit";
+	public static final String PROP_HISTORY_ARENA_SIZE = "mbserver.history.arenaSize";
+	public static final String PROP_HISTORY_CACHE_BYTES = "mbserver.history.cacheBytes";
+	public static final String PROP_HISTORY_CAPACITY = "mbserver.history.capacity";
+	public static final String PROP_HISTORY_MAX_AGE = "mbserver.history.maxAge";
+	public static final String PROP_HISTORY_STORE = "mbserver.history.store";
+	public static final String PROP_IDLE_TIMEOUT = "mbserver.idle.timeout";
+	public static final String PROP_JOURNAL_DIR = "mbserver.journal.dir";
+	public static final String PROP_JOURNAL_POLICY = "mbserver.journal.sync";
+	public static final String PROP_JOURNAL_RETENTION = "mbserver.journal.retention";
+	public static final String PROP_JOURNAL_SEGMENT_SIZE = "mbserver.journal.segmentSize";
+	public static final String PROP_JOURNAL_SYNC_INTERVAL = "mbserver.journal.syncInterval";
+	public static final String PROP_LOG_FILE = "mbserver.log.file";
+	public static final String PROP_LOG_FLUSH_INTERVAL = "mbserver.log.flushInterval";
+	public static final String PROP_LOG_FLUSH_SIZE = "mbserver.log.flushSize";
+	public static final String PROP_LOG_POLICY = "mbserver.log.policy";
+	public static final String PROP_LOG_QUEUE_SIZE = "mbserver.log.queueSize";
+	public static final String PROP_LOG_ROTATE_INTERVAL = "mbserver.log.rotateInterval";
+	public static final String PROP_LOG_ROTATE_SIZE = "mbserver.log.rotateSize";
+	public static final String PROP_METRICS_HOST = "mbserver.metrics.host";
+	public static final String PROP_METRICS_PORT = "mbserver.metrics.port";
+	public static final String PROP_RATE_BURST = "mbserver.rate.burst";
+	public static final String PROP_RATE_POSTS = "mbserver.rate.posts";
+	public static final String PROP_RATE_STRIKES = "mbserver.rate.strikes";
+	public static final String PROP_SNAPSHOT_INTERVAL = "mbserver.snapshot.interval";
+	public static final String PROP_SOCKET_FLUSH_SIZE = "mbserver.socket.flushSize";
+	public static final String PROP_SOCKET_NO_DELAY = "mbserver.socket.tcpNoDelay";
+	public static final String PROP_SOCKET_RECEIVE_BUFFER = "mbserver.socket.receiveBuffer";
+	public static final String PROP_SOCKET_SEND_BUFFER = "mbserver.socket.sendBuffer";
+	public static final String PUSH_MARK = "*";
+	public static final String SEARCH_BEFORE = "before:";
+	public static final String SEARCH_FROM = "from:";
+	public static final String SNAPSHOT_SUFFIX = ".snap";
+	public static final String SNAPSHOT_TEMP_SUFFIX = ".snap.tmp";
+	public static final String SOCKET_NO_DELAY = "true";
+	public static final String TAG_MARK = "@";
+	
+	/* *************************************************************
+	 * 
+	 * Shared resources.
+	 * 
+	 ************************************************************* */
+	
+	static final Charset CHARSET = Charset.defaultCharset();
+	static final MBLogger LOGGER = new MBLogger(
+			System.getProperty( PROP_LOG_FILE, LOG_FILENAME ),
+			Integer.getInteger( PROP_LOG_QUEUE_SIZE, LOG_QUEUE_SIZE ),
+			Integer.getInteger( PROP_LOG_FLUSH_SIZE, LOG_FLUSH_SIZE ),
+			Long.getLong( PROP_LOG_FLUSH_INTERVAL, LOG_FLUSH_INTERVAL ),
+			Long.getLong( PROP_LOG_ROTATE_SIZE, LOG_ROTATE_SIZE ),
+			Long.getLong( PROP_LOG_ROTATE_INTERVAL, LOG_ROTATE_INTERVAL ),
+			!LOG_POLICY_DROP.equals( System.getProperty( PROP_LOG_POLICY, LOG_POLICY_BLOCK )));
+	static final Metrics METRICS = new Metrics();
+	static final Reaper REAPER = new Reaper( Long.getLong( PROP_IDLE_TIMEOUT, IDLE_TIMEOUT ));
+	static final SocketOptions SOCKETS = new SocketOptions(
+			Boolean.parseBoolean( System.getProperty( PROP_SOCKET_NO_DELAY, SOCKET_NO_DELAY )),
+			Integer.getInteger( PROP_SOCKET_SEND_BUFFER, SOCKET_SEND_BUFFER ),
+			Integer.getInteger( PROP_SOCKET_RECEIVE_BUFFER, SOCKET_RECEIVE_BUFFER ),
+			Integer.getInteger( PROP_SOCKET_FLUSH_SIZE, SOCKET_FLUSH_SIZE ));
+	
+	/* *************************************************************
+	 * 
+	 * Prints service request information into the server's log.
+	 * 
+	 * Parameters:
+	 * 		message (String)
+	 * 			The information to be logged.
+	 * 
+	 * Use:
+	 * 		log( message );
+	 * 
+	 ************************************************************* */
+	
+	static void log( String message ) {
+		LOGGER.log( message );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a factory for Java 21 virtual threads, looked up
+	 * reflectively so the server still runs on older JDKs.
+	 * 
+	 * Returns:
+	 * 		A thread factory, or null if virtual threads are not
+	 * 		supported by the running JVM.
+	 * 
+	 * Use:
+	 * 		ThreadFactory factory = virtualThreadFactory();
+	 * 
+	 ************************************************************* */
+	
+	private static ThreadFactory virtualThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod( "ofVirtual" ).invoke( null );
+			Class<?> type = Class.forName( "java.lang.Thread$Builder" );
+			return (ThreadFactory) type.getMethod( "factory" ).invoke( builder );
+		} catch ( ReflectiveOperationException e ) {
+			return null;
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Accepts connections and services each one on its own
+	 * platform thread.
+	 * 
+	 * Parameters:
+	 * 		channels (Channels)
+	 * 			The channels shared by every connected client.
+	 * 		port (int)
+	 * 			The port to listen on.
+	 * 
+	 * Use:
+	 * 		serveThreads( channels, port );
+	 * 
+	 ************************************************************* */
+	
+	private static void serveThreads( Channels channels, int port ) {
+		int client = 0;
+		ServerSocket socket;
+		try {
+			socket = new ServerSocket( port );
+			try {
+				while ( true ) {
+					new Thread( new MBThread( channels, client++, socket.accept(), Thread::new )).start();
+				}
+			} catch ( IOException e ) {
+				e.printStackTrace();
+			} finally {
+				socket.close();
+			}
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Accepts connections and services each one on its own virtual
+	 * thread. At most MAX_CONNECTIONS are open at once; the loop
+	 * blocks for a free slot rather than spinning, and backs off
+	 * briefly when accept fails (e.g. out of file descriptors).
+	 * 
+	 * Parameters:
+	 * 		channels (Channels)
+	 * 			The channels shared by every connected client.
+	 * 		port (int)
+	 * 			The port to listen on.
+	 * 		factory (ThreadFactory)
+	 * 			A factory that creates virtual threads.
+	 * 
+	 * Use:
+	 * 		serveVirtual( channels, port, factory );
+	 * 
+	 ************************************************************* */
+	
+	private static void serveVirtual( Channels channels, int port, ThreadFactory factory ) {
+		int client = 0;
+		Semaphore slots = new Semaphore( MAX_CONNECTIONS );
+		ServerSocket socket;
+		try {
+			socket = new ServerSocket( port );
+			try {
+				while ( !socket.isClosed() ) {
+					slots.acquireUninterruptibly();
+					try {
+						final MBThread handler = new MBThread( channels, client++, socket.accept(), factory );
+						factory.newThread( () -> {
+							try {
+								handler.run();
+							} finally {
+								slots.release();
+							}
+						}).start();
+					} catch ( IOException e ) {
+						slots.release();
+						e.printStackTrace();
+						try {
+							Thread.sleep( ACCEPT_BACKOFF );
+						} catch ( InterruptedException ie ) {
+							break;
+						}
+					}
+				}
+			} finally {
+				socket.close();
+			}
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Accepts connections and spreads them over a small pool of
+	 * reactor threads that service them without blocking.
+	 * 
+	 * Parameters:
+	 * 		channels (Channels)
+	 * 			The channels shared by every connected client.
+	 * 		port (int)
+	 * 			The port to listen on.
+	 * 
+	 * Use:
+	 * 		serveReactor( channels, port );
+	 * 
+	 ************************************************************* */
+	
+	private static void serveReactor( Channels channels, int port ) {
+		int client = 0;
+		ServerSocketChannel socket;
+		try {
+			MBReactor[] reactors = new MBReactor[REACTOR_THREADS];
+			for ( int i = 0; i < reactors.length; i++ ) {
+				reactors[i] = new MBReactor( channels );
+				reactors[i].start();
+			}
+			socket = ServerSocketChannel.open();
+			try {
+				socket.bind( new InetSocketAddress( port ));
+				while ( true ) {
+					SocketChannel channel = socket.accept();
+					reactors[client % reactors.length].register( client++, channel );
+				}
+			} catch ( IOException e ) {
+				e.printStackTrace();
+			} finally {
+				socket.close();
+			}
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Opens the journal named by the journal properties.
+	 * 
+	 * Returns:
+	 * 		The journal, or null if the journal directory property
+	 * 		is empty.
+	 * 
+	 * Use:
+	 * 		Journal journal = openJournal();
+	 * 
+	 ************************************************************* */
+	
+	static Journal openJournal() throws IOException {
+		String directory = System.getProperty( PROP_JOURNAL_DIR, JOURNAL_DIR );
+		if ( directory.isEmpty() ) {
+			return null;
+		}
+		return new Journal(
+				new File( directory ),
+				Long.getLong( PROP_JOURNAL_SEGMENT_SIZE, JOURNAL_SEGMENT_SIZE ),
+				Integer.getInteger( PROP_JOURNAL_RETENTION, JOURNAL_RETENTION ),
+				System.getProperty( PROP_JOURNAL_POLICY, JOURNAL_POLICY_INTERVAL ),
+				Long.getLong( PROP_JOURNAL_SYNC_INTERVAL, JOURNAL_SYNC_INTERVAL ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Launches the server.
+	 * 
+	 * Parameters:
+	 * 		args (String array)
+	 * 			Must contain a valid port number to start the server,
+	 * 			optionally followed by a mode: "thread" (default) for
+	 * 			one thread per client, "virtual" for one virtual
+	 * 			thread per client, or "nio" for reactor threads. The
+	 * 			port and mode are checked before the journal is
+	 * 			opened or anything is started.
+	 * 
+	 * On shutdown the snapshot writer is stopped first, then the
+	 * journal, then the logger, so that anything the first two
+	 * log on their way out is still written.
+	 * 
+	 ************************************************************* */
+	
+	public static void main( String[] args ) {
+		if ( args.length >= PORT_ARG ) {
+			try {
+				int port = Integer.parseInt( args[0] );
+				String mode = ( args.length >= MODE_ARG ) ? args[1] : MODE_THREAD;
+				ThreadFactory factory = mode.equals( MODE_VIRTUAL ) ? virtualThreadFactory() : null;
+				if ( port < PORT_MIN || port > PORT_MAX ) {
+					System.err.println( ERROR_INVALID_PORT );
+				} else if ( !mode.equals( MODE_THREAD ) && !mode.equals( MODE_NIO ) && !mode.equals( MODE_VIRTUAL )) {
+					System.err.println( ERROR_INVALID_MODE );
+				} else if ( mode.equals( MODE_VIRTUAL ) && factory == null ) {
+					System.err.println( ERROR_NO_VIRTUAL );
+				} else {
+					Journal journal = openJournal();
+					Channels channels = new Channels(
+							Integer.getInteger( PROP_CHANNEL_LIMIT, CHANNEL_LIMIT ),
+							journal,
+							Integer.getInteger( PROP_RATE_POSTS, RATE_POSTS ),
+							Integer.getInteger( PROP_RATE_BURST, RATE_BURST ),
+							Integer.getInteger( PROP_RATE_STRIKES, RATE_STRIKES ));
+					LOGGER.start();
+					REAPER.start();
+					log( LOG_SERVER_START );
+					int metricsPort = Integer.getInteger( PROP_METRICS_PORT, METRICS_PORT );
+					if ( metricsPort >= PORT_MIN && metricsPort <= PORT_MAX ) {
+						METRICS.serve( System.getProperty( PROP_METRICS_HOST, METRICS_HOST ), metricsPort, LOGGER );
+					}
+					Snapshots snapshots = ( journal != null ) ? new Snapshots( journal, channels, Long.getLong( PROP_SNAPSHOT_INTERVAL, SNAPSHOT_INTERVAL )) : null;
+					if ( snapshots != null ) {
+						long start = System.nanoTime();
+						long from = snapshots.load();
+						log( LOG_SNAPSHOT_LOADED + " " + from + " IN " + (( System.nanoTime() - start ) / 1000000 ) + " MS" );
+						long count = journal.replay( from, channels );
+						log( LOG_JOURNAL_REPLAYED + " " + count + " IN " + (( System.nanoTime() - start ) / 1000000 ) + " MS" );
+						journal.start();
+						snapshots.start();
+					}
+					Runtime.getRuntime().addShutdownHook( new Thread( () -> {
+						if ( snapshots != null ) {
+							snapshots.shutdown();
+							journal.shutdown();
+						}
+						LOGGER.shutdown();
+					}));
+					if ( mode.equals( MODE_THREAD )) {
+						serveThreads( channels, port );
+					} else if ( mode.equals( MODE_NIO )) {
+						serveReactor( channels, port );
+					} else {
+						serveVirtual( channels, port, factory );
+					}
+				}
+			} catch ( NumberFormatException | IOException e ) {
+				e.printStackTrace();
+			}
+		} else {
+			System.err.println( ERROR_NO_PORT );
+		}
+	}
+	
+}
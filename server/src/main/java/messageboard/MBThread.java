@@ -0,0 +1,73 @@
+/* *************************************************************
+ * 
+ * Class to enable multi-threading: services one client's
+ * connection with blocking reads. Thread mode runs it on a
+ * platform thread and virtual mode on a virtual thread.
+ * 
+ * Title		MBThread.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadFactory;
+
+class MBThread implements Runnable {
+	
+	private int client;
+	private Channels channels;
+	private Socket socket;
+	private ThreadFactory factory;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 ************************************************************* */
+	
+	public MBThread( Channels channels, int client, Socket socket, ThreadFactory factory ) {
+		this.client = client;
+		this.channels = channels;
+		this.socket = socket;
+		this.factory = factory;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Services the connection until the client disconnects.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		Session session = new Session( channels, client, new StreamOutbox( socket, factory ));
+		try {
+			SOCKETS.apply( socket );
+			InputStream in = socket.getInputStream();
+			Framer framer = new Framer( session );
+			ByteBuffer input = ByteBuffer.allocate( THREAD_BUFFER_SIZE );
+			int count;
+			while (( count = in.read( input.array() )) >= 0 ) {
+				input.limit( count ).position( 0 );
+				if ( !framer.frame( input )) {
+					break;
+				}
+			}
+		} catch ( IOException e ) {
+			if ( !session.isClosed() ) {
+				e.printStackTrace();
+			}
+		} finally {
+			session.close();
+		}
+	}
+	
+}
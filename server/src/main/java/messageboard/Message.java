@@ -0,0 +1,298 @@
+/* *************************************************************
+ * 
+ * Class for holding chat history/information. A message that is
+ * sent more than once keeps its encoded forms, which never
+ * change once it has a sequence number, so history requests and
+ * broadcasts reuse the same bytes. The bytes kept by every
+ * message together are limited to mbserver.history.cacheBytes;
+ * past that, messages are encoded afresh for each send, and a
+ * message gives its bytes back when it leaves its board.
+ * 
+ * Title		Message.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+public class Message {
+	
+	private static final AtomicReferenceFieldUpdater<Message, byte[]> LINE =
+			AtomicReferenceFieldUpdater.newUpdater( Message.class, byte[].class, "line" );
+	private static final AtomicReferenceFieldUpdater<Message, byte[]> ENTRY =
+			AtomicReferenceFieldUpdater.newUpdater( Message.class, byte[].class, "entry" );
+	private static final CachedFormat FORMAT = new CachedFormat( MESSAGE_TIME_FORMAT, MESSAGE_TIME_GRANULARITY );
+	private static final long LIMIT = Long.getLong( PROP_HISTORY_CACHE_BYTES, HISTORY_CACHE_BYTES );
+	private static final AtomicLong CACHED = new AtomicLong();
+	
+	private long sequence;
+	private Date time;
+	private String username;
+	private String text;
+	private volatile byte[] line;
+	private volatile byte[] entry;
+	private volatile boolean released;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a message object.
+	 * 
+	 * Parameters:
+	 * 		username (String)
+	 * 			The username of the client associatd with this
+	 * 			message.
+	 * 		text (String)
+	 * 			The text content of this message.
+	 * 
+	 * Use:
+	 * 		Message message = new Message( username, text );
+	 * 
+	 ************************************************************* */
+	
+	public Message( String username, String text ) {
+		this.sequence = 0;
+		this.time = new Date();
+		this.username = username;
+		this.text = text;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a message that was already posted,
+	 * as read back from the journal.
+	 * 
+	 * Parameters:
+	 * 		sequence (long)
+	 * 			The sequence number the message was given.
+	 * 		time (long)
+	 * 			The time the message was posted, in milliseconds
+	 * 			since the epoch.
+	 * 		username (String)
+	 * 			The username of the client that posted it.
+	 * 		text (String)
+	 * 			The text content of this message.
+	 * 
+	 * Use:
+	 * 		Message message = new Message( sequence, time, username, text );
+	 * 
+	 ************************************************************* */
+	
+	public Message( long sequence, long time, String username, String text ) {
+		this.sequence = sequence;
+		this.time = new Date( time );
+		this.username = username;
+		this.text = text;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the date and time associated with this message.
+	 * 
+	 * Use:
+	 * 		Date date = message.getTime();
+	 * 
+	 ************************************************************* */
+	
+	public Date getTime() {
+		return this.time;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the sequence number given to this message when it
+	 * was added to a board, or 0 if it has not been added.
+	 * 
+	 * Use:
+	 * 		long sequence = message.getSequence();
+	 * 
+	 ************************************************************* */
+	
+	public long getSequence() {
+		return this.sequence;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sets the sequence number of this message. Called by the
+	 * board's message store before the message is published.
+	 * 
+	 * Use:
+	 * 		message.setSequence( sequence );
+	 * 
+	 ************************************************************* */
+	
+	void setSequence( long sequence ) {
+		this.sequence = sequence;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the username associated with this message.
+	 * 
+	 * Use:
+	 * 		String username = message.getName();
+	 * 
+	 ************************************************************* */
+	
+	public String getName() {
+		return this.username;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the text content of this message.
+	 * 
+	 * Use:
+	 * 		String text = message.getText();
+	 * 
+	 ************************************************************* */
+	
+	public String getText() {
+		return this.text;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a string object to represent the attributes of this
+	 * class to enable easy printing and comparisons.
+	 * 
+	 * Use:
+	 * 		System.out.println( this );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public String toString() {
+		return ( FORMAT.format( this.time.getTime() ) + " " + this.username + " " + this.text );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns this message as a line of the text protocol: its
+	 * sequence number, then the same fields as toString(), then
+	 * a line terminator. The array is shared and must not be
+	 * modified.
+	 * 
+	 * Use:
+	 * 		byte[] bytes = message.getLine();
+	 * 
+	 ************************************************************* */
+	
+	public byte[] getLine() {
+		byte[] bytes = this.line;
+		if ( bytes == null ) {
+			bytes = Session.encode( this.sequence + " " + this );
+			if ( this.sequence > 0 ) {
+				bytes = keep( LINE, bytes );
+			}
+		}
+		return bytes;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the fields of this message that follow the
+	 * username id in a binary frame: its time as a varint and
+	 * its text as a length-prefixed string. The array is shared
+	 * and must not be modified.
+	 * 
+	 * Use:
+	 * 		byte[] bytes = message.getEntry();
+	 * 
+	 ************************************************************* */
+	
+	public byte[] getEntry() {
+		byte[] bytes = this.entry;
+		if ( bytes == null ) {
+			Frame fields = new Frame().putVarint( this.time.getTime() ).putString( this.text );
+			bytes = keep( ENTRY, fields.toPayload() );
+		}
+		return bytes;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Keeps an encoded form of this message if the cache has
+	 * room and the message is still on its board. Whichever of
+	 * this and release() runs second sees the other's write, so
+	 * the bytes are counted out exactly once.
+	 * 
+	 * Returns:
+	 * 		The form to send, which is the one another thread
+	 * 		kept first if there was one.
+	 * 
+	 * Use:
+	 * 		bytes = keep( LINE, bytes );
+	 * 
+	 ************************************************************* */
+	
+	private byte[] keep( AtomicReferenceFieldUpdater<Message, byte[]> field, byte[] bytes ) {
+		if ( this.released || CACHED.get() + bytes.length > LIMIT ) {
+			return bytes;
+		}
+		if ( !field.compareAndSet( this, null, bytes )) {
+			byte[] kept = field.get( this );
+			return ( kept != null ) ? kept : bytes;
+		}
+		CACHED.addAndGet( bytes.length );
+		if ( this.released && field.compareAndSet( this, bytes, null )) {
+			CACHED.addAndGet( -bytes.length );
+		}
+		return bytes;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Drops the encoded forms of this message and stops it
+	 * keeping new ones. Called by the message store when the
+	 * message is overwritten, evicted, removed or cleared.
+	 * 
+	 * Use:
+	 * 		message.release();
+	 * 
+	 ************************************************************* */
+	
+	void release() {
+		this.released = true;
+		drop( LINE );
+		drop( ENTRY );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Drops one encoded form of this message, if it was kept.
+	 * 
+	 * Use:
+	 * 		drop( LINE );
+	 * 
+	 ************************************************************* */
+	
+	private void drop( AtomicReferenceFieldUpdater<Message, byte[]> field ) {
+		byte[] bytes = field.getAndSet( this, null );
+		if ( bytes != null ) {
+			CACHED.addAndGet( -bytes.length );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the number of bytes kept by every message's
+	 * encoded forms.
+	 * 
+	 * Use:
+	 * 		long bytes = Message.getCached();
+	 * 
+	 ************************************************************* */
+	
+	public static long getCached() {
+		return CACHED.get();
+	}
+	
+}
@@ -0,0 +1,166 @@
+/* *************************************************************
+ * 
+ * Class for holding a board's recent messages. Each message is
+ * stamped with a sequence number that only ever increases, so
+ * clients can ask for everything after the last one they saw.
+ * mbserver.history.store chooses how they are kept: "heap"
+ * keeps the message objects themselves, and "offheap" copies
+ * their fields out of the heap for boards that retain millions
+ * of messages.
+ * 
+ * Title		MessageStore.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.List;
+
+abstract class MessageStore {
+	
+	/* *************************************************************
+	 * 
+	 * Stamps a message with the next sequence number and stores
+	 * it, evicting the oldest message if the store is full.
+	 * 
+	 * Returns:
+	 * 		The sequence number given to the message.
+	 * 
+	 * Use:
+	 * 		long sequence = store.add( msg );
+	 * 
+	 ************************************************************* */
+	
+	public abstract long add( Message msg );
+	
+	/* *************************************************************
+	 * 
+	 * Stores a message that already has a sequence number, as
+	 * read back from the journal or a snapshot.
+	 * 
+	 * Use:
+	 * 		store.restore( msg );
+	 * 
+	 ************************************************************* */
+	
+	public abstract void restore( Message msg );
+	
+	/* *************************************************************
+	 * 
+	 * Returns up to a limit of the retained messages that come
+	 * after a sequence number, oldest first.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = store.since( sequence, limit );
+	 * 
+	 ************************************************************* */
+	
+	public abstract List<Message> since( long sequence, int limit );
+	
+	/* *************************************************************
+	 * 
+	 * Returns the retained message with a sequence number, or
+	 * null if it was evicted, removed or cleared.
+	 * 
+	 * Use:
+	 * 		Message msg = store.get( sequence );
+	 * 
+	 ************************************************************* */
+	
+	public abstract Message get( long sequence );
+	
+	/* *************************************************************
+	 * 
+	 * Returns the sequence number of the newest message, or 0 if
+	 * none has been added.
+	 * 
+	 * Use:
+	 * 		long last = store.last();
+	 * 
+	 ************************************************************* */
+	
+	public abstract long last();
+	
+	/* *************************************************************
+	 * 
+	 * Returns the oldest sequence number still retained.
+	 * 
+	 * Use:
+	 * 		long oldest = store.oldest();
+	 * 
+	 ************************************************************* */
+	
+	public abstract long oldest();
+	
+	/* *************************************************************
+	 * 
+	 * Returns every retained message, oldest first.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = store.retained();
+	 * 
+	 ************************************************************* */
+	
+	public abstract List<Message> retained();
+	
+	/* *************************************************************
+	 * 
+	 * Sets the retained range after a snapshot's messages have
+	 * been restored.
+	 * 
+	 * Use:
+	 * 		store.resume( oldest, last );
+	 * 
+	 ************************************************************* */
+	
+	public abstract void resume( long oldest, long last );
+	
+	/* *************************************************************
+	 * 
+	 * Removes one message.
+	 * 
+	 * Returns:
+	 * 		True if the message was still stored.
+	 * 
+	 * Use:
+	 * 		boolean removed = store.remove( msg );
+	 * 
+	 ************************************************************* */
+	
+	public abstract boolean remove( Message msg );
+	
+	/* *************************************************************
+	 * 
+	 * Removes every message. Sequence numbers keep increasing, so
+	 * clients that resync afterwards receive only new messages.
+	 * 
+	 * Returns:
+	 * 		The sequence number the store was cleared up to.
+	 * 
+	 * Use:
+	 * 		long end = store.clear();
+	 * 
+	 ************************************************************* */
+	
+	public long clear() {
+		long end = last() + 1;
+		clear( end );
+		return end;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes every message numbered before a sequence number.
+	 * Clearing to the same sequence again has no further effect,
+	 * so a clear read back from the journal can be repeated.
+	 * 
+	 * Use:
+	 * 		store.clear( end );
+	 * 
+	 ************************************************************* */
+	
+	public abstract void clear( long end );
+	
+}
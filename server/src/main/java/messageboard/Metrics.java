@@ -0,0 +1,383 @@
+/* *************************************************************
+ * 
+ * Class for counting what the server does, for scraping in the
+ * Prometheus text format. Counters are striped LongAdders, so
+ * the threads that bump them on every request rarely contend,
+ * and latencies go into histograms of power-of-two buckets that
+ * are found with one bit count and never locked. Figures are
+ * summed only when scraped.
+ * 
+ * Title		Metrics.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import com.sun.net.httpserver.HttpServer;
+
+class Metrics {
+	
+	/* *************************************************************
+	 * 
+	 * Class for a latency histogram. Bucket i counts durations of
+	 * at most 2^(METRICS_MIN_SHIFT + i) nanoseconds; longer ones
+	 * are only counted in the total.
+	 * 
+	 ************************************************************* */
+	
+	static class Histogram {
+		
+		private final LongAdder[] buckets;
+		private final LongAdder count;
+		private final LongAdder sum;
+		
+		/* *************************************************************
+		 * 
+		 * Constructor.
+		 * 
+		 ************************************************************* */
+		
+		public Histogram() {
+			this.buckets = new LongAdder[METRICS_BUCKETS];
+			for ( int i = 0; i < buckets.length; i++ ) {
+				buckets[i] = new LongAdder();
+			}
+			this.count = new LongAdder();
+			this.sum = new LongAdder();
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Records one duration.
+		 * 
+		 * Parameters:
+		 * 		nanos (long)
+		 * 			The duration in nanoseconds.
+		 * 
+		 * Use:
+		 * 		histogram.record( nanos );
+		 * 
+		 ************************************************************* */
+		
+		public void record( long nanos ) {
+			int i = Math.max( 0, 64 - Long.numberOfLeadingZeros( Math.max( 1, nanos ) - 1 ) - METRICS_MIN_SHIFT );
+			if ( i < buckets.length ) {
+				buckets[i].increment();
+			}
+			count.increment();
+			sum.add( nanos );
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Appends the histogram in the Prometheus text format, with
+		 * cumulative buckets bounded in seconds.
+		 * 
+		 * Use:
+		 * 		histogram.write( out, name, help );
+		 * 
+		 ************************************************************* */
+		
+		public void write( StringBuilder out, String name, String help ) {
+			header( out, name, help, "histogram" );
+			long total = 0;
+			for ( int i = 0; i < buckets.length; i++ ) {
+				total += buckets[i].sum();
+				out.append( name ).append( "_bucket{le=\"" ).append(( 1L << ( METRICS_MIN_SHIFT + i )) / 1e9 ).append( "\"} " ).append( total ).append( '\n' );
+			}
+			long n = count.sum();
+			out.append( name ).append( "_bucket{le=\"+Inf\"} " ).append( Math.max( n, total )).append( '\n' );
+			out.append( name ).append( "_sum " ).append( sum.sum() / 1e9 ).append( '\n' );
+			out.append( name ).append( "_count " ).append( Math.max( n, total )).append( '\n' );
+		}
+		
+	}
+	
+	private static final String[] COMMANDS = {
+			"null", "connect", "disconnect", "clear", "post", "update", "subscribe", "history", "binary", "search", "presence", "malformed" };
+	
+	private final LongAdder accepted;
+	private final LongAdder closed;
+	private final LongAdder limited;
+	private final LongAdder dropped;
+	private final LongAdder reaped;
+	private final LongAdder received;
+	private final LongAdder sent;
+	private final LongAdder writes;
+	private final LongAdder[] requests;
+	private final Histogram service;
+	private final Histogram broadcast;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a set of zeroed metrics.
+	 * 
+	 * Use:
+	 * 		Metrics metrics = new Metrics();
+	 * 
+	 ************************************************************* */
+	
+	public Metrics() {
+		this.accepted = new LongAdder();
+		this.closed = new LongAdder();
+		this.limited = new LongAdder();
+		this.dropped = new LongAdder();
+		this.reaped = new LongAdder();
+		this.received = new LongAdder();
+		this.sent = new LongAdder();
+		this.writes = new LongAdder();
+		this.requests = new LongAdder[COMMANDS.length];
+		for ( int i = 0; i < requests.length; i++ ) {
+			requests[i] = new LongAdder();
+		}
+		this.service = new Histogram();
+		this.broadcast = new Histogram();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts an accepted connection.
+	 * 
+	 * Use:
+	 * 		metrics.opened();
+	 * 
+	 ************************************************************* */
+	
+	public void opened() {
+		accepted.increment();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts a closed connection.
+	 * 
+	 * Use:
+	 * 		metrics.closed();
+	 * 
+	 ************************************************************* */
+	
+	public void closed() {
+		closed.increment();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts connections closed for being idle.
+	 * 
+	 * Use:
+	 * 		metrics.reaped( count );
+	 * 
+	 ************************************************************* */
+	
+	public void reaped( long count ) {
+		reaped.add( count );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts a post rejected by a rate limit.
+	 * 
+	 * Use:
+	 * 		metrics.limited();
+	 * 
+	 ************************************************************* */
+	
+	public void limited() {
+		limited.increment();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts a connection dropped for exceeding its rate limit.
+	 * 
+	 * Use:
+	 * 		metrics.dropped();
+	 * 
+	 ************************************************************* */
+	
+	public void dropped() {
+		dropped.increment();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts bytes read from clients.
+	 * 
+	 * Use:
+	 * 		metrics.received( count );
+	 * 
+	 ************************************************************* */
+	
+	public void received( long count ) {
+		received.add( count );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts bytes written to clients.
+	 * 
+	 * Use:
+	 * 		metrics.sent( count );
+	 * 
+	 ************************************************************* */
+	
+	public void sent( long count ) {
+		sent.add( count );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts a write call made on a client socket.
+	 * 
+	 * Use:
+	 * 		metrics.written();
+	 * 
+	 ************************************************************* */
+	
+	public void written() {
+		writes.increment();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Counts a request and the time taken to service it.
+	 * 
+	 * Parameters:
+	 * 		command (int)
+	 * 			The request's CMD_* value, or -1 if it was
+	 * 			malformed.
+	 * 		nanos (long)
+	 * 			The time taken to service it.
+	 * 
+	 * Use:
+	 * 		metrics.serviced( command, nanos );
+	 * 
+	 ************************************************************* */
+	
+	public void serviced( int command, long nanos ) {
+		requests[( command >= 0 && command < requests.length - 1 ) ? command : requests.length - 1].increment();
+		service.record( nanos );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Records the time taken to fan a message out to subscribers.
+	 * 
+	 * Use:
+	 * 		metrics.broadcast( nanos );
+	 * 
+	 ************************************************************* */
+	
+	public void broadcast( long nanos ) {
+		broadcast.record( nanos );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends the HELP and TYPE lines of a metric.
+	 * 
+	 * Use:
+	 * 		Metrics.header( out, name, help, type );
+	 * 
+	 ************************************************************* */
+	
+	private static void header( StringBuilder out, String name, String help, String type ) {
+		out.append( "# HELP " ).append( name ).append( ' ' ).append( help ).append( '\n' );
+		out.append( "# TYPE " ).append( name ).append( ' ' ).append( type ).append( '\n' );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Appends a metric with a single value.
+	 * 
+	 * Use:
+	 * 		Metrics.value( out, name, help, type, value );
+	 * 
+	 ************************************************************* */
+	
+	private static void value( StringBuilder out, String name, String help, String type, long value ) {
+		header( out, name, help, type );
+		out.append( name ).append( ' ' ).append( value ).append( '\n' );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns every metric in the Prometheus text format.
+	 * 
+	 * Parameters:
+	 * 		logger (MBLogger)
+	 * 			The request log whose queue is reported.
+	 * 
+	 * Use:
+	 * 		String text = metrics.scrape( logger );
+	 * 
+	 ************************************************************* */
+	
+	public String scrape( MBLogger logger ) {
+		StringBuilder out = new StringBuilder( 4096 );
+		long opened = accepted.sum();
+		long ended = closed.sum();
+		value( out, "mbserver_connections_accepted_total", "Client connections accepted.", "counter", opened );
+		value( out, "mbserver_connections_closed_total", "Client connections closed.", "counter", ended );
+		value( out, "mbserver_connections_open", "Client connections currently open.", "gauge", opened - ended );
+		value( out, "mbserver_connections_reaped_total", "Client connections closed for being idle.", "counter", reaped.sum() );
+		header( out, "mbserver_requests_total", "Requests serviced, by command.", "counter" );
+		for ( int i = 0; i < requests.length; i++ ) {
+			out.append( "mbserver_requests_total{command=\"" ).append( COMMANDS[i] ).append( "\"} " ).append( requests[i].sum() ).append( '\n' );
+		}
+		value( out, "mbserver_rate_limited_total", "Posts rejected by a rate limit.", "counter", limited.sum() );
+		value( out, "mbserver_rate_dropped_total", "Connections dropped for repeatedly exceeding a rate limit.", "counter", dropped.sum() );
+		service.write( out, "mbserver_service_seconds", "Time taken to service one request." );
+		broadcast.write( out, "mbserver_broadcast_seconds", "Time taken to fan one message out to subscribers." );
+		value( out, "mbserver_received_bytes_total", "Bytes read from clients.", "counter", received.sum() );
+		value( out, "mbserver_sent_bytes_total", "Bytes written to clients.", "counter", sent.sum() );
+		value( out, "mbserver_socket_writes_total", "Write calls made on client sockets.", "counter", writes.sum() );
+		value( out, "mbserver_message_cache_bytes", "Bytes kept by messages' cached encoded forms.", "gauge", Message.getCached() );
+		value( out, "mbserver_log_queue_depth", "Lines waiting to be written to the request log.", "gauge", logger.getDepth() );
+		value( out, "mbserver_log_dropped_total", "Request log lines dropped because the queue was full.", "counter", logger.getDropped() );
+		return out.toString();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Serves the metrics over HTTP at METRICS_PATH.
+	 * 
+	 * Parameters:
+	 * 		host (String)
+	 * 			The address to listen on.
+	 * 		port (int)
+	 * 			The port to listen on.
+	 * 		logger (MBLogger)
+	 * 			The request log whose queue is reported.
+	 * 
+	 * Use:
+	 * 		metrics.serve( host, port, logger );
+	 * 
+	 ************************************************************* */
+	
+	public void serve( String host, int port, MBLogger logger ) throws IOException {
+		HttpServer server = HttpServer.create( new InetSocketAddress( host, port ), 0 );
+		server.createContext( METRICS_PATH, exchange -> {
+			byte[] body = scrape( logger ).getBytes( StandardCharsets.UTF_8 );
+			boolean head = "HEAD".equals( exchange.getRequestMethod() );
+			exchange.getResponseHeaders().set( "Content-Type", METRICS_CONTENT_TYPE );
+			exchange.sendResponseHeaders( 200, head ? -1 : body.length );
+			try ( OutputStream out = exchange.getResponseBody() ) {
+				if ( !head ) {
+					out.write( body );
+				}
+			}
+		});
+		server.start();
+	}
+	
+}
@@ -0,0 +1,93 @@
+/* *************************************************************
+ * 
+ * Class for interning usernames to small integer ids, so the
+ * binary protocol can send a name once and refer to it by id.
+ * Ids are never reused, so the table is bounded: once it holds
+ * its limit of names, further names get NAME_INLINE and are
+ * sent as strings wherever an id would go.
+ * 
+ * Title		Names.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class Names {
+	
+	private ConcurrentHashMap<String, Integer> ids;
+	private ConcurrentHashMap<Integer, String> names;
+	private AtomicInteger next;
+	private int limit;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns an empty table.
+	 * 
+	 * Parameters:
+	 * 		limit (int)
+	 * 			The most names given ids.
+	 * 
+	 * Use:
+	 * 		Names names = new Names( limit );
+	 * 
+	 ************************************************************* */
+	
+	public Names( int limit ) {
+		this.ids = new ConcurrentHashMap<String, Integer>();
+		this.names = new ConcurrentHashMap<Integer, String>();
+		this.next = new AtomicInteger();
+		this.limit = limit;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the id of a username, assigning one if it has none
+	 * and the table is not full.
+	 * 
+	 * Returns:
+	 * 		The id, or NAME_INLINE if the table is full.
+	 * 
+	 * Use:
+	 * 		int id = names.intern( username );
+	 * 
+	 ************************************************************* */
+	
+	public int intern( String username ) {
+		Integer id = ids.get( username );
+		if ( id == null ) {
+			if ( next.get() >= limit ) {
+				return NAME_INLINE;
+			}
+			id = ids.computeIfAbsent( username, key -> {
+				int value = next.incrementAndGet();
+				if ( value > limit ) {
+					return null;
+				}
+				names.put( value, key );
+				return value;
+			});
+		}
+		return ( id != null ) ? id : NAME_INLINE;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the username with a given id, or null.
+	 * 
+	 * Use:
+	 * 		String username = names.get( id );
+	 * 
+	 ************************************************************* */
+	
+	public String get( int id ) {
+		return names.get( id );
+	}
+	
+}
@@ -0,0 +1,116 @@
+/* *************************************************************
+ * 
+ * Class for queueing the bytes to be sent to one client. The
+ * queue is drained by a single writer, so threads that enqueue
+ * (e.g. a poster fanning out a broadcast) never block on the
+ * client's socket. A client that lets more than OUTBOX_LIMIT
+ * bytes pile up, or that accepts nothing for BROADCAST_INTERVAL
+ * while bytes are pending, is a slow consumer and is dropped.
+ * 
+ * Title		Outbox.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+abstract class Outbox {
+	
+	protected final AtomicLong queued;
+	protected volatile boolean closed;
+	protected volatile long progress;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 ************************************************************* */
+	
+	public Outbox() {
+		this.queued = new AtomicLong();
+		this.closed = false;
+		this.progress = System.currentTimeMillis();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Queues bytes to be sent to the client without blocking. The
+	 * array is not copied, so the same bytes may be offered to
+	 * many outboxes but must not be modified afterwards.
+	 * 
+	 * Parameters:
+	 * 		bytes (byte array)
+	 * 			The encoded bytes to send.
+	 * 
+	 * Returns:
+	 * 		False if the outbox is closed or was closed because
+	 * 		the client is too slow, otherwise true.
+	 * 
+	 * Use:
+	 * 		boolean queued = outbox.offer( bytes );
+	 * 
+	 ************************************************************* */
+	
+	public boolean offer( byte[] bytes ) {
+		if ( closed ) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		long size = queued.addAndGet( bytes.length );
+		if ( size == bytes.length ) {
+			progress = now;
+		} else if ( size > OUTBOX_LIMIT || now - progress > BROADCAST_INTERVAL ) {
+			close();
+			return false;
+		}
+		enqueue( bytes );
+		return true;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Records that the writer has sent bytes to the client.
+	 * 
+	 * Parameters:
+	 * 		count (long)
+	 * 			The number of bytes sent.
+	 * 
+	 * Use:
+	 * 		sent( count );
+	 * 
+	 ************************************************************* */
+	
+	protected void sent( long count ) {
+		progress = System.currentTimeMillis();
+		queued.addAndGet( -count );
+		METRICS.sent( count );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Hands bytes to the writer.
+	 * 
+	 * Use:
+	 * 		enqueue( bytes );
+	 * 
+	 ************************************************************* */
+	
+	protected abstract void enqueue( byte[] bytes );
+	
+	/* *************************************************************
+	 * 
+	 * Closes the outbox and the connection behind it.
+	 * 
+	 * Use:
+	 * 		outbox.close();
+	 * 
+	 ************************************************************* */
+	
+	public abstract void close();
+	
+}
@@ -0,0 +1,158 @@
+/* *************************************************************
+ * 
+ * Class for dropping connections that have gone quiet. Every
+ * session is kept in one slot of a hashed timer wheel, filed
+ * under the time it would become idle. Each tick the reaper
+ * empties the slot it has reached, refiles the sessions that
+ * have received anything since, and closes the rest together.
+ * The slots span twice the idle timeout, so a session is
+ * looked at about once per timeout however many there are.
+ * Clients keep quiet connections alive by sending CMD_NULL.
+ * 
+ * Title		Reaper.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+class Reaper extends Thread {
+	
+	private final ConcurrentLinkedQueue<Session>[] slots;
+	private final int mask;
+	private final long timeout;
+	private final long tick;
+	private final long epoch;
+	private volatile long cursor;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a reaper.
+	 * 
+	 * Parameters:
+	 * 		timeout (long)
+	 * 			The time in milliseconds a connection may receive
+	 * 			nothing before it is dropped, or 0 to never drop
+	 * 			idle connections.
+	 * 
+	 * Use:
+	 * 		Reaper reaper = new Reaper( timeout );
+	 * 
+	 ************************************************************* */
+	
+	@SuppressWarnings( "unchecked" )
+	public Reaper( long timeout ) {
+		super( "MBReaper" );
+		this.slots = (ConcurrentLinkedQueue<Session>[]) new ConcurrentLinkedQueue<?>[REAPER_SLOTS];
+		for ( int i = 0; i < slots.length; i++ ) {
+			slots[i] = new ConcurrentLinkedQueue<Session>();
+		}
+		this.mask = REAPER_SLOTS - 1;
+		this.timeout = Math.max( 0, timeout ) * 1000000L;
+		this.tick = Math.max( REAPER_TICK_MIN * 1000000L, this.timeout / ( REAPER_SLOTS / 2 ));
+		this.epoch = System.nanoTime();
+		this.cursor = 0;
+		setDaemon( true );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Starts watching a session for idleness.
+	 * 
+	 * Use:
+	 * 		reaper.watch( session );
+	 * 
+	 ************************************************************* */
+	
+	public void watch( Session session ) {
+		if ( timeout > 0 ) {
+			file( session, session.getActive() + timeout );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Files a session in the slot for the tick at or after a
+	 * deadline, and never in a slot the reaper has passed.
+	 * 
+	 * Use:
+	 * 		file( session, deadline );
+	 * 
+	 ************************************************************* */
+	
+	private void file( Session session, long deadline ) {
+		long target = Math.max(( deadline - epoch + tick - 1 ) / tick, cursor + 1 );
+		slots[(int) target & mask].offer( session );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the number of sessions filed on the wheel. Closed
+	 * sessions are only taken off when the reaper reaches their
+	 * slot.
+	 * 
+	 * Use:
+	 * 		int watched = reaper.size();
+	 * 
+	 ************************************************************* */
+	
+	public int size() {
+		int size = 0;
+		for ( ConcurrentLinkedQueue<Session> slot : slots ) {
+			size += slot.size();
+		}
+		return size;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Advances the wheel one slot per tick, closing the sessions
+	 * in each slot that have been idle for the timeout.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		if ( timeout <= 0 ) {
+			return;
+		}
+		List<Session> idle = new ArrayList<Session>();
+		while ( true ) {
+			long next = epoch + ( cursor + 1 ) * tick;
+			for ( long remaining; ( remaining = next - System.nanoTime() ) > 0; ) {
+				LockSupport.parkNanos( remaining );
+			}
+			long now = System.nanoTime();
+			ConcurrentLinkedQueue<Session> slot = slots[(int) ++cursor & mask];
+			Session session;
+			while (( session = slot.poll() ) != null ) {
+				if ( session.isClosed() ) {
+					continue;
+				}
+				long active = session.getActive();
+				if ( now - active >= timeout ) {
+					idle.add( session );
+				} else {
+					file( session, active + timeout );
+				}
+			}
+			if ( !idle.isEmpty() ) {
+				for ( Session reaped : idle ) {
+					reaped.close();
+				}
+				METRICS.reaped( idle.size() );
+				log( LOG_REAPED + " " + idle.size() );
+				idle.clear();
+			}
+		}
+	}
+	
+}
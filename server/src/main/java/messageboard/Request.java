@@ -0,0 +1,255 @@
+/* *************************************************************
+ * 
+ * Class for parsing one request line in place. A request is a
+ * decimal command code, a username and an optional argument
+ * string, separated by spaces. The username and argument are
+ * kept as offsets into the line and only copied into strings
+ * when a command needs them, so parsing allocates nothing. One
+ * object is reused for every request on a connection.
+ * 
+ * Title		Request.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+class Request {
+	
+	private CharSequence line;
+	private int command;
+	private int end;
+	private int nameEnd;
+	private int nameStart;
+	private int position;
+	private long tag;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 * Use:
+	 * 		Request request = new Request();
+	 * 
+	 ************************************************************* */
+	
+	public Request() {
+		this.line = "";
+		this.command = -1;
+		this.tag = -1;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true if a character separates fields.
+	 * 
+	 * Use:
+	 * 		boolean space = isSpace( c );
+	 * 
+	 ************************************************************* */
+	
+	static boolean isSpace( char c ) {
+		return c == ' ' || c == '\t';
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Moves the cursor past any separators.
+	 * 
+	 * Use:
+	 * 		skip();
+	 * 
+	 ************************************************************* */
+	
+	private void skip() {
+		while ( position < end && isSpace( line.charAt( position ))) {
+			position++;
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Parses a request line. The line must not change until the
+	 * request has been serviced. A line may start with a tag,
+	 * TAG_MARK and a number, which the response will carry.
+	 * 
+	 * Parameters:
+	 * 		line (CharSequence)
+	 * 			The request, without its line terminator.
+	 * 
+	 * Returns:
+	 * 		False if the line does not start with a command code,
+	 * 		after any tag, otherwise true. A valid request may
+	 * 		still lack a username.
+	 * 
+	 * Use:
+	 * 		boolean valid = request.parse( line );
+	 * 
+	 ************************************************************* */
+	
+	public boolean parse( CharSequence line ) {
+		this.line = line;
+		this.command = -1;
+		this.end = line.length();
+		this.nameEnd = 0;
+		this.nameStart = 0;
+		this.position = 0;
+		this.tag = -1;
+		skip();
+		if ( position < end && line.charAt( position ) == TAG_MARK.charAt( 0 )) {
+			position++;
+			long value = nextLong( -1 );
+			if ( value < 0 ) {
+				return false;
+			}
+			tag = value;
+			skip();
+		}
+		int value = 0;
+		int digits = 0;
+		char c;
+		while ( position < end && ( c = line.charAt( position )) >= '0' && c <= '9' ) {
+			if ( ++digits > 9 ) {
+				return false;
+			}
+			value = value * 10 + ( c - '0' );
+			position++;
+		}
+		if ( digits == 0 || ( position < end && !isSpace( line.charAt( position )))) {
+			return false;
+		}
+		command = value;
+		skip();
+		nameStart = position;
+		while ( position < end && !isSpace( line.charAt( position ))) {
+			position++;
+		}
+		nameEnd = position;
+		return true;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true if the last line parsed held only separators.
+	 * 
+	 * Use:
+	 * 		boolean blank = request.isBlank();
+	 * 
+	 ************************************************************* */
+	
+	public boolean isBlank() {
+		for ( int i = 0; i < end; i++ ) {
+			if ( !isSpace( line.charAt( i ))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the command code of the request.
+	 * 
+	 * Use:
+	 * 		int command = request.getCommand();
+	 * 
+	 ************************************************************* */
+	
+	public int getCommand() {
+		return this.command;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the tag the request was sent with, or -1 if it had
+	 * none.
+	 * 
+	 * Use:
+	 * 		long tag = request.getTag();
+	 * 
+	 ************************************************************* */
+	
+	public long getTag() {
+		return this.tag;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true if the request names a user.
+	 * 
+	 * Use:
+	 * 		boolean named = request.hasName();
+	 * 
+	 ************************************************************* */
+	
+	public boolean hasName() {
+		return nameEnd > nameStart;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the username of the request as a new string.
+	 * 
+	 * Use:
+	 * 		String username = request.getName();
+	 * 
+	 ************************************************************* */
+	
+	public String getName() {
+		return line.subSequence( nameStart, nameEnd ).toString();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns everything after the username and its separator as
+	 * a new string, or null if nothing but separators follows.
+	 * 
+	 * Use:
+	 * 		String text = request.getText();
+	 * 
+	 ************************************************************* */
+	
+	public String getText() {
+		for ( int i = nameEnd; i < end; i++ ) {
+			if ( !isSpace( line.charAt( i ))) {
+				return line.subSequence( nameEnd + 1, end ).toString();
+			}
+		}
+		return null;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Parses the next argument as a non-negative number.
+	 * 
+	 * Parameters:
+	 * 		fallback (long)
+	 * 			The value returned if the argument is missing or is
+	 * 			not a number.
+	 * 
+	 * Use:
+	 * 		long sequence = request.nextLong( 0 );
+	 * 
+	 ************************************************************* */
+	
+	public long nextLong( long fallback ) {
+		skip();
+		long value = 0;
+		int digits = 0;
+		char c;
+		while ( position < end && ( c = line.charAt( position )) >= '0' && c <= '9' ) {
+			value = value * 10 + ( c - '0' );
+			digits++;
+			position++;
+		}
+		boolean valid = digits > 0 && digits < 19 && ( position == end || isSpace( line.charAt( position )));
+		while ( position < end && !isSpace( line.charAt( position ))) {
+			position++;
+		}
+		return valid ? value : fallback;
+	}
+	
+}
@@ -0,0 +1,372 @@
+/* *************************************************************
+ * 
+ * Class for holding recent messages in a fixed-size ring of
+ * message objects. Writers claim a slot with one atomic
+ * increment and never lock; the oldest messages are evicted
+ * when the ring is full or, optionally, when they grow too old.
+ * A message is released by whichever thread takes it out of
+ * the ring, so the bytes it cached are given back once.
+ * 
+ * Title		RingStore.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+class RingStore extends MessageStore {
+	
+	private final AtomicReferenceArray<Message> slots;
+	private final AtomicLongArray removed;
+	private final int mask;
+	private final long maxAge;
+	private final AtomicLong first;
+	private final AtomicLong next;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a ring message store.
+	 * 
+	 * Parameters:
+	 * 		capacity (int)
+	 * 			The most messages kept; rounded up to a power of
+	 * 			two.
+	 * 		maxAge (long)
+	 * 			The age in milliseconds after which messages are
+	 * 			evicted, or 0 to keep them until they are pushed
+	 * 			out by newer ones.
+	 * 
+	 * Use:
+	 * 		MessageStore store = new RingStore( capacity, maxAge );
+	 * 
+	 ************************************************************* */
+	
+	public RingStore( int capacity, long maxAge ) {
+		int size = Integer.highestOneBit( Math.max( 2, capacity ) - 1 ) << 1;
+		this.slots = new AtomicReferenceArray<Message>( size );
+		this.removed = new AtomicLongArray( size );
+		this.mask = size - 1;
+		this.maxAge = maxAge;
+		this.first = new AtomicLong( 1 );
+		this.next = new AtomicLong( 1 );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stamps a message with the next sequence number and stores
+	 * it, overwriting the oldest message if the ring is full.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			The message to store.
+	 * 
+	 * Returns:
+	 * 		The sequence number given to the message.
+	 * 
+	 * Use:
+	 * 		long sequence = store.add( msg );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public long add( Message msg ) {
+		long sequence = next.getAndIncrement();
+		msg.setSequence( sequence );
+		int i = (int) sequence & mask;
+		while ( true ) {
+			Message old = slots.get( i );
+			if ( old != null && old.getSequence() > sequence ) {
+				msg.release();
+				break;
+			}
+			if ( slots.compareAndSet( i, old, msg )) {
+				if ( old != null ) {
+					old.release();
+				}
+				break;
+			}
+		}
+		advance( sequence + 1 - slots.length() );
+		evict( msg.getTime().getTime() - maxAge );
+		return sequence;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stores a message that already has a sequence number, as
+	 * read back from the journal. Sequences skipped since the
+	 * newest stored message are marked removed so that readers
+	 * do not wait on them, and a message older than the one in
+	 * its slot is dropped.
+	 * 
+	 * Use:
+	 * 		store.restore( msg );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void restore( Message msg ) {
+		long sequence = msg.getSequence();
+		long end = next.get();
+		for ( long s = Math.max( end, sequence - slots.length() + 1 ); s < sequence; s++ ) {
+			removed.set( (int) s & mask, s );
+		}
+		int i = (int) sequence & mask;
+		Message old = slots.get( i );
+		if ( old == null || old.getSequence() < sequence ) {
+			slots.set( i, msg );
+			if ( old != null ) {
+				old.release();
+			}
+		}
+		if ( sequence >= end ) {
+			next.set( sequence + 1 );
+		}
+		advance( sequence + 1 - slots.length() );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Moves the oldest retained sequence number forward to at
+	 * least a given value.
+	 * 
+	 * Use:
+	 * 		advance( sequence );
+	 * 
+	 ************************************************************* */
+	
+	private void advance( long sequence ) {
+		long current;
+		while (( current = first.get() ) < sequence ) {
+			if ( first.compareAndSet( current, sequence )) {
+				break;
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Evicts a few of the oldest messages if they were posted
+	 * before a cutoff. Called on every add, so the work stays
+	 * small and constant.
+	 * 
+	 * Use:
+	 * 		evict( cutoff );
+	 * 
+	 ************************************************************* */
+	
+	private void evict( long cutoff ) {
+		if ( maxAge <= 0 ) {
+			return;
+		}
+		for ( int n = 0; n < 4; n++ ) {
+			long oldest = first.get();
+			Message msg = slots.get( (int) oldest & mask );
+			if ( oldest >= next.get() || msg == null || msg.getSequence() != oldest
+					|| msg.getTime().getTime() >= cutoff ) {
+				return;
+			}
+			if ( first.compareAndSet( oldest, oldest + 1 ) && slots.compareAndSet( (int) oldest & mask, msg, null )) {
+				msg.release();
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the retained messages that come after a sequence
+	 * number, oldest first. Removed and evicted messages are
+	 * skipped, but reading stops early at a slot that another
+	 * thread has claimed and not yet filled, so a caller that
+	 * remembers the last sequence it received never misses one.
+	 * 
+	 * Parameters:
+	 * 		sequence (long)
+	 * 			The last sequence number already seen, or 0 for
+	 * 			the whole history.
+	 * 		limit (int)
+	 * 			The most messages to return.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = store.since( sequence, limit );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public List<Message> since( long sequence, int limit ) {
+		long cutoff = System.currentTimeMillis() - maxAge;
+		long end = next.get();
+		long start = Math.max( sequence + 1, first.get() );
+		List<Message> messages = new ArrayList<Message>( (int) Math.min( limit, Math.max( 0, end - start )));
+		for ( long s = start; s < end && messages.size() < limit; s++ ) {
+			Message msg = slots.get( (int) s & mask );
+			if ( msg == null ) {
+				if ( s >= first.get() && removed.get( (int) s & mask ) != s ) {
+					break;
+				}
+			} else if ( msg.getSequence() == s ) {
+				if ( maxAge <= 0 || msg.getTime().getTime() >= cutoff ) {
+					messages.add( msg );
+				}
+			} else if ( msg.getSequence() < s ) {
+				break;
+			}
+		}
+		return messages;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the retained message with a sequence number, or
+	 * null.
+	 * 
+	 * Use:
+	 * 		Message msg = store.get( sequence );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public Message get( long sequence ) {
+		Message msg = slots.get( (int) sequence & mask );
+		if ( msg == null || msg.getSequence() != sequence || sequence < first.get()
+				|| ( maxAge > 0 && msg.getTime().getTime() < System.currentTimeMillis() - maxAge )) {
+			return null;
+		}
+		return msg;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the sequence number of the newest message, or 0 if
+	 * none has been added.
+	 * 
+	 * Use:
+	 * 		long last = store.last();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public long last() {
+		return next.get() - 1;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the oldest sequence number still retained.
+	 * 
+	 * Use:
+	 * 		long oldest = store.oldest();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public long oldest() {
+		return first.get();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns every retained message, oldest first, without
+	 * stopping at slots that are still being filled.
+	 * 
+	 * Use:
+	 * 		List<Message> messages = store.retained();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public List<Message> retained() {
+		long end = next.get();
+		long start = Math.max( first.get(), end - slots.length() );
+		List<Message> messages = new ArrayList<Message>( (int) Math.max( 0, end - start ));
+		for ( long s = start; s < end; s++ ) {
+			Message msg = slots.get( (int) s & mask );
+			if ( msg != null && msg.getSequence() == s ) {
+				messages.add( msg );
+			}
+		}
+		return messages;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sets the retained range after a snapshot's messages have
+	 * been restored: sequences up to the snapshot's newest that
+	 * were not restored are marked removed, and the oldest
+	 * retained sequence moves up to the snapshot's.
+	 * 
+	 * Use:
+	 * 		store.resume( oldest, last );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void resume( long oldest, long last ) {
+		long end = next.get();
+		for ( long s = Math.max( end, last + 1 - slots.length() ); s <= last; s++ ) {
+			removed.set( (int) s & mask, s );
+		}
+		if ( last >= end ) {
+			next.set( last + 1 );
+		}
+		advance( oldest );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes one message.
+	 * 
+	 * Parameters:
+	 * 		msg (Message)
+	 * 			The message to remove.
+	 * 
+	 * Returns:
+	 * 		True if the message was still stored.
+	 * 
+	 * Use:
+	 * 		boolean removed = store.remove( msg );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public boolean remove( Message msg ) {
+		int i = (int) msg.getSequence() & mask;
+		removed.set( i, msg.getSequence() );
+		if ( slots.compareAndSet( i, msg, null )) {
+			msg.release();
+			return true;
+		}
+		return false;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Removes every message numbered before a sequence number.
+	 * Clearing to the same sequence again has no further effect,
+	 * so a clear read back from the journal can be repeated.
+	 * 
+	 * Use:
+	 * 		store.clear( end );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void clear( long end ) {
+		long start = first.get();
+		advance( end );
+		for ( long s = Math.max( start, end - slots.length() ); s < end; s++ ) {
+			Message msg = slots.get( (int) s & mask );
+			if ( msg != null && msg.getSequence() < end && slots.compareAndSet( (int) s & mask, msg, null )) {
+				msg.release();
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,467 @@
+/* *************************************************************
+ * 
+ * Class for finding a board's messages by the words in them. An
+ * inverted index maps each lower-cased token of a message's
+ * text, and its username, to a posting list of the sequence
+ * numbers that contain it, kept up to date as messages are
+ * added. A query lists tokens that must all appear, and may
+ * add from:<username> to match one poster and
+ * before:<sequence> to page back through older matches.
+ * 
+ * Posts take the index's write lock and searches share its
+ * read lock, so searches never wait on each other.
+ * 
+ * Postings for evicted and cleared messages are pruned lazily:
+ * whenever a list is touched, and by a sweep of every list once
+ * the index has taken about as many new postings as it holds
+ * lists. Messages removed one at a time are skipped by checking
+ * each match against the store.
+ * 
+ * Title		SearchIndex.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class SearchIndex {
+	
+	/* *************************************************************
+	 * 
+	 * Class for one token's posting list: ascending sequence
+	 * numbers held as int offsets from a base, so a list costs
+	 * four bytes a posting. Entries before start are dead.
+	 * 
+	 ************************************************************* */
+	
+	private static class Postings {
+		
+		private long base;
+		private int[] offsets;
+		private int start;
+		private int end;
+		
+		public Postings() {
+			this.offsets = new int[4];
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Adds a sequence number after pruning the list, so a
+		 * list whose messages are all gone starts again from
+		 * the new number. Messages are indexed in about the
+		 * order they were numbered, so a number lower than the
+		 * last is inserted near the end of the list; a number
+		 * already present is ignored.
+		 * 
+		 * Use:
+		 * 		postings.add( sequence, oldest );
+		 * 
+		 ************************************************************* */
+		
+		public void add( long sequence, long oldest ) {
+			prune( oldest );
+			if ( start == end ) {
+				base = sequence;
+			} else if ( sequence < base ) {
+				int shift = (int) ( base - sequence );
+				for ( int i = start; i < end; i++ ) {
+					offsets[i] += shift;
+				}
+				base = sequence;
+			}
+			int offset = (int) ( sequence - base );
+			int i = end;
+			while ( i > start && offsets[i - 1] > offset ) {
+				i--;
+			}
+			if ( i > start && offsets[i - 1] == offset ) {
+				return;
+			}
+			if ( end == offsets.length ) {
+				offsets = Arrays.copyOf( offsets, offsets.length * 2 );
+			}
+			System.arraycopy( offsets, i, offsets, i + 1, end - i );
+			offsets[i] = offset;
+			end++;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Drops the postings before the oldest retained sequence
+		 * number, moving the rest down and shrinking the array
+		 * once the dead entries are half of it.
+		 * 
+		 * Use:
+		 * 		postings.prune( oldest );
+		 * 
+		 ************************************************************* */
+		
+		public void prune( long oldest ) {
+			while ( start < end && base + offsets[start] < oldest ) {
+				start++;
+			}
+			if ( start == end ) {
+				start = 0;
+				end = 0;
+				if ( offsets.length > 4 ) {
+					offsets = new int[4];
+				}
+			} else if ( start > 0 && start >= end - start ) {
+				int shift = offsets[start];
+				int size = end - start;
+				int[] live = ( offsets.length > 4 * size ) ? new int[Math.max( 4, size * 2 )] : offsets;
+				for ( int i = 0; i < size; i++ ) {
+					live[i] = offsets[start + i] - shift;
+				}
+				offsets = live;
+				base += shift;
+				start = 0;
+				end = size;
+			}
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the index of the last posting at or below a
+		 * sequence number, searching no higher than a given
+		 * index, or start - 1 if there is none. The search
+		 * gallops down from that index before bisecting, so a
+		 * caller stepping down the list pays for the distance
+		 * moved rather than the length of the list.
+		 * 
+		 * Use:
+		 * 		int i = postings.floor( sequence, from );
+		 * 
+		 ************************************************************* */
+		
+		public int floor( long sequence, int from ) {
+			int high = from;
+			if ( high < start || base + offsets[high] <= sequence ) {
+				return high;
+			}
+			int step = 1;
+			int low = high - step;
+			while ( low >= start && base + offsets[low] > sequence ) {
+				high = low;
+				step <<= 1;
+				low = high - step;
+			}
+			low = Math.max( low, start );
+			high--;
+			while ( low <= high ) {
+				int middle = ( low + high ) >>> 1;
+				if ( base + offsets[middle] <= sequence ) {
+					low = middle + 1;
+				} else {
+					high = middle - 1;
+				}
+			}
+			return high;
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the sequence number at an index.
+		 * 
+		 * Use:
+		 * 		long sequence = postings.get( i );
+		 * 
+		 ************************************************************* */
+		
+		public long get( int i ) {
+			return base + offsets[i];
+		}
+		
+		/* *************************************************************
+		 * 
+		 * Returns the number of postings, live or not yet pruned.
+		 * 
+		 * Use:
+		 * 		int size = postings.size();
+		 * 
+		 ************************************************************* */
+		
+		public int size() {
+			return end - start;
+		}
+		
+	}
+	
+	private final MessageStore store;
+	private final HashMap<String, Postings> tokens;
+	private final HashMap<String, Postings> users;
+	private final ReentrantReadWriteLock lock;
+	private long added;
+	private long sweep;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns an empty index over a store.
+	 * 
+	 * Use:
+	 * 		SearchIndex search = new SearchIndex( store );
+	 * 
+	 ************************************************************* */
+	
+	public SearchIndex( MessageStore store ) {
+		this.store = store;
+		this.tokens = new HashMap<String, Postings>();
+		this.users = new HashMap<String, Postings>();
+		this.lock = new ReentrantReadWriteLock();
+		this.added = 0;
+		this.sweep = SEARCH_SWEEP_MIN;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Splits text into lower-cased runs of letters and digits,
+	 * each cut to SEARCH_TOKEN_MAX characters.
+	 * 
+	 * Use:
+	 * 		List<String> words = SearchIndex.tokenize( text );
+	 * 
+	 ************************************************************* */
+	
+	public static List<String> tokenize( String text ) {
+		List<String> words = new ArrayList<String>();
+		int length = text.length();
+		int i = 0;
+		while ( i < length ) {
+			while ( i < length && !Character.isLetterOrDigit( text.charAt( i ))) {
+				i++;
+			}
+			int start = i;
+			while ( i < length && Character.isLetterOrDigit( text.charAt( i ))) {
+				i++;
+			}
+			if ( i > start ) {
+				words.add( text.substring( start, Math.min( i, start + SEARCH_TOKEN_MAX )).toLowerCase( Locale.ROOT ));
+			}
+		}
+		return words;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Indexes a message that has been given its sequence number.
+	 * 
+	 * Use:
+	 * 		search.add( msg );
+	 * 
+	 ************************************************************* */
+	
+	public void add( Message msg ) {
+		List<String> words = tokenize( msg.getText() );
+		long sequence = msg.getSequence();
+		lock.writeLock().lock();
+		try {
+			long oldest = store.oldest();
+			for ( String word : words ) {
+				post( tokens, word, sequence, oldest );
+			}
+			post( users, msg.getName(), sequence, oldest );
+			added += words.size() + 1;
+			if ( added >= sweep ) {
+				sweep();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds a sequence number to a key's posting list, creating
+	 * the list if needed.
+	 * 
+	 * Use:
+	 * 		post( tokens, word, sequence, oldest );
+	 * 
+	 ************************************************************* */
+	
+	private static void post( HashMap<String, Postings> lists, String key, long sequence, long oldest ) {
+		Postings postings = lists.get( key );
+		if ( postings == null ) {
+			postings = new Postings();
+			lists.put( key, postings );
+		}
+		postings.add( sequence, oldest );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Prunes every posting list and drops those left empty, then
+	 * schedules the next sweep after as many new postings as
+	 * there are lists left, so sweeping costs a constant amount
+	 * per posting.
+	 * 
+	 * Use:
+	 * 		search.sweep();
+	 * 
+	 ************************************************************* */
+	
+	public void sweep() {
+		lock.writeLock().lock();
+		try {
+			long oldest = store.oldest();
+			for ( HashMap<String, Postings> lists : Arrays.asList( tokens, users )) {
+				Iterator<Postings> iterator = lists.values().iterator();
+				while ( iterator.hasNext() ) {
+					Postings postings = iterator.next();
+					postings.prune( oldest );
+					if ( postings.size() == 0 ) {
+						iterator.remove();
+					}
+				}
+			}
+			sweep = added + Math.max( SEARCH_SWEEP_MIN, tokens.size() + users.size() );
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the number of postings held across every list, live
+	 * or not yet pruned.
+	 * 
+	 * Use:
+	 * 		int size = search.size();
+	 * 
+	 ************************************************************* */
+	
+	public int size() {
+		lock.readLock().lock();
+		try {
+			int size = 0;
+			for ( HashMap<String, Postings> lists : Arrays.asList( tokens, users )) {
+				for ( Postings postings : lists.values() ) {
+					size += postings.size();
+				}
+			}
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the newest retained messages matching a query,
+	 * oldest first. The posting lists are intersected from their
+	 * newest ends by leapfrogging: each list in turn skips down
+	 * to the candidate sequence number, and a list that lacks it
+	 * lowers the candidate to the next number it holds, so long
+	 * runs that cannot match are passed over by binary search.
+	 * A query of only before:<sequence> matches every message, so
+	 * clients can page back through the whole history.
+	 * 
+	 * Parameters:
+	 * 		query (String)
+	 * 			Words that must all appear, with optional
+	 * 			from:<username> and before:<sequence> terms.
+	 * 		limit (int)
+	 * 			The most messages to return.
+	 * 
+	 * Use:
+	 * 		List<Message> matches = search.find( query, limit );
+	 * 
+	 ************************************************************* */
+	
+	public List<Message> find( String query, int limit ) {
+		List<String> words = new ArrayList<String>();
+		String user = null;
+		long before = Long.MAX_VALUE;
+		boolean browse = false;
+		for ( String term : query.trim().split( "\\s+" )) {
+			if ( term.startsWith( SEARCH_FROM ) && term.length() > SEARCH_FROM.length() ) {
+				user = term.substring( SEARCH_FROM.length() );
+			} else if ( term.startsWith( SEARCH_BEFORE )) {
+				try {
+					before = Long.parseLong( term.substring( SEARCH_BEFORE.length() ));
+					browse = true;
+				} catch ( NumberFormatException e ) {
+					words.addAll( tokenize( term ));
+				}
+			} else {
+				words.addAll( tokenize( term ));
+			}
+		}
+		List<Message> matches = new ArrayList<Message>();
+		if ( words.isEmpty() && user == null ) {
+			if ( browse ) {
+				long oldest = store.oldest();
+				for ( long sequence = Math.min( before - 1, store.last() ); sequence >= oldest && matches.size() < limit; sequence-- ) {
+					Message msg = store.get( sequence );
+					if ( msg != null ) {
+						matches.add( msg );
+					}
+				}
+				Collections.reverse( matches );
+			}
+			return matches;
+		}
+		lock.readLock().lock();
+		try {
+			List<Postings> lists = new ArrayList<Postings>();
+			for ( String word : words ) {
+				lists.add( tokens.get( word ));
+			}
+			if ( user != null ) {
+				lists.add( users.get( user ));
+			}
+			if ( lists.isEmpty() || lists.contains( null )) {
+				return matches;
+			}
+			int[] cursors = new int[lists.size()];
+			for ( int j = 0; j < cursors.length; j++ ) {
+				cursors[j] = lists.get( j ).end - 1;
+			}
+			long oldest = store.oldest();
+			long sequence = before - 1;
+			while ( sequence >= oldest && matches.size() < limit ) {
+				int agreed = 0;
+				for ( int j = 0; agreed < lists.size(); j = ( j + 1 ) % lists.size() ) {
+					Postings postings = lists.get( j );
+					int i = postings.floor( sequence, cursors[j] );
+					cursors[j] = i;
+					if ( i < postings.start ) {
+						sequence = -1;
+						break;
+					}
+					if ( postings.get( i ) == sequence ) {
+						agreed++;
+					} else {
+						sequence = postings.get( i );
+						agreed = 1;
+					}
+				}
+				if ( sequence >= oldest ) {
+					Message msg = store.get( sequence );
+					if ( msg != null ) {
+						matches.add( msg );
+					}
+				}
+				sequence--;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		Collections.reverse( matches );
+		return matches;
+	}
+	
+}
@@ -0,0 +1,809 @@
+/* *************************************************************
+ * 
+ * Class for holding the state of one client connection,
+ * independent of how its bytes are read and written. A session
+ * speaks the text protocol until the client asks to switch to
+ * the binary protocol with CMD_BINARY. It is on the default
+ * channel until it connects to another.
+ * 
+ * Title		Session.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class Session {
+	
+	private int id;
+	Channels channels;
+	private volatile Board board;
+	Outbox outbox;
+	private Request request;
+	private long tag;
+	private boolean answered;
+	private volatile boolean binary;
+	private boolean subscribed;
+	private String username;
+	private Set<Integer> named;
+	private TokenBucket posts;
+	private TokenBucket strikes;
+	private volatile long active;
+	private AtomicBoolean closed;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a session object.
+	 * 
+	 * Parameters:
+	 * 		channels (Channels)
+	 * 			The channels shared by every connected client.
+	 * 		id (int)
+	 * 			The connection number assigned by the server.
+	 * 		outbox (Outbox)
+	 * 			The queue that responses to this client are sent
+	 * 			through.
+	 * 
+	 * Use:
+	 * 		Session session = new Session( channels, id, outbox );
+	 * 
+	 ************************************************************* */
+	
+	public Session( Channels channels, int id, Outbox outbox ) {
+		this.id = id;
+		this.channels = channels;
+		this.board = channels.get( CHANNEL_DEFAULT );
+		this.outbox = outbox;
+		this.request = new Request();
+		this.tag = -1;
+		this.answered = false;
+		this.binary = false;
+		this.subscribed = false;
+		this.username = null;
+		this.named = ConcurrentHashMap.newKeySet();
+		TokenBucket[] buckets = channels.newBuckets();
+		this.posts = ( buckets != null ) ? buckets[0] : null;
+		this.strikes = ( buckets != null ) ? buckets[1] : null;
+		this.active = System.nanoTime();
+		this.closed = new AtomicBoolean();
+		METRICS.opened();
+		REAPER.watch( this );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the connection number of this session.
+	 * 
+	 * Use:
+	 * 		int id = session.getID();
+	 * 
+	 ************************************************************* */
+	
+	public int getID() {
+		return this.id;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the System.nanoTime() at which bytes were last
+	 * received on this session's connection.
+	 * 
+	 * Use:
+	 * 		long active = session.getActive();
+	 * 
+	 ************************************************************* */
+	
+	public long getActive() {
+		return active;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Records that bytes were received on this session's
+	 * connection.
+	 * 
+	 * Use:
+	 * 		session.touch();
+	 * 
+	 ************************************************************* */
+	
+	public void touch() {
+		active = System.nanoTime();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true once this session has been closed.
+	 * 
+	 * Use:
+	 * 		boolean closed = session.isClosed();
+	 * 
+	 ************************************************************* */
+	
+	public boolean isClosed() {
+		return closed.get();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true if this session speaks the binary protocol.
+	 * 
+	 * Use:
+	 * 		boolean binary = session.isBinary();
+	 * 
+	 ************************************************************* */
+	
+	public boolean isBinary() {
+		return this.binary;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Encodes a line of text for sending.
+	 * 
+	 * Parameters:
+	 * 		line (String)
+	 * 			The text to encode, without a line terminator.
+	 * 
+	 * Use:
+	 * 		byte[] bytes = Session.encode( line );
+	 * 
+	 ************************************************************* */
+	
+	public static byte[] encode( String line ) {
+		return ( line + "\n" ).getBytes( CHARSET );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a response line carrying the tag of the request
+	 * being serviced, if it had one, and notes that the request
+	 * has been answered.
+	 * 
+	 * Use:
+	 * 		String reply = label( line );
+	 * 
+	 ************************************************************* */
+	
+	private String label( String line ) {
+		answered = true;
+		return ( tag < 0 ) ? line : TAG_MARK + tag + " " + line;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends one line answering the request being serviced.
+	 * 
+	 * Use:
+	 * 		send( line );
+	 * 
+	 ************************************************************* */
+	
+	private void send( String line ) {
+		outbox.offer( encode( label( line )));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends one binary frame answering the request being
+	 * serviced. The response to a tagged request is wrapped in a
+	 * FRAME_TAG frame carrying the same tag.
+	 * 
+	 * Use:
+	 * 		send( frame );
+	 * 
+	 ************************************************************* */
+	
+	private void send( Frame frame ) {
+		answered = true;
+		if ( tag < 0 ) {
+			outbox.offer( frame.toBytes() );
+		} else {
+			outbox.offer( new Frame( FRAME_TAG ).putVarint( tag ).putBytes( frame.toPayload() ).toBytes() );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Tells a binary client the username behind an id, unless it
+	 * has already been told or the name has no id. Announcements are never tagged, as
+	 * broadcasts make them from other sessions' threads.
+	 * 
+	 * Parameters:
+	 * 		user (int)
+	 * 			The interned id of the username.
+	 * 		name (String)
+	 * 			The username.
+	 * 
+	 * Use:
+	 * 		session.announce( user, name );
+	 * 
+	 ************************************************************* */
+	
+	public void announce( int user, String name ) {
+		if ( user != NAME_INLINE && named.add( user )) {
+			outbox.offer( new Frame( FRAME_NAME ).putVarint( user ).putString( name ).toBytes() );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends an error in this session's protocol.
+	 * 
+	 * Use:
+	 * 		error( message );
+	 * 
+	 ************************************************************* */
+	
+	private void error( String message ) {
+		if ( binary ) {
+			send( new Frame( FRAME_ERROR ).putString( message ));
+		} else {
+			send( message );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Checks a post against this connection's and the poster's
+	 * rate limits. The connection's token is given back if the
+	 * poster's limit turns the post away, so a rejected post only
+	 * costs a strike. A rejected post is answered with an error;
+	 * once the connection has run out of strikes the session is
+	 * closed instead, which stops its reader from servicing any
+	 * requests still buffered.
+	 * 
+	 * Returns:
+	 * 		True if the post may go ahead.
+	 * 
+	 * Use:
+	 * 		boolean allowed = admit( name );
+	 * 
+	 ************************************************************* */
+	
+	private boolean admit( String name ) {
+		if ( posts == null ) {
+			return true;
+		}
+		long now = System.nanoTime();
+		if ( posts.take( now )) {
+			if ( channels.admit( name, now )) {
+				return true;
+			}
+			posts.refund();
+		}
+		METRICS.limited();
+		if ( strikes.take( now )) {
+			error( ERROR_RATE_LIMITED );
+		} else {
+			METRICS.dropped();
+			log( LOG_RATE_DISCONNECT + " " + name );
+			close();
+		}
+		return false;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Answers a tagged request that has had no other response,
+	 * such as CMD_CLEAR, with its bare command, so that a client
+	 * pipelining tagged requests learns when each is done.
+	 * Untagged requests keep their usual responses.
+	 * 
+	 * Use:
+	 * 		acknowledge( command );
+	 * 
+	 ************************************************************* */
+	
+	private void acknowledge( int command ) {
+		if ( tag >= 0 && !answered ) {
+			if ( binary ) {
+				send( new Frame( command ));
+			} else {
+				send( String.valueOf( command ));
+			}
+		}
+		tag = -1;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Answers CMD_NULL.
+	 * 
+	 * Use:
+	 * 		ping();
+	 * 
+	 ************************************************************* */
+	
+	private void ping() {
+		if ( binary ) {
+			send( new Frame( CMD_NULL ));
+		} else {
+			send( String.valueOf( CMD_NULL ));
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Registers this session's client under a username on a
+	 * channel, moving it off the channel it was on. A subscribed
+	 * session stays subscribed on the new channel. If the session
+	 * was closed meanwhile, e.g. by the reaper, close() may have
+	 * unregistered it from the old board, so the registration is
+	 * undone here instead.
+	 * 
+	 * Use:
+	 * 		connect( name, channel );
+	 * 
+	 ************************************************************* */
+	
+	private void connect( String name, String channel ) {
+		Board target = channels.get( channel );
+		if ( target == null ) {
+			error( ERROR_CHANNEL_LIMIT );
+		} else if ( target.addClient( new Client( id, name ))) {
+			if ( target != board ) {
+				board.broadcaster.unsubscribe( this );
+				board.removeClient( id );
+				board = target;
+				if ( subscribed ) {
+					board.broadcaster.subscribe( this );
+				}
+			}
+			if ( closed.get() ) {
+				board.broadcaster.unsubscribe( this );
+				board.removeClient( id );
+				return;
+			}
+			username = name;
+			if ( binary ) {
+				int user = channels.names.intern( name );
+				announce( user, name );
+				send( new Frame( CMD_CONNECT ).putName( user, name ));
+			} else {
+				send( name );
+			}
+		} else {
+			error( ERROR_USERNAME_TAKEN );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Unregisters this session's client.
+	 * 
+	 * Use:
+	 * 		disconnect();
+	 * 
+	 ************************************************************* */
+	
+	private void disconnect() {
+		board.broadcaster.unsubscribe( this );
+		board.removeClient( id );
+		subscribed = false;
+		username = null;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds a message to the board, echoes it to its poster and
+	 * pushes it to every subscriber. The name is always the
+	 * session's own username, and only a binary session interns
+	 * it here, since only binary peers need its id.
+	 * 
+	 * Use:
+	 * 		post( name, text );
+	 * 
+	 ************************************************************* */
+	
+	private void post( String name, String text ) {
+		Message msg = new Message( name, text );
+		board.addMsg( msg );
+		int user = -1;
+		if ( binary ) {
+			user = channels.names.intern( name );
+			announce( user, name );
+			send( new Frame( CMD_POST ).putMessage( msg, user ));
+		} else {
+			send( msg.toString() );
+		}
+		board.broadcaster.publish( msg, user, this );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends the list of connected clients, separated by spaces.
+	 * 
+	 * Use:
+	 * 		update();
+	 * 
+	 ************************************************************* */
+	
+	private void update() {
+		Client[] clients = board.getClients();
+		if ( binary ) {
+			Frame frame = new Frame( CMD_UPDATE ).putVarint( clients.length );
+			for ( Client client : clients ) {
+				frame.putVarint( channels.names.intern( client.getName() )).putString( client.getName() );
+			}
+			send( frame );
+		} else {
+			StringBuilder clientList = new StringBuilder();
+			for ( Client client : clients ) {
+				if ( clientList.length() > 0 ) {
+					clientList.append( ' ' );
+				}
+				clientList.append( client.getName() );
+			}
+			send( clientList.toString() );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends the changes to the list of connected clients since a
+	 * presence version: a line holding the current version, then
+	 * +<id> <username> for each connection that joined or took a
+	 * new name and -<id> for each that left. If the changes are
+	 * no longer all held, or the version is 0, the line instead
+	 * holds = after the version and a join for every connected
+	 * client, and the client should replace its list. Binary
+	 * clients get the version, a flag marking a snapshot and the
+	 * count of changes, then each change as its connection
+	 * number, a flag marking a join and the username of a join.
+	 * Versions belong to a channel, so a client should ask from
+	 * 0 after moving to another.
+	 * 
+	 * Parameters:
+	 * 		since (long)
+	 * 			The last presence version the client has seen.
+	 * 
+	 * Use:
+	 * 		presence( since );
+	 * 
+	 ************************************************************* */
+	
+	private void presence( long since ) {
+		List<ClientRegistry.Change> changes = board.clients.changes( since );
+		long version = since;
+		boolean reset = ( changes == null );
+		if ( reset ) {
+			ClientRegistry.Snapshot snapshot = board.clients.current();
+			version = snapshot.version;
+			changes = new ArrayList<ClientRegistry.Change>( snapshot.clients.length );
+			for ( Client client : snapshot.clients ) {
+				changes.add( new ClientRegistry.Change( version, client.getID(), client.getName() ));
+			}
+		} else if ( !changes.isEmpty() ) {
+			version = changes.get( changes.size() - 1 ).getVersion();
+		}
+		if ( binary ) {
+			Frame frame = new Frame( CMD_PRESENCE ).putVarint( version ).putVarint( reset ? 1 : 0 ).putVarint( changes.size() );
+			for ( ClientRegistry.Change change : changes ) {
+				frame.putVarint( change.getID() ).putVarint(( change.getName() != null ) ? 1 : 0 );
+				if ( change.getName() != null ) {
+					frame.putString( change.getName() );
+				}
+			}
+			send( frame );
+		} else {
+			StringBuilder line = new StringBuilder().append( version );
+			if ( reset ) {
+				line.append( " =" );
+			}
+			for ( ClientRegistry.Change change : changes ) {
+				if ( change.getName() != null ) {
+					line.append( " +" ).append( change.getID() ).append( ' ' ).append( change.getName() );
+				} else {
+					line.append( " -" ).append( change.getID() );
+				}
+			}
+			send( line.toString() );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds this session to the board's broadcast subscribers.
+	 * 
+	 * Use:
+	 * 		subscribe();
+	 * 
+	 ************************************************************* */
+	
+	private void subscribe() {
+		board.broadcaster.subscribe( this );
+		subscribed = true;
+		if ( binary ) {
+			send( new Frame( CMD_SUBSCRIBE ));
+		} else {
+			send( String.valueOf( CMD_SUBSCRIBE ));
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends the messages posted after a sequence number as one
+	 * write: a header line holding the number of messages that
+	 * follow and the newest sequence number on the board, then
+	 * one line per message prefixed with its sequence number.
+	 * A client that receives a full page should ask again from
+	 * the last sequence number it received. Binary clients get
+	 * the same fields in a single frame.
+	 * 
+	 * Parameters:
+	 * 		sequence (long)
+	 * 			The last sequence number the client has seen.
+	 * 		limit (int)
+	 * 			The most messages to send.
+	 * 
+	 * Use:
+	 * 		history( sequence, limit );
+	 * 
+	 ************************************************************* */
+	
+	private void history( long sequence, int limit ) {
+		page( CMD_HISTORY, board.getMsgs( sequence, limit ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends the newest messages that match a search query, in
+	 * the same form as a history page. A client that receives a
+	 * full page can ask for older matches by adding
+	 * before:<sequence> with the first sequence number it
+	 * received.
+	 * 
+	 * Use:
+	 * 		search( query );
+	 * 
+	 ************************************************************* */
+	
+	private void search( String query ) {
+		page( CMD_SEARCH, board.search( query, HISTORY_PAGE_MAX ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Sends a page of messages as one write, answering the
+	 * command that asked for them.
+	 * 
+	 * Use:
+	 * 		page( CMD_HISTORY, messages );
+	 * 
+	 ************************************************************* */
+	
+	private void page( int command, List<Message> messages ) {
+		if ( binary ) {
+			Frame frame = new Frame( command ).putVarint( messages.size() ).putVarint( board.messages.last() );
+			for ( Message msg : messages ) {
+				int user = channels.names.intern( msg.getName() );
+				announce( user, msg.getName() );
+				frame.putMessage( msg, user );
+			}
+			send( frame );
+		} else {
+			byte[] header = encode( label( messages.size() + " " + board.messages.last() ));
+			byte[][] lines = new byte[messages.size()][];
+			int size = header.length;
+			for ( int i = 0; i < lines.length; i++ ) {
+				lines[i] = messages.get( i ).getLine();
+				size += lines[i].length;
+			}
+			byte[] response = Arrays.copyOf( header, size );
+			int position = header.length;
+			for ( byte[] line : lines ) {
+				System.arraycopy( line, 0, response, position, line.length );
+				position += line.length;
+			}
+			outbox.offer( response );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Releases this session and closes its connection. Only the
+	 * first call has any effect, so the connection's reader and
+	 * the reaper may both close it.
+	 * 
+	 * Use:
+	 * 		session.close();
+	 * 
+	 ************************************************************* */
+	
+	public void close() {
+		if ( !closed.compareAndSet( false, true )) {
+			return;
+		}
+		board.broadcaster.unsubscribe( this );
+		board.removeClient( id );
+		outbox.close();
+		METRICS.closed();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Services requests made by clients, and writes information
+	 * required to fulfill those requests to the client's input
+	 * stream using its TCP connection.
+	 * 
+	 * Malformed requests are answered with an error instead of
+	 * ending the connection. Requests are answered in the order
+	 * they arrive; the response to a tagged request starts with
+	 * the same tag, so clients may pipeline requests and match
+	 * their responses by tag.
+	 * 
+	 * Parameters:
+	 * 		line (CharSequence)
+	 * 			A formatted string that contains the information
+	 * 			necessary to service a valid request. Only read
+	 * 			until this method returns.
+	 * 
+	 * Use:
+	 * 		session.service( line );
+	 * 
+	 ************************************************************* */
+	
+	public void service( CharSequence line ) {
+		long start = System.nanoTime();
+		int command = -1;
+		boolean valid = request.parse( line );
+		tag = request.getTag();
+		answered = false;
+		if ( valid ) {
+			command = request.getCommand();
+			if ( request.hasName() ) {
+				if ( command == CMD_NULL ) {
+					ping();
+				} else if ( command == CMD_CONNECT ) {
+					String channel = request.getText();
+					if ( channel != null ) {
+						channel = channel.trim();
+					}
+					if ( channel == null ) {
+						connect( request.getName(), CHANNEL_DEFAULT );
+					} else if ( Channels.isValid( channel )) {
+						connect( request.getName(), channel );
+					} else {
+						error( ERROR_MALFORMED_REQUEST );
+					}
+				} else if ( command == CMD_DISCONNECT ) {
+					disconnect();
+				} else if ( command == CMD_CLEAR ) {
+					if ( username == null ) {
+						error( ERROR_NOT_CONNECTED );
+					} else {
+						board.clear();
+					}
+				} else if ( command == CMD_POST ) {
+					if ( username == null ) {
+						error( ERROR_NOT_CONNECTED );
+					} else if ( admit( username )) {
+						String text = request.getText();
+						if ( text != null ) {
+							post( username, text );
+						} else {
+							ping();
+						}
+					}
+				} else if ( command == CMD_UPDATE ) {
+					update();
+				} else if ( command == CMD_SUBSCRIBE ) {
+					subscribe();
+				} else if ( command == CMD_HISTORY ) {
+					long sequence = request.nextLong( 0 );
+					long limit = request.nextLong( HISTORY_PAGE_MAX );
+					history( sequence, (int) Math.max( 1, Math.min( limit, HISTORY_PAGE_MAX )));
+				} else if ( command == CMD_BINARY ) {
+					send( String.valueOf( CMD_BINARY ));
+					binary = true;
+				} else if ( command == CMD_SEARCH ) {
+					String query = request.getText();
+					search(( query != null ) ? query : "" );
+				} else if ( command == CMD_PRESENCE ) {
+					presence( request.nextLong( 0 ));
+				}
+			}
+			log( line.toString() );
+		} else if ( !request.isBlank() ) {
+			error( ERROR_MALFORMED_REQUEST );
+			log( line.toString() );
+		} else {
+			return;
+		}
+		acknowledge( command );
+		METRICS.serviced( command, System.nanoTime() - start );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Services one binary request. Requests other than CMD_CONNECT
+	 * and CMD_NULL act as the username this session connected
+	 * with. A request wrapped in a FRAME_TAG frame, a varint tag
+	 * followed by the request, is answered wrapped in the same way.
+	 * 
+	 * Parameters:
+	 * 		payload (ByteBuffer)
+	 * 			The frame without its length prefix, backed by an
+	 * 			array. Only read until this method returns.
+	 * 
+	 * Use:
+	 * 		session.service( payload );
+	 * 
+	 ************************************************************* */
+	
+	public void service( ByteBuffer payload ) {
+		long start = System.nanoTime();
+		int command = -1;
+		tag = -1;
+		answered = false;
+		try {
+			command = (int) Frame.getVarint( payload );
+			if ( command == FRAME_TAG ) {
+				tag = Frame.getVarint( payload );
+				command = (int) Frame.getVarint( payload );
+			}
+			String text = "";
+			if ( command == CMD_CONNECT ) {
+				String name = Frame.getString( payload );
+				String channel = payload.hasRemaining() ? Frame.getString( payload ) : CHANNEL_DEFAULT;
+				if ( Channels.isValid( channel )) {
+					connect( name, channel );
+				} else {
+					error( ERROR_MALFORMED_REQUEST );
+				}
+			} else if ( command == CMD_NULL ) {
+				ping();
+			} else if ( username == null ) {
+				error( ERROR_NOT_CONNECTED );
+			} else if ( command == CMD_DISCONNECT ) {
+				disconnect();
+			} else if ( command == CMD_CLEAR ) {
+				board.clear();
+			} else if ( command == CMD_POST ) {
+				if ( admit( username )) {
+					text = Frame.getString( payload );
+					post( username, text );
+					text = " " + text;
+				}
+			} else if ( command == CMD_UPDATE ) {
+				update();
+			} else if ( command == CMD_SUBSCRIBE ) {
+				subscribe();
+			} else if ( command == CMD_HISTORY ) {
+				long sequence = Frame.getVarint( payload );
+				long limit = Frame.getVarint( payload );
+				history( sequence, (int) Math.max( 1, Math.min( limit, HISTORY_PAGE_MAX )));
+			} else if ( command == CMD_SEARCH ) {
+				text = Frame.getString( payload );
+				search( text );
+				text = " " + text;
+			} else if ( command == CMD_PRESENCE ) {
+				long since = Frame.getVarint( payload );
+				presence( since );
+				text = " " + since;
+			} else {
+				error( ERROR_MALFORMED_REQUEST );
+			}
+			log( command + " " + username + text );
+		} catch ( BufferUnderflowException | IllegalArgumentException e ) {
+			command = -1;
+			error( ERROR_MALFORMED_REQUEST );
+		}
+		acknowledge( command );
+		METRICS.serviced( command, System.nanoTime() - start );
+	}
+	
+}
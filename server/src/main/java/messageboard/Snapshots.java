@@ -0,0 +1,300 @@
+/* *************************************************************
+ * 
+ * Class for writing compact snapshots of every board beside the
+ * journal, so that a restart loads the newest snapshot and
+ * replays only the journal records written after it. Snapshots
+ * are taken in the background while posting continues: the
+ * journal position is noted first, then each board's retained
+ * messages are copied. Anything posted during the copy is also
+ * in the journal after that position, and replaying it again is
+ * harmless because restoring a message and clearing up to a
+ * sequence can both be repeated.
+ * 
+ * A snapshot is written to a temporary file, forced to disk and
+ * renamed into place, so a crash leaves either the old snapshot
+ * or the new one. Its name is the journal record it was taken
+ * at, and it ends with a CRC32 of its contents. Once written,
+ * older snapshots beyond SNAPSHOT_RETENTION and journal segments
+ * that only hold records before the oldest kept snapshot are
+ * deleted.
+ * 
+ * Title		Snapshots.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+class Snapshots extends Thread {
+	
+	private final Journal journal;
+	private final Channels channels;
+	private final long interval;
+	private long taken;
+	private volatile boolean running;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a snapshot writer for the boards of a
+	 * set of channels, keeping its files in the journal directory.
+	 * 
+	 * Parameters:
+	 * 		journal (Journal)
+	 * 			The journal that snapshots cut short.
+	 * 		channels (Channels)
+	 * 			The channels whose boards are saved.
+	 * 		interval (long)
+	 * 			The time in milliseconds between snapshots, or 0
+	 * 			to take none in the background.
+	 * 
+	 * Use:
+	 * 		Snapshots snapshots = new Snapshots( journal, channels, interval );
+	 * 
+	 ************************************************************* */
+	
+	public Snapshots( Journal journal, Channels channels, long interval ) {
+		super( "MBSnapshots" );
+		this.journal = journal;
+		this.channels = channels;
+		this.interval = interval;
+		this.taken = 0;
+		this.running = true;
+		setDaemon( true );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the journal records at which the snapshots in the
+	 * journal directory were taken, in order.
+	 * 
+	 * Use:
+	 * 		long[] records = snapshots.list();
+	 * 
+	 ************************************************************* */
+	
+	private long[] list() {
+		String[] files = journal.getDirectory().list();
+		List<Long> records = new ArrayList<Long>();
+		if ( files != null ) {
+			for ( String file : files ) {
+				if ( file.endsWith( SNAPSHOT_SUFFIX )) {
+					try {
+						records.add( Long.parseLong( file.substring( 0, file.length() - SNAPSHOT_SUFFIX.length() )));
+					} catch ( NumberFormatException e ) {
+						continue;
+					}
+				}
+			}
+		}
+		long[] sorted = new long[records.size()];
+		for ( int i = 0; i < sorted.length; i++ ) {
+			sorted[i] = records.get( i );
+		}
+		Arrays.sort( sorted );
+		return sorted;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Loads the newest intact snapshot into the boards. Must be
+	 * called before anything is posted.
+	 * 
+	 * Returns:
+	 * 		The journal record to replay from: the record the
+	 * 		snapshot was taken at, or 0 if there is none.
+	 * 
+	 * Use:
+	 * 		long from = snapshots.load();
+	 * 
+	 ************************************************************* */
+	
+	public long load() throws IOException {
+		long[] records = list();
+		for ( int i = records.length - 1; i >= 0; i-- ) {
+			if ( records[i] > journal.getRecords() ) {
+				continue;
+			}
+			byte[] bytes = Files.readAllBytes( new File( journal.getDirectory(), Journal.name( records[i], SNAPSHOT_SUFFIX )).toPath() );
+			CRC32 crc = new CRC32();
+			crc.update( bytes, 0, Math.max( 0, bytes.length - 4 ));
+			if ( bytes.length < 4 || (int) crc.getValue() != ByteBuffer.wrap( bytes, bytes.length - 4, 4 ).getInt() ) {
+				continue;
+			}
+			ByteBuffer snapshot = ByteBuffer.wrap( bytes, 0, bytes.length - 4 );
+			long record = snapshot.getLong();
+			for ( int boards = snapshot.getInt(); boards > 0; boards-- ) {
+				Board board = channels.get( Journal.getString( snapshot ));
+				long oldest = snapshot.getLong();
+				long last = snapshot.getLong();
+				for ( int count = snapshot.getInt(); count > 0; count-- ) {
+					long sequence = snapshot.getLong();
+					long time = snapshot.getLong();
+					String username = Journal.getString( snapshot );
+					String text = Journal.getString( snapshot );
+					if ( board != null ) {
+						board.restore( new Message( sequence, time, username, text ));
+					}
+				}
+				if ( board != null ) {
+					board.messages.resume( oldest, last );
+				}
+			}
+			taken = record;
+			return record;
+		}
+		return 0;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes a snapshot of every board, then deletes the snapshots
+	 * and journal segments it makes unnecessary.
+	 * 
+	 * Use:
+	 * 		snapshots.write();
+	 * 
+	 ************************************************************* */
+	
+	public void write() throws IOException {
+		long record = journal.getRecords();
+		File directory = journal.getDirectory();
+		File temporary = new File( directory, Journal.name( record, SNAPSHOT_TEMP_SUFFIX ));
+		CRC32 crc = new CRC32();
+		try ( FileOutputStream file = new FileOutputStream( temporary ) ) {
+			DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new CheckedOutputStream( file, crc ), REACTOR_BUFFER_SIZE ));
+			Collection<Board> boards = channels.getBoards();
+			List<Board> saved = new ArrayList<Board>( boards );
+			out.writeLong( record );
+			out.writeInt( saved.size() );
+			for ( Board board : saved ) {
+				MessageStore store = board.messages;
+				long oldest = store.oldest();
+				long last = store.last();
+				List<Message> messages = store.retained();
+				putString( out, board.channel );
+				out.writeLong( oldest );
+				out.writeLong( last );
+				out.writeInt( messages.size() );
+				for ( Message msg : messages ) {
+					out.writeLong( msg.getSequence() );
+					out.writeLong( msg.getTime().getTime() );
+					putString( out, msg.getName() );
+					putString( out, msg.getText() );
+				}
+			}
+			out.flush();
+			new DataOutputStream( file ).writeInt( (int) crc.getValue() );
+			file.getChannel().force( true );
+		}
+		Files.move( temporary.toPath(), new File( directory, Journal.name( record, SNAPSHOT_SUFFIX )).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		taken = record;
+		long[] records = list();
+		for ( int i = 0; i < records.length - SNAPSHOT_RETENTION; i++ ) {
+			new File( directory, Journal.name( records[i], SNAPSHOT_SUFFIX )).delete();
+		}
+		journal.truncate( records[Math.max( 0, records.length - SNAPSHOT_RETENTION )] );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes a length-prefixed UTF-8 string to a snapshot.
+	 * 
+	 * Use:
+	 * 		Snapshots.putString( out, value );
+	 * 
+	 ************************************************************* */
+	
+	private static void putString( DataOutputStream out, String value ) throws IOException {
+		byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+		out.writeInt( bytes.length );
+		out.write( bytes );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Takes a snapshot every interval until shut down.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		if ( interval <= 0 ) {
+			return;
+		}
+		while ( running ) {
+			long deadline = System.nanoTime() + interval * 1000000L;
+			for ( long remaining; running && ( remaining = deadline - System.nanoTime() ) > 0; ) {
+				LockSupport.parkNanos( remaining );
+			}
+			if ( running ) {
+				take();
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes a snapshot if anything has been journaled since the
+	 * last one.
+	 * 
+	 * Use:
+	 * 		take();
+	 * 
+	 ************************************************************* */
+	
+	private void take() {
+		if ( journal.getRecords() != taken ) {
+			try {
+				write();
+			} catch ( IOException e ) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stops taking snapshots in the background, waiting for one
+	 * in progress to finish, and takes a last one so the next
+	 * start has no journal to replay.
+	 * 
+	 * Use:
+	 * 		snapshots.shutdown();
+	 * 
+	 ************************************************************* */
+	
+	public void shutdown() {
+		running = false;
+		LockSupport.unpark( this );
+		try {
+			join();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+		if ( interval > 0 ) {
+			take();
+		}
+	}
+	
+}
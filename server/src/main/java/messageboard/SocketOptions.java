@@ -0,0 +1,86 @@
+/* *************************************************************
+ * 
+ * Class for the options applied to every client socket. Outboxes
+ * coalesce queued responses and broadcasts themselves, so by
+ * default Nagle's algorithm is turned off rather than left to
+ * hold back the last write of each batch. Buffer sizes of 0
+ * leave the operating system's defaults.
+ * 
+ * Title		SocketOptions.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.io.IOException;
+import java.net.Socket;
+
+class SocketOptions {
+	
+	private final boolean noDelay;
+	private final int sendBuffer;
+	private final int receiveBuffer;
+	private final int flushSize;
+	
+	/* *************************************************************
+	 * 
+	 * Constructor.
+	 * 
+	 * Parameters:
+	 * 		noDelay (boolean)
+	 * 			Whether to set TCP_NODELAY.
+	 * 		sendBuffer (int)
+	 * 			SO_SNDBUF in bytes, or 0 for the default.
+	 * 		receiveBuffer (int)
+	 * 			SO_RCVBUF in bytes, or 0 for the default.
+	 * 		flushSize (int)
+	 * 			The most bytes an outbox gathers before writing.
+	 * 
+	 * Use:
+	 * 		SocketOptions options = new SocketOptions( true, 0, 0, 8192 );
+	 * 
+	 ************************************************************* */
+	
+	public SocketOptions( boolean noDelay, int sendBuffer, int receiveBuffer, int flushSize ) {
+		this.noDelay = noDelay;
+		this.sendBuffer = sendBuffer;
+		this.receiveBuffer = receiveBuffer;
+		this.flushSize = Math.max( 1, flushSize );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Applies the options to an accepted socket, or to the socket
+	 * behind an accepted channel.
+	 * 
+	 * Use:
+	 * 		options.apply( socket );
+	 * 
+	 ************************************************************* */
+	
+	public void apply( Socket socket ) throws IOException {
+		socket.setTcpNoDelay( noDelay );
+		if ( sendBuffer > 0 ) {
+			socket.setSendBufferSize( sendBuffer );
+		}
+		if ( receiveBuffer > 0 ) {
+			socket.setReceiveBufferSize( receiveBuffer );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the most bytes an outbox gathers before writing.
+	 * 
+	 * Use:
+	 * 		int size = options.getFlushSize();
+	 * 
+	 ************************************************************* */
+	
+	public int getFlushSize() {
+		return flushSize;
+	}
+	
+}
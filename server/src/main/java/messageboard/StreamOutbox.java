@@ -0,0 +1,152 @@
+/* *************************************************************
+ * 
+ * Class for an outbox drained onto a blocking socket by its own
+ * writer thread. Queued bytes are copied into one buffer and
+ * written together once the queue runs dry or the buffer fills,
+ * so a burst of responses and broadcasts costs one write rather
+ * than one each.
+ * 
+ * Title		StreamOutbox.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static messageboard.MBServer.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+
+class StreamOutbox extends Outbox implements Runnable {
+	
+	private ConcurrentLinkedQueue<byte[]> pending;
+	private Socket socket;
+	private volatile boolean waiting;
+	private Thread writer;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs a stream outbox and starts its writer.
+	 * 
+	 * Parameters:
+	 * 		socket (Socket)
+	 * 			The client's socket.
+	 * 		factory (ThreadFactory)
+	 * 			The factory used to create the writer thread.
+	 * 
+	 * Use:
+	 * 		Outbox outbox = new StreamOutbox( socket, factory );
+	 * 
+	 ************************************************************* */
+	
+	public StreamOutbox( Socket socket, ThreadFactory factory ) {
+		this.pending = new ConcurrentLinkedQueue<byte[]>();
+		this.socket = socket;
+		this.waiting = false;
+		this.writer = factory.newThread( this );
+		this.writer.start();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Queues bytes and wakes the writer if it is parked.
+	 * 
+	 * Use:
+	 * 		enqueue( bytes );
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	protected void enqueue( byte[] bytes ) {
+		pending.add( bytes );
+		if ( waiting ) {
+			LockSupport.unpark( writer );
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stops the writer and closes the socket.
+	 * 
+	 * Use:
+	 * 		outbox.close();
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark( writer );
+		try {
+			socket.close();
+		} catch ( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Runs the writer, flushing whenever the queue runs dry or the
+	 * buffer is full. Bytes too large for the buffer are written
+	 * straight from their array.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void run() {
+		try {
+			OutputStream out = socket.getOutputStream();
+			byte[] buffer = new byte[SOCKETS.getFlushSize()];
+			int length = 0;
+			while ( !closed ) {
+				byte[] bytes = pending.poll();
+				if ( bytes != null ) {
+					if ( length + bytes.length > buffer.length && length > 0 ) {
+						flush( out, buffer, length );
+						length = 0;
+					}
+					if ( bytes.length >= buffer.length ) {
+						flush( out, bytes, bytes.length );
+					} else {
+						System.arraycopy( bytes, 0, buffer, length, bytes.length );
+						length += bytes.length;
+					}
+				} else {
+					if ( length > 0 ) {
+						flush( out, buffer, length );
+						length = 0;
+					}
+					waiting = true;
+					if ( pending.isEmpty() && !closed ) {
+						LockSupport.park( this );
+					}
+					waiting = false;
+				}
+			}
+		} catch ( IOException e ) {
+			close();
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Writes bytes to the socket in one call.
+	 * 
+	 * Use:
+	 * 		flush( out, buffer, length );
+	 * 
+	 ************************************************************* */
+	
+	private void flush( OutputStream out, byte[] bytes, int length ) throws IOException {
+		out.write( bytes, 0, length );
+		METRICS.written();
+		sent( length );
+	}
+	
+}
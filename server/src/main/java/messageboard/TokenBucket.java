@@ -0,0 +1,104 @@
+/* *************************************************************
+ * 
+ * Class for a token bucket that refills at a steady rate up to
+ * a burst size. It is kept as the single time at which the
+ * bucket would be full again (the generic cell rate algorithm),
+ * so taking a token is a little arithmetic on nanoTime and one
+ * compare-and-set, with nothing allocated.
+ * 
+ * Title		TokenBucket.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucket {
+	
+	private final AtomicLong full;
+	private final long interval;
+	private final long capacity;
+	
+	/* *************************************************************
+	 * 
+	 * Constructs and returns a full bucket.
+	 * 
+	 * Parameters:
+	 * 		rate (int)
+	 * 			The tokens added per second.
+	 * 		burst (int)
+	 * 			The most tokens the bucket holds.
+	 * 
+	 * Use:
+	 * 		TokenBucket bucket = new TokenBucket( rate, burst );
+	 * 
+	 ************************************************************* */
+	
+	public TokenBucket( int rate, int burst ) {
+		this.full = new AtomicLong( System.nanoTime() );
+		this.interval = 1000000000L / Math.max( 1, rate );
+		this.capacity = this.interval * Math.max( 1, burst );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Takes a token if one is available.
+	 * 
+	 * Parameters:
+	 * 		now (long)
+	 * 			The current System.nanoTime().
+	 * 
+	 * Returns:
+	 * 		True if a token was taken, false if the bucket is
+	 * 		empty.
+	 * 
+	 * Use:
+	 * 		boolean allowed = bucket.take( now );
+	 * 
+	 ************************************************************* */
+	
+	public boolean take( long now ) {
+		while ( true ) {
+			long current = full.get();
+			long next = (( current - now > 0 ) ? current : now ) + interval;
+			if ( next - now > capacity ) {
+				return false;
+			}
+			if ( full.compareAndSet( current, next )) {
+				return true;
+			}
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Gives back a token that take() returned, for a request that
+	 * another limit then turned away.
+	 * 
+	 * Use:
+	 * 		bucket.refund();
+	 * 
+	 ************************************************************* */
+	
+	public void refund() {
+		full.addAndGet( -interval );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns whether the bucket has refilled completely, in which
+	 * case it holds no state that a new bucket would not.
+	 * 
+	 * Use:
+	 * 		boolean idle = bucket.isFull( now );
+	 * 
+	 ************************************************************* */
+	
+	public boolean isFull( long now ) {
+		return full.get() - now <= 0;
+	}
+	
+}
@@ -0,0 +1,115 @@
+/* *************************************************************
+ * 
+ * Tests for channels: the limit on how many may exist, which
+ * names are valid, and keeping each channel's messages, clients
+ * and broadcasts apart.
+ * 
+ * Title		ChannelsTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class ChannelsTest {
+	
+	/* *************************************************************
+	 * 
+	 * Returns the texts of a board's messages, oldest first.
+	 * 
+	 ************************************************************* */
+	
+	private static String texts( Board board ) {
+		StringBuilder texts = new StringBuilder();
+		for ( Message msg : board.getMsgs( 0, MBServer.HISTORY_PAGE_MAX )) {
+			texts.append( msg.getText() ).append( ' ' );
+		}
+		return texts.toString().trim();
+	}
+	
+	@Test
+	public void limitsChannels() {
+		Channels channels = new Channels( 3 );
+		assertNotNull( channels.get( MBServer.CHANNEL_DEFAULT ));
+		Board red = channels.get( "red" );
+		assertNotNull( red );
+		assertNotNull( channels.get( "blue" ));
+		assertNull( channels.get( "green" ));
+		assertSame( red, channels.get( "red" ));
+		assertEquals( 3, channels.getBoards().size() );
+		RecordingOutbox outbox = new RecordingOutbox();
+		Session session = new Session( channels, 1, outbox );
+		session.service( MBServer.CMD_CONNECT + " alice green" );
+		assertEquals( Arrays.asList( MBServer.ERROR_CHANNEL_LIMIT ), outbox.lines() );
+		session.service( MBServer.CMD_CONNECT + " alice blue" );
+		assertEquals( Arrays.asList( "alice" ), outbox.lines() );
+	}
+	
+	@Test
+	public void validatesNames() {
+		char[] longest = new char[MBServer.CHANNEL_NAME_MAX];
+		Arrays.fill( longest, 'a' );
+		assertTrue( Channels.isValid( "red" ));
+		assertTrue( Channels.isValid( new String( longest )));
+		assertFalse( Channels.isValid( new String( longest ) + "a" ));
+		assertFalse( Channels.isValid( "" ));
+		assertFalse( Channels.isValid( "red blue" ));
+		RecordingOutbox outbox = new RecordingOutbox();
+		new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, outbox ).service( MBServer.CMD_CONNECT + " alice " + new String( longest ) + "a" );
+		assertEquals( Arrays.asList( MBServer.ERROR_MALFORMED_REQUEST ), outbox.lines() );
+	}
+	
+	@Test
+	public void keepsChannelsApart() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		RecordingOutbox first = new RecordingOutbox();
+		RecordingOutbox second = new RecordingOutbox();
+		RecordingOutbox third = new RecordingOutbox();
+		Session alice = new Session( channels, 1, first );
+		Session bob = new Session( channels, 2, second );
+		Session other = new Session( channels, 3, third );
+		alice.service( MBServer.CMD_CONNECT + " alice red" );
+		bob.service( MBServer.CMD_CONNECT + " bob blue" );
+		other.service( MBServer.CMD_CONNECT + " alice blue" );
+		alice.service( MBServer.CMD_SUBSCRIBE + " alice" );
+		bob.service( MBServer.CMD_SUBSCRIBE + " bob" );
+		assertEquals( Arrays.asList( "alice", String.valueOf( MBServer.CMD_SUBSCRIBE )), first.lines() );
+		assertEquals( Arrays.asList( "bob", String.valueOf( MBServer.CMD_SUBSCRIBE )), second.lines() );
+		assertEquals( Arrays.asList( "alice" ), third.lines() );
+		other.service( MBServer.CMD_POST + " alice hello blue" );
+		third.lines();
+		assertTrue( first.lines().isEmpty() );
+		List<String> pushed = second.lines();
+		assertEquals( 1, pushed.size() );
+		assertTrue( pushed.get( 0 ).endsWith( "alice hello blue" ));
+		assertEquals( "", texts( channels.get( "red" )));
+		assertEquals( "hello blue", texts( channels.get( "blue" )));
+		assertEquals( "", texts( channels.get( MBServer.CHANNEL_DEFAULT )));
+		bob.service( MBServer.CMD_UPDATE + " bob" );
+		assertEquals( Arrays.asList( "bob alice" ), second.lines() );
+		channels.get( "red" ).clear();
+		assertEquals( "hello blue", texts( channels.get( "blue" )));
+		alice.service( MBServer.CMD_CONNECT + " alice green" );
+		first.lines();
+		other.service( MBServer.CMD_CONNECT + " alice green" );
+		assertEquals( Arrays.asList( MBServer.ERROR_USERNAME_TAKEN ), third.lines() );
+		bob.service( MBServer.CMD_CONNECT + " bob green" );
+		second.lines();
+		bob.service( MBServer.CMD_POST + " bob hello green" );
+		second.lines();
+		assertTrue( first.lines().get( 0 ).endsWith( "bob hello green" ));
+	}
+	
+}
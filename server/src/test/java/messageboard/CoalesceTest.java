@@ -0,0 +1,179 @@
+/* *************************************************************
+ * 
+ * Tests for coalesced writes over real loopback sockets: a
+ * reactor connection's gathering writes and a stream outbox's
+ * buffered writes deliver every queued frame whole and in
+ * order, including when the socket only takes part of a write.
+ * 
+ * Title		CoalesceTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CoalesceTest {
+	
+	/* *************************************************************
+	 * 
+	 * Returns numbered frames of varying sizes, each filled with
+	 * its own number.
+	 * 
+	 ************************************************************* */
+	
+	private static List<byte[]> frames( int count, int size ) {
+		List<byte[]> frames = new ArrayList<byte[]>();
+		for ( int i = 0; i < count; i++ ) {
+			byte[] text = new byte[1 + ( i * 7919 ) % size];
+			Arrays.fill( text, (byte) i );
+			frames.add( new Frame( MBServer.FRAME_PUSH ).putVarint( i ).putBytes( text ).toBytes() );
+		}
+		return frames;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Checks that bytes split back into exactly the frames sent.
+	 * 
+	 ************************************************************* */
+	
+	private static void assertFrames( List<byte[]> frames, byte[] received ) {
+		ByteBuffer input = ByteBuffer.wrap( received );
+		for ( byte[] frame : frames ) {
+			int start = input.position();
+			int length = (int) Frame.getVarint( input );
+			input.position( input.position() + length );
+			assertArrayEquals( frame, Arrays.copyOfRange( received, start, input.position() ));
+		}
+		assertFalse( input.hasRemaining() );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the total size of some frames.
+	 * 
+	 ************************************************************* */
+	
+	private static int size( List<byte[]> frames ) {
+		int size = 0;
+		for ( byte[] frame : frames ) {
+			size += frame.length;
+		}
+		return size;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Reads whatever a non-blocking channel has waiting.
+	 * 
+	 ************************************************************* */
+	
+	private static void read( SocketChannel channel, ByteArrayOutputStream received ) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate( 65536 );
+		while ( channel.read( buffer ) > 0 ) {
+			received.write( buffer.array(), 0, buffer.position() );
+			buffer.clear();
+		}
+	}
+	
+	@Test
+	public void gathersFramesInOrder() throws IOException {
+		try ( ServerSocketChannel server = ServerSocketChannel.open() ) {
+			server.bind( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ));
+			try ( SocketChannel client = SocketChannel.open( server.getLocalAddress() );
+					SocketChannel accepted = server.accept() ) {
+				accepted.configureBlocking( false );
+				Connection connection = new Connection( new Channels( MBServer.CHANNEL_LIMIT ), 1, accepted, new MBReactor( new Channels( MBServer.CHANNEL_LIMIT )));
+				List<byte[]> frames = frames( MBServer.REACTOR_GATHER_MAX * 3 + 5, 200 );
+				for ( byte[] frame : frames ) {
+					assertTrue( connection.offer( frame ));
+				}
+				assertTrue( connection.drain() );
+				ByteArrayOutputStream received = new ByteArrayOutputStream();
+				client.configureBlocking( false );
+				long deadline = System.currentTimeMillis() + 5000;
+				while ( received.size() < size( frames ) && System.currentTimeMillis() < deadline ) {
+					read( client, received );
+				}
+				assertFrames( frames, received.toByteArray() );
+			}
+		}
+	}
+	
+	@Test
+	public void resumesPartialWrites() throws IOException {
+		try ( ServerSocketChannel server = ServerSocketChannel.open() ) {
+			server.bind( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ));
+			try ( SocketChannel client = SocketChannel.open( server.getLocalAddress() );
+					SocketChannel accepted = server.accept() ) {
+				accepted.configureBlocking( false );
+				accepted.socket().setSendBufferSize( 4096 );
+				client.configureBlocking( false );
+				Connection connection = new Connection( new Channels( MBServer.CHANNEL_LIMIT ), 1, accepted, new MBReactor( new Channels( MBServer.CHANNEL_LIMIT )));
+				List<byte[]> frames = frames( 1000, 1500 );
+				assertTrue( size( frames ) < MBServer.OUTBOX_LIMIT );
+				for ( byte[] frame : frames ) {
+					assertTrue( connection.offer( frame ));
+				}
+				ByteArrayOutputStream received = new ByteArrayOutputStream();
+				boolean partial = false;
+				long deadline = System.currentTimeMillis() + 5000;
+				while ( !connection.drain() && System.currentTimeMillis() < deadline ) {
+					partial = true;
+					read( client, received );
+				}
+				assertTrue( partial );
+				while ( received.size() < size( frames ) && System.currentTimeMillis() < deadline ) {
+					read( client, received );
+				}
+				assertFrames( frames, received.toByteArray() );
+			}
+		}
+	}
+	
+	@Test
+	public void buffersStreamWritesInOrder() throws IOException {
+		try ( ServerSocket server = new ServerSocket( 0, 1, InetAddress.getLoopbackAddress() );
+				Socket client = new Socket( server.getInetAddress(), server.getLocalPort() );
+				Socket accepted = server.accept() ) {
+			StreamOutbox outbox = new StreamOutbox( accepted, Thread::new );
+			List<byte[]> frames = frames( 150, 3 * MBServer.SOCKET_FLUSH_SIZE / 2 );
+			assertTrue( size( frames ) < MBServer.OUTBOX_LIMIT );
+			for ( byte[] frame : frames ) {
+				assertTrue( outbox.offer( frame ));
+			}
+			byte[] received = new byte[size( frames )];
+			client.setSoTimeout( 5000 );
+			InputStream in = client.getInputStream();
+			for ( int read = 0, count; read < received.length; read += count ) {
+				count = in.read( received, read, received.length - read );
+				assertTrue( count > 0 );
+			}
+			assertFrames( frames, received );
+			outbox.close();
+			assertEquals( -1, in.read() );
+		}
+	}
+	
+}
@@ -0,0 +1,201 @@
+/* *************************************************************
+ * 
+ * Tests for the binary codec and the framer: varints, strings
+ * and length prefixes, names sent inline once the name table is
+ * full, and requests split across reads in both protocols.
+ * 
+ * Title		FrameTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class FrameTest {
+	
+	/* *************************************************************
+	 * 
+	 * Returns a buffer holding a frame's command and fields, after
+	 * checking its length prefix.
+	 * 
+	 ************************************************************* */
+	
+	private static ByteBuffer payload( Frame frame ) {
+		ByteBuffer input = ByteBuffer.wrap( frame.toBytes() );
+		long length = Frame.getVarint( input );
+		assertEquals( input.remaining(), length );
+		return input;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the bytes of a string, as the text protocol sends it.
+	 * 
+	 ************************************************************* */
+	
+	private static byte[] ascii( String text ) {
+		return text.getBytes( StandardCharsets.US_ASCII );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Feeds bytes to a framer one at a time.
+	 * 
+	 ************************************************************* */
+	
+	private static void trickle( Framer framer, byte[] bytes ) {
+		for ( byte b : bytes ) {
+			assertTrue( framer.frame( ByteBuffer.wrap( new byte[] { b })));
+		}
+	}
+	
+	@Test
+	public void roundTripsVarints() {
+		long[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1 };
+		Frame frame = new Frame( MBServer.CMD_NULL );
+		for ( long value : values ) {
+			frame.putVarint( value );
+		}
+		ByteBuffer fields = payload( frame );
+		assertEquals( MBServer.CMD_NULL, Frame.getVarint( fields ));
+		for ( long value : values ) {
+			assertEquals( value, Frame.getVarint( fields ));
+		}
+		assertFalse( fields.hasRemaining() );
+		assertArrayEquals( new byte[] { 3, 0, (byte) 0x80, 0x01 }, new Frame( MBServer.CMD_NULL ).putVarint( 128 ).toBytes() );
+	}
+	
+	@Test
+	public void roundTripsStrings() {
+		ByteBuffer fields = payload( new Frame( MBServer.CMD_POST ).putString( "héllo ✓" ).putString( "" ));
+		assertEquals( MBServer.CMD_POST, Frame.getVarint( fields ));
+		assertEquals( "héllo ✓", Frame.getString( fields ));
+		assertEquals( "", Frame.getString( fields ));
+		assertFalse( fields.hasRemaining() );
+	}
+	
+	@Test
+	public void prefixesLength() {
+		char[] text = new char[200];
+		Arrays.fill( text, 'x' );
+		Frame frame = new Frame( MBServer.CMD_POST ).putString( new String( text ));
+		ByteBuffer input = ByteBuffer.wrap( frame.toBytes() );
+		assertEquals( 1 + 2 + 200, Frame.getVarint( input ));
+		assertEquals( 2, input.position() );
+		assertEquals( MBServer.CMD_POST, Frame.getVarint( input ));
+		assertEquals( new String( text ), Frame.getString( input ));
+	}
+	
+	@Test( expected = IllegalArgumentException.class )
+	public void rejectsOverlongVarint() {
+		byte[] bytes = new byte[11];
+		Arrays.fill( bytes, (byte) 0xFF );
+		Frame.getVarint( ByteBuffer.wrap( bytes ));
+	}
+	
+	@Test( expected = IllegalArgumentException.class )
+	public void rejectsTruncatedString() {
+		Frame.getString( ByteBuffer.wrap( new byte[] { 10, 'a', 'b', 'c' }));
+	}
+	
+	@Test
+	public void framesSplitTextLines() {
+		RecordingOutbox outbox = new RecordingOutbox();
+		Framer framer = new Framer( new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, outbox ));
+		assertTrue( framer.frame( ByteBuffer.wrap( ascii( "0 al" ))));
+		assertTrue( outbox.lines().isEmpty() );
+		assertTrue( framer.frame( ByteBuffer.wrap( ascii( "ice\r\n1 alice\n4 alice h" ))));
+		assertEquals( Arrays.asList( "0", "alice" ), outbox.lines() );
+		trickle( framer, ascii( "ello\n" ));
+		List<String> lines = outbox.lines();
+		assertEquals( 1, lines.size() );
+		assertTrue( lines.get( 0 ), lines.get( 0 ).endsWith( " alice hello" ));
+	}
+	
+	@Test
+	public void framesSplitBinaryRequests() {
+		RecordingOutbox outbox = new RecordingOutbox();
+		Framer framer = new Framer( new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, outbox ));
+		assertTrue( framer.frame( ByteBuffer.wrap( ascii( MBServer.CMD_BINARY + " alice\n" ))));
+		assertEquals( Arrays.asList( String.valueOf( MBServer.CMD_BINARY )), outbox.lines() );
+		trickle( framer, new Frame( MBServer.CMD_CONNECT ).putString( "alicé" ).toBytes() );
+		byte[] ping = new Frame( MBServer.FRAME_TAG ).putVarint( 9 ).putVarint( MBServer.CMD_NULL ).toBytes();
+		byte[] twice = Arrays.copyOf( ping, ping.length * 2 );
+		System.arraycopy( ping, 0, twice, ping.length, ping.length );
+		assertTrue( framer.frame( ByteBuffer.wrap( twice )));
+		List<ByteBuffer> frames = outbox.frames();
+		assertEquals( 4, frames.size() );
+		ByteBuffer name = frames.get( 0 );
+		assertEquals( MBServer.FRAME_NAME, Frame.getVarint( name ));
+		long user = Frame.getVarint( name );
+		assertEquals( "alicé", Frame.getString( name ));
+		ByteBuffer connected = frames.get( 1 );
+		assertEquals( MBServer.CMD_CONNECT, Frame.getVarint( connected ));
+		assertEquals( user, Frame.getVarint( connected ));
+		for ( ByteBuffer pong : frames.subList( 2, 4 )) {
+			assertEquals( MBServer.FRAME_TAG, Frame.getVarint( pong ));
+			assertEquals( 9, Frame.getVarint( pong ));
+			assertEquals( MBServer.CMD_NULL, Frame.getVarint( pong ));
+			assertFalse( pong.hasRemaining() );
+		}
+	}
+	
+	@Test
+	public void inlinesNamesOnceTableIsFull() {
+		Names names = new Names( 2 );
+		assertEquals( 1, names.intern( "alice" ));
+		assertEquals( 2, names.intern( "bob" ));
+		assertEquals( MBServer.NAME_INLINE, names.intern( "carol" ));
+		assertEquals( 1, names.intern( "alice" ));
+		assertEquals( "bob", names.get( 2 ));
+		ByteBuffer inline = payload( new Frame( MBServer.FRAME_PUSH ).putMessage( new Message( 5, 60000, "carol", "hi" ), names.intern( "carol" )));
+		assertEquals( MBServer.FRAME_PUSH, Frame.getVarint( inline ));
+		assertEquals( 5, Frame.getVarint( inline ));
+		assertEquals( MBServer.NAME_INLINE, Frame.getVarint( inline ));
+		assertEquals( "carol", Frame.getString( inline ));
+		assertEquals( 60000, Frame.getVarint( inline ));
+		assertEquals( "hi", Frame.getString( inline ));
+		ByteBuffer interned = payload( new Frame( MBServer.FRAME_PUSH ).putMessage( new Message( 6, 60000, "bob", "hi" ), names.intern( "bob" )));
+		assertEquals( MBServer.FRAME_PUSH, Frame.getVarint( interned ));
+		assertEquals( 6, Frame.getVarint( interned ));
+		assertEquals( 2, Frame.getVarint( interned ));
+		assertEquals( 60000, Frame.getVarint( interned ));
+		assertEquals( "hi", Frame.getString( interned ));
+		assertFalse( interned.hasRemaining() );
+	}
+	
+	@Test
+	public void rejectsOversizedRequests() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		Framer text = new Framer( new Session( channels, 1, new RecordingOutbox() ));
+		assertFalse( text.frame( ByteBuffer.wrap( new byte[MBServer.LINE_MAX + 1] )));
+		RecordingOutbox outbox = new RecordingOutbox();
+		Framer binary = new Framer( new Session( channels, 2, outbox ));
+		assertTrue( binary.frame( ByteBuffer.wrap( ascii( MBServer.CMD_BINARY + " bob\n" ))));
+		assertFalse( binary.frame( ByteBuffer.wrap( new byte[] { (byte) 0x81, (byte) 0x80, 0x01 })));
+	}
+	
+	@Test
+	public void stopsOnceSessionCloses() {
+		RecordingOutbox outbox = new RecordingOutbox();
+		Session session = new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, outbox );
+		Framer framer = new Framer( session );
+		session.close();
+		assertTrue( outbox.isClosed() );
+		assertFalse( framer.frame( ByteBuffer.wrap( ascii( "0 alice\n" ))));
+		assertTrue( outbox.lines().isEmpty() );
+	}
+	
+}
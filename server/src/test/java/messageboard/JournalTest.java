@@ -0,0 +1,154 @@
+/* *************************************************************
+ * 
+ * Tests for rebuilding boards from the journal: a torn record at
+ * the end of a segment, appends after recovering from it,
+ * records spread over several segments, and records dropped
+ * for channels past the channel limit.
+ * 
+ * Title		JournalTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JournalTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/* *************************************************************
+	 * 
+	 * Opens the journal in the test's directory.
+	 * 
+	 ************************************************************* */
+	
+	private Journal open() throws IOException {
+		return new Journal( folder.getRoot(), MBServer.JOURNAL_SEGMENT_MIN, 0, MBServer.JOURNAL_POLICY_NONE, MBServer.JOURNAL_SYNC_INTERVAL );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the segment files in the test's directory, oldest
+	 * first.
+	 * 
+	 ************************************************************* */
+	
+	private File[] segments() {
+		File[] files = folder.getRoot().listFiles(( directory, name ) -> name.endsWith( MBServer.JOURNAL_SEGMENT_SUFFIX ));
+		assertNotNull( files );
+		Arrays.sort( files );
+		return files;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the texts of a board's messages, oldest first.
+	 * 
+	 ************************************************************* */
+	
+	private static String texts( Board board ) {
+		StringBuilder texts = new StringBuilder();
+		for ( Message msg : board.getMsgs( 0, MBServer.HISTORY_PAGE_MAX )) {
+			texts.append( msg.getSequence() ).append( '=' ).append( msg.getText() ).append( ' ' );
+		}
+		return texts.toString().trim();
+	}
+	
+	@Test
+	public void recoversAfterTornRecord() throws IOException {
+		Journal journal = open();
+		Board board = new Channels( MBServer.CHANNEL_LIMIT, journal ).get( MBServer.CHANNEL_DEFAULT );
+		for ( int i = 1; i <= 10; i++ ) {
+			board.addMsg( new Message( "alice", "m" + i ));
+		}
+		journal.shutdown();
+		File[] files = segments();
+		assertEquals( 1, files.length );
+		try ( RandomAccessFile segment = new RandomAccessFile( files[0], "rw" ) ) {
+			long offset = 0;
+			long last = 0;
+			for ( int length; ( length = segment.readInt() ) > 0; offset += 8 + length ) {
+				last = offset;
+				segment.seek( offset + 8 + length );
+			}
+			segment.seek( last );
+			int length = segment.readInt();
+			segment.seek( last + 8 + length - 4 );
+			segment.writeInt( 0 );
+		}
+		journal = open();
+		assertEquals( 9, journal.getRecords() );
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		assertEquals( 9, journal.replay( 0, channels ));
+		board = channels.get( MBServer.CHANNEL_DEFAULT );
+		assertEquals( "1=m1 2=m2 3=m3 4=m4 5=m5 6=m6 7=m7 8=m8 9=m9", texts( board ));
+		board.addMsg( new Message( "bob", "again" ));
+		journal.shutdown();
+		journal = open();
+		assertEquals( 10, journal.getRecords() );
+		channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		assertEquals( 10, journal.replay( 0, channels ));
+		assertEquals( "1=m1 2=m2 3=m3 4=m4 5=m5 6=m6 7=m7 8=m8 9=m9 10=again", texts( channels.get( MBServer.CHANNEL_DEFAULT )));
+		journal.shutdown();
+	}
+	
+	@Test
+	public void replaysAcrossSegments() throws IOException {
+		Journal journal = open();
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		char[] text = new char[(int) MBServer.JOURNAL_SEGMENT_MIN / 8];
+		for ( int i = 1; i <= 20; i++ ) {
+			Arrays.fill( text, (char) ( 'a' + i ));
+			channels.get(( i % 2 == 0 ) ? "even" : "odd" ).addMsg( new Message( "alice", new String( text )));
+		}
+		channels.get( "odd" ).clear();
+		journal.shutdown();
+		assertTrue( segments().length > 2 );
+		journal = open();
+		assertEquals( 21, journal.getRecords() );
+		channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		assertEquals( 21, journal.replay( 0, channels ));
+		assertTrue( channels.get( "odd" ).getMsgs( 0, MBServer.HISTORY_PAGE_MAX ).isEmpty() );
+		List<Message> even = channels.get( "even" ).getMsgs( 0, MBServer.HISTORY_PAGE_MAX );
+		assertEquals( 10, even.size() );
+		for ( Message msg : even ) {
+			Arrays.fill( text, (char) ( 'a' + msg.getSequence() * 2 ));
+			assertEquals( new String( text ), msg.getText() );
+		}
+		journal.shutdown();
+	}
+	
+	@Test
+	public void dropsRecordsPastChannelLimit() throws IOException {
+		Journal journal = open();
+		Channels channels = new Channels( 3, journal );
+		channels.get( "red" ).addMsg( new Message( "alice", "one" ));
+		channels.get( "blue" ).addMsg( new Message( "alice", "two" ));
+		channels.get( "red" ).addMsg( new Message( "alice", "three" ));
+		journal.shutdown();
+		journal = open();
+		assertEquals( 3, journal.getRecords() );
+		channels = new Channels( 2, journal );
+		assertEquals( 2, journal.replay( 0, channels ));
+		assertEquals( "1=one 2=three", texts( channels.get( "red" )));
+		assertNull( channels.get( "blue" ));
+		journal.shutdown();
+	}
+	
+}
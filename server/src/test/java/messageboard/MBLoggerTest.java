@@ -0,0 +1,153 @@
+/* *************************************************************
+ * 
+ * Tests for the background logger: blocking and dropping when
+ * its ring is full, flushing in batches or after an interval,
+ * and rotating the file at a size counted in encoded bytes.
+ * 
+ * Title		MBLoggerTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MBLoggerTest {
+	
+	public static final long WAIT = 5000L;
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/* *************************************************************
+	 * 
+	 * Returns the messages in a log file, without their
+	 * timestamps.
+	 * 
+	 ************************************************************* */
+	
+	private static List<String> messages( File file ) throws IOException {
+		List<String> messages = new ArrayList<String>();
+		if ( file.exists() ) {
+			int stamp = MBServer.LOG_TIME_FORMAT.length() + 1;
+			for ( String line : Files.readAllLines( file.toPath(), MBServer.CHARSET )) {
+				messages.add( line.substring( stamp ));
+			}
+		}
+		return messages;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Waits for a log file to hold a number of lines, returning
+	 * its messages.
+	 * 
+	 ************************************************************* */
+	
+	private static List<String> await( File file, int count ) throws IOException, InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT;
+		List<String> messages = messages( file );
+		while ( messages.size() < count && System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 10 );
+			messages = messages( file );
+		}
+		return messages;
+	}
+	
+	@Test
+	public void dropsWhenFull() throws IOException {
+		File file = new File( folder.getRoot(), "drop.log" );
+		MBLogger logger = new MBLogger( file.getPath(), 2, 1, 60000, 0, 0, false );
+		logger.log( "one" );
+		logger.log( "two" );
+		logger.log( "three" );
+		assertEquals( 1, logger.getDropped() );
+		assertEquals( 2, logger.getDepth() );
+		logger.start();
+		logger.shutdown();
+		assertEquals( Arrays.asList( "one", MBServer.LOG_DROPPED + " 1", "two" ), messages( file ));
+	}
+	
+	@Test
+	public void blocksWhenFull() throws IOException, InterruptedException {
+		File file = new File( folder.getRoot(), "block.log" );
+		MBLogger logger = new MBLogger( file.getPath(), 2, 1, 60000, 0, 0, true );
+		logger.log( "one" );
+		logger.log( "two" );
+		Thread caller = new Thread(() -> logger.log( "three" ));
+		caller.start();
+		caller.join( 200 );
+		assertTrue( caller.isAlive() );
+		assertEquals( 2, logger.getDepth() );
+		logger.start();
+		caller.join( WAIT );
+		assertFalse( caller.isAlive() );
+		logger.shutdown();
+		assertEquals( 0, logger.getDropped() );
+		assertEquals( Arrays.asList( "one", "two", "three" ), messages( file ));
+	}
+	
+	@Test
+	public void flushesFullBatches() throws IOException, InterruptedException {
+		File file = new File( folder.getRoot(), "batch.log" );
+		MBLogger logger = new MBLogger( file.getPath(), 16, 2, 60000, 0, 0, true );
+		logger.log( "one" );
+		logger.log( "two" );
+		logger.start();
+		assertEquals( Arrays.asList( "one", "two" ), await( file, 2 ));
+		logger.log( "three" );
+		Thread.sleep( 200 );
+		assertEquals( 2, messages( file ).size() );
+		logger.shutdown();
+		assertEquals( Arrays.asList( "one", "two", "three" ), messages( file ));
+	}
+	
+	@Test
+	public void flushesAfterInterval() throws IOException, InterruptedException {
+		File file = new File( folder.getRoot(), "interval.log" );
+		MBLogger logger = new MBLogger( file.getPath(), 16, 100, 50, 0, 0, true );
+		logger.log( "one" );
+		logger.start();
+		assertEquals( Arrays.asList( "one" ), await( file, 1 ));
+		logger.shutdown();
+	}
+	
+	@Test
+	public void rotatesAtEncodedSize() throws IOException {
+		File file = new File( folder.getRoot(), "rotate.log" );
+		String message = "\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9";
+		assumeTrue( MBServer.CHARSET.newEncoder().canEncode( message ));
+		String line = new SimpleDateFormat( MBServer.LOG_TIME_FORMAT ).format( new Date() ) + " " + message + System.lineSeparator();
+		MBLogger logger = new MBLogger( file.getPath(), 16, 1, 60000, 2 * line.getBytes( MBServer.CHARSET ).length, 0, true );
+		for ( int i = 0; i < 5; i++ ) {
+			logger.log( message );
+		}
+		logger.start();
+		logger.shutdown();
+		File[] files = folder.getRoot().listFiles();
+		Arrays.sort( files );
+		assertEquals( 3, files.length );
+		assertEquals( file, files[0] );
+		assertEquals( 1, messages( files[0] ).size() );
+		assertEquals( 2, messages( files[1] ).size() );
+		assertEquals( 2, messages( files[2] ).size() );
+	}
+	
+}
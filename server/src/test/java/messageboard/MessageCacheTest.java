@@ -0,0 +1,130 @@
+/* *************************************************************
+ * 
+ * Tests for messages' cached encodings: the bytes kept by every
+ * message stay within mbserver.history.cacheBytes, which the
+ * build sets to 1 MiB, and messages give their bytes back when
+ * they are evicted, removed or cleared.
+ * 
+ * Title		MessageCacheTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class MessageCacheTest {
+	
+	public static final int TEXT_SIZE = 1000;
+	
+	/* *************************************************************
+	 * 
+	 * Returns a numbered message with a long text.
+	 * 
+	 ************************************************************* */
+	
+	private static Message message( long sequence ) {
+		char[] text = new char[TEXT_SIZE];
+		Arrays.fill( text, 'x' );
+		return new Message( sequence, System.currentTimeMillis(), "alice", new String( text ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Stores messages and has each keep its text line, returning
+	 * the bytes they kept.
+	 * 
+	 ************************************************************* */
+	
+	private static long fill( MessageStore store, int count ) {
+		long before = Message.getCached();
+		for ( int i = 0; i < count; i++ ) {
+			Message msg = new Message( "alice", "hello " + i );
+			store.add( msg );
+			msg.getLine();
+		}
+		return Message.getCached() - before;
+	}
+	
+	@Test
+	public void staysWithinLimit() {
+		long limit = Long.getLong( MBServer.PROP_HISTORY_CACHE_BYTES, MBServer.HISTORY_CACHE_BYTES );
+		assertTrue( limit <= 16 * 1024 * 1024 );
+		List<Message> kept = new ArrayList<Message>();
+		try {
+			while ( Message.getCached() + 4 * TEXT_SIZE < limit ) {
+				Message msg = message( kept.size() + 1 );
+				kept.add( msg );
+				assertSame( msg.getLine(), msg.getLine() );
+			}
+			for ( int i = 0; i < 100; i++ ) {
+				Message msg = message( kept.size() + 1 );
+				kept.add( msg );
+				msg.getLine();
+				msg.getEntry();
+				assertTrue( Message.getCached() <= limit );
+			}
+			Message full = message( kept.size() + 1 );
+			kept.add( full );
+			assertNotSame( full.getLine(), full.getLine() );
+			assertArrayEquals( full.getLine(), full.getLine() );
+		} finally {
+			for ( Message msg : kept ) {
+				msg.release();
+			}
+		}
+	}
+	
+	@Test
+	public void releasesEvictedMessages() {
+		MessageStore store = new RingStore( 4, 0 );
+		long before = Message.getCached();
+		assertTrue( fill( store, 4 ) > 0 );
+		store.add( new Message( "bob", "one" ));
+		store.add( new Message( "bob", "two" ));
+		store.add( new Message( "bob", "three" ));
+		store.add( new Message( "bob", "four" ));
+		assertEquals( before, Message.getCached() );
+	}
+	
+	@Test
+	public void releasesRemovedMessages() {
+		MessageStore store = new RingStore( 4, 0 );
+		long before = Message.getCached();
+		Message msg = new Message( "alice", "hello" );
+		store.add( msg );
+		long kept = msg.getLine().length + msg.getEntry().length;
+		assertEquals( before + kept, Message.getCached() );
+		store.remove( msg );
+		assertEquals( before, Message.getCached() );
+		msg.getLine();
+		assertEquals( before, Message.getCached() );
+	}
+	
+	@Test
+	public void releasesClearedMessages() {
+		Board board = new Board();
+		long before = Message.getCached();
+		for ( int i = 0; i < 4; i++ ) {
+			Message msg = new Message( "alice", "hello " + i );
+			board.addMsg( msg );
+			msg.getLine();
+			msg.getEntry();
+		}
+		assertTrue( Message.getCached() > before );
+		board.clear();
+		assertEquals( before, Message.getCached() );
+	}
+	
+}
@@ -0,0 +1,181 @@
+/* *************************************************************
+ * 
+ * Tests run against both message stores: wrapping around a full
+ * ring, reading after a sequence number, clearing, removing and
+ * restoring. The off-heap store is also tested for evicting
+ * messages whose text its arena has overwritten.
+ * 
+ * Title		MessageStoreTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith( Parameterized.class )
+public class MessageStoreTest {
+	
+	public static final int CAPACITY = 8;
+	
+	private final String store;
+	
+	public MessageStoreTest( String store ) {
+		this.store = store;
+	}
+	
+	@Parameters( name = "{0}" )
+	public static Collection<Object[]> stores() {
+		return Arrays.asList( new Object[][] {{ MBServer.HISTORY_STORE_HEAP }, { MBServer.HISTORY_STORE_OFFHEAP }});
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns an empty store of the kind under test.
+	 * 
+	 ************************************************************* */
+	
+	private MessageStore create( int capacity ) {
+		if ( MBServer.HISTORY_STORE_OFFHEAP.equals( store )) {
+			return new ArenaStore( capacity, 0, MBServer.HISTORY_ARENA_MIN );
+		}
+		return new RingStore( capacity, 0 );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Adds messages numbered from 1, each with its number as text.
+	 * 
+	 ************************************************************* */
+	
+	private static void fill( MessageStore messages, int count ) {
+		for ( int i = 1; i <= count; i++ ) {
+			assertEquals( i, messages.add( new Message( "user" + i, "m" + i )));
+		}
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the sequence numbers of a list of messages.
+	 * 
+	 ************************************************************* */
+	
+	private static List<Long> sequences( List<Message> messages ) {
+		List<Long> sequences = new ArrayList<Long>();
+		for ( Message msg : messages ) {
+			sequences.add( msg.getSequence() );
+		}
+		return sequences;
+	}
+	
+	@Test
+	public void wrapsAround() {
+		MessageStore messages = create( CAPACITY );
+		fill( messages, 20 );
+		assertEquals( 20, messages.last() );
+		assertEquals( 13, messages.oldest() );
+		assertEquals( Arrays.asList( 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L ), sequences( messages.since( 0, 100 )));
+		assertEquals( 8, messages.retained().size() );
+		Message last = messages.since( 19, 1 ).get( 0 );
+		assertEquals( "user20", last.getName() );
+		assertEquals( "m20", last.getText() );
+	}
+	
+	@Test
+	public void readsSinceSequence() {
+		MessageStore messages = create( CAPACITY );
+		assertTrue( messages.since( 0, 10 ).isEmpty() );
+		fill( messages, 20 );
+		assertEquals( Arrays.asList( 16L, 17L ), sequences( messages.since( 15, 2 )));
+		assertEquals( Arrays.asList( 13L ), sequences( messages.since( 3, 1 )));
+		assertEquals( Arrays.asList( 20L ), sequences( messages.since( 19, 10 )));
+		assertTrue( messages.since( 20, 10 ).isEmpty() );
+		assertTrue( messages.since( 25, 10 ).isEmpty() );
+	}
+	
+	@Test
+	public void clearsBeforeSequence() {
+		MessageStore messages = create( CAPACITY );
+		fill( messages, 10 );
+		messages.clear( 8 );
+		assertEquals( Arrays.asList( 8L, 9L, 10L ), sequences( messages.since( 0, 100 )));
+		messages.clear( 8 );
+		assertEquals( 3, messages.since( 0, 100 ).size() );
+		assertEquals( 11, messages.clear() );
+		assertTrue( messages.since( 0, 100 ).isEmpty() );
+		assertEquals( 11, messages.add( new Message( "user", "after" )));
+		assertEquals( Arrays.asList( 11L ), sequences( messages.since( 0, 100 )));
+	}
+	
+	@Test
+	public void removesOneMessage() {
+		MessageStore messages = create( CAPACITY );
+		fill( messages, 5 );
+		Message msg = messages.since( 2, 1 ).get( 0 );
+		assertEquals( 3, msg.getSequence() );
+		assertTrue( messages.remove( msg ));
+		assertFalse( messages.remove( msg ));
+		assertEquals( Arrays.asList( 1L, 2L, 4L, 5L ), sequences( messages.since( 0, 100 )));
+	}
+	
+	@Test
+	public void restoresAndResumes() {
+		MessageStore messages = create( CAPACITY );
+		long time = System.currentTimeMillis();
+		messages.restore( new Message( 5, time, "alice", "five" ));
+		messages.restore( new Message( 6, time, "bob", "six" ));
+		messages.restore( new Message( 8, time, "alice", "eight" ));
+		messages.restore( new Message( 6, time, "bob", "again" ));
+		messages.resume( 5, 9 );
+		assertEquals( 9, messages.last() );
+		assertEquals( 5, messages.oldest() );
+		assertEquals( Arrays.asList( 5L, 6L, 8L ), sequences( messages.since( 0, 100 )));
+		assertEquals( "six", messages.since( 5, 1 ).get( 0 ).getText() );
+		assertEquals( 10, messages.add( new Message( "carol", "ten" )));
+		assertEquals( Arrays.asList( 8L, 10L ), sequences( messages.since( 6, 100 )));
+	}
+	
+	@Test
+	public void evictsOverwrittenText() {
+		assumeTrue( MBServer.HISTORY_STORE_OFFHEAP.equals( store ));
+		MessageStore messages = create( 64 );
+		char[] text = new char[(int) MBServer.HISTORY_ARENA_MIN / 4];
+		for ( int i = 1; i <= 10; i++ ) {
+			Arrays.fill( text, (char) ( 'a' + i ));
+			messages.add( new Message( "user", new String( text )));
+		}
+		List<Message> retained = messages.since( 0, 100 );
+		assertEquals( Arrays.asList( 7L, 8L, 9L, 10L ), sequences( retained ));
+		for ( Message msg : retained ) {
+			Arrays.fill( text, (char) ( 'a' + msg.getSequence() ));
+			assertEquals( new String( text ), msg.getText() );
+		}
+	}
+	
+	@Test
+	public void keepsNamesOfEvictedSlotsApart() {
+		MessageStore messages = create( 4 );
+		for ( int i = 1; i <= 100; i++ ) {
+			messages.add( new Message( "user" + ( i % 7 ), "m" + i ));
+		}
+		for ( Message msg : messages.since( 0, 100 )) {
+			assertEquals( "user" + ( msg.getSequence() % 7 ), msg.getName() );
+			assertEquals( "m" + msg.getSequence(), msg.getText() );
+		}
+	}
+	
+}
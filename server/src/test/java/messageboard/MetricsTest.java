@@ -0,0 +1,134 @@
+/* *************************************************************
+ * 
+ * Tests for the metrics' Prometheus text exposition: HELP and
+ * TYPE lines before each metric's samples, counters named with
+ * _total, requests labelled by command, and histograms whose
+ * cumulative buckets end in +Inf and agree with their count.
+ * 
+ * Title		MetricsTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+public class MetricsTest {
+	
+	private static final Pattern SAMPLE = Pattern.compile( "([a-z_]+)(\\{[a-z]+=\"[^\"]*\"\\})? (\\S+)" );
+	
+	/* *************************************************************
+	 * 
+	 * Returns a scrape of a set of metrics, with an idle logger.
+	 * 
+	 ************************************************************* */
+	
+	private static String scrape( Metrics metrics ) {
+		return metrics.scrape( new MBLogger( "unused.log", 16, 1, 1000, 0, 0, false ));
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns every sample in a scrape by its name and labels,
+	 * checking that each follows the HELP and TYPE lines of its
+	 * metric.
+	 * 
+	 ************************************************************* */
+	
+	private static Map<String, Double> samples( String text ) {
+		Map<String, Double> samples = new HashMap<String, Double>();
+		String help = null;
+		String type = null;
+		String kind = null;
+		for ( String line : text.split( "\n" )) {
+			if ( line.startsWith( "# HELP " )) {
+				help = line.split( " " )[2];
+			} else if ( line.startsWith( "# TYPE " )) {
+				String[] fields = line.split( " " );
+				assertEquals( help, fields[2] );
+				type = fields[2];
+				kind = fields[3];
+				if ( kind.equals( "counter" )) {
+					assertTrue( type, type.endsWith( "_total" ));
+				}
+			} else {
+				Matcher sample = SAMPLE.matcher( line );
+				assertTrue( line, sample.matches() );
+				String name = sample.group( 1 );
+				if ( kind.equals( "histogram" )) {
+					assertTrue( line, name.equals( type + "_bucket" ) || name.equals( type + "_sum" ) || name.equals( type + "_count" ));
+				} else {
+					assertEquals( type, name );
+				}
+				String key = name + (( sample.group( 2 ) != null ) ? sample.group( 2 ) : "" );
+				assertTrue( key, samples.put( key, Double.parseDouble( sample.group( 3 ))) == null );
+			}
+		}
+		return samples;
+	}
+	
+	@Test
+	public void exposesCounters() {
+		Metrics metrics = new Metrics();
+		metrics.opened();
+		metrics.opened();
+		metrics.opened();
+		metrics.closed();
+		metrics.serviced( MBServer.CMD_POST, 1000 );
+		metrics.serviced( -1, 1000 );
+		metrics.serviced( 99, 1000 );
+		metrics.sent( 42 );
+		Map<String, Double> samples = samples( scrape( metrics ));
+		assertEquals( 3.0, samples.get( "mbserver_connections_accepted_total" ), 0 );
+		assertEquals( 1.0, samples.get( "mbserver_connections_closed_total" ), 0 );
+		assertEquals( 2.0, samples.get( "mbserver_connections_open" ), 0 );
+		assertEquals( 1.0, samples.get( "mbserver_requests_total{command=\"post\"}" ), 0 );
+		assertEquals( 0.0, samples.get( "mbserver_requests_total{command=\"connect\"}" ), 0 );
+		assertEquals( 2.0, samples.get( "mbserver_requests_total{command=\"malformed\"}" ), 0 );
+		assertEquals( 42.0, samples.get( "mbserver_sent_bytes_total" ), 0 );
+		assertNotNull( samples.get( "mbserver_log_dropped_total" ));
+	}
+	
+	@Test
+	public void exposesHistograms() {
+		Metrics metrics = new Metrics();
+		metrics.broadcast( 500 );
+		metrics.broadcast( 1000 );
+		metrics.broadcast( 1000000000000L );
+		Map<String, Double> samples = samples( scrape( metrics ));
+		List<Double> bounds = new ArrayList<Double>();
+		for ( String key : samples.keySet() ) {
+			if ( key.startsWith( "mbserver_broadcast_seconds_bucket{le=\"" ) && !key.contains( "+Inf" )) {
+				bounds.add( Double.parseDouble( key.substring( key.indexOf( '"' ) + 1, key.lastIndexOf( '"' ))));
+			}
+		}
+		assertEquals( MBServer.METRICS_BUCKETS, bounds.size() );
+		bounds.sort( null );
+		double previous = 0;
+		for ( double bound : bounds ) {
+			double count = samples.get( "mbserver_broadcast_seconds_bucket{le=\"" + bound + "\"}" );
+			assertTrue( count >= previous );
+			previous = count;
+		}
+		assertEquals( 1.0, samples.get( "mbserver_broadcast_seconds_bucket{le=\"" + bounds.get( 0 ) + "\"}" ), 0 );
+		assertEquals( 2.0, previous, 0 );
+		assertEquals( 3.0, samples.get( "mbserver_broadcast_seconds_bucket{le=\"+Inf\"}" ), 0 );
+		assertEquals( 3.0, samples.get( "mbserver_broadcast_seconds_count" ), 0 );
+		assertEquals( 1000.0000015, samples.get( "mbserver_broadcast_seconds_sum" ), 1e-9 );
+		assertEquals( 0.0, samples.get( "mbserver_service_seconds_count" ), 0 );
+		assertEquals( 0.0, samples.get( "mbserver_service_seconds_bucket{le=\"+Inf\"}" ), 0 );
+	}
+	
+}
@@ -0,0 +1,101 @@
+/* *************************************************************
+ * 
+ * Tests for dropping slow consumers: an outbox is closed once
+ * more than OUTBOX_LIMIT bytes are waiting, or once its client
+ * has accepted nothing for BROADCAST_INTERVAL, while a client
+ * that keeps up is never dropped.
+ * 
+ * Title		OutboxTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class OutboxTest {
+	
+	/* *************************************************************
+	 * 
+	 * Class for an outbox whose client never reads, so queued
+	 * bytes are never sent.
+	 * 
+	 ************************************************************* */
+	
+	private static class StalledOutbox extends Outbox {
+		
+		@Override
+		protected void enqueue( byte[] bytes ) {
+		}
+		
+		@Override
+		public void close() {
+			closed = true;
+		}
+		
+	}
+	
+	@Test
+	public void dropsOverLimit() {
+		StalledOutbox outbox = new StalledOutbox();
+		assertTrue( outbox.offer( new byte[MBServer.OUTBOX_LIMIT] ));
+		assertFalse( outbox.closed );
+		assertFalse( outbox.offer( new byte[1] ));
+		assertTrue( outbox.closed );
+		assertFalse( outbox.offer( new byte[1] ));
+	}
+	
+	@Test
+	public void dropsWithoutProgress() {
+		StalledOutbox outbox = new StalledOutbox();
+		assertTrue( outbox.offer( new byte[1] ));
+		assertTrue( outbox.offer( new byte[1] ));
+		outbox.progress = System.currentTimeMillis() - MBServer.BROADCAST_INTERVAL - 1;
+		assertFalse( outbox.offer( new byte[1] ));
+		assertTrue( outbox.closed );
+	}
+	
+	@Test
+	public void keepsClientsThatKeepUp() {
+		RecordingOutbox outbox = new RecordingOutbox();
+		for ( int i = 0; i < 4; i++ ) {
+			assertTrue( outbox.offer( new byte[MBServer.OUTBOX_LIMIT] ));
+		}
+		outbox.progress = System.currentTimeMillis() - MBServer.BROADCAST_INTERVAL - 1;
+		assertTrue( outbox.offer( new byte[1] ));
+		assertFalse( outbox.isClosed() );
+	}
+	
+	@Test
+	public void dropsSlowSubscriber() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		RecordingOutbox posts = new RecordingOutbox();
+		RecordingOutbox fast = new RecordingOutbox();
+		StalledOutbox slow = new StalledOutbox();
+		Session poster = new Session( channels, 1, posts );
+		Session reader = new Session( channels, 2, fast );
+		Session stalled = new Session( channels, 3, slow );
+		poster.service( MBServer.CMD_CONNECT + " alice" );
+		reader.service( MBServer.CMD_CONNECT + " bob" );
+		reader.service( MBServer.CMD_SUBSCRIBE + " bob" );
+		stalled.service( MBServer.CMD_CONNECT + " carol" );
+		stalled.service( MBServer.CMD_SUBSCRIBE + " carol" );
+		fast.lines();
+		poster.service( MBServer.CMD_POST + " alice one" );
+		assertEquals( 1, fast.lines().size() );
+		slow.progress = System.currentTimeMillis() - MBServer.BROADCAST_INTERVAL - 1;
+		poster.service( MBServer.CMD_POST + " alice two" );
+		assertTrue( slow.closed );
+		assertEquals( 1, fast.lines().size() );
+		poster.service( MBServer.CMD_POST + " alice three" );
+		assertTrue( fast.lines().get( 0 ).endsWith( "alice three" ));
+		assertFalse( fast.isClosed() );
+	}
+	
+}
@@ -0,0 +1,129 @@
+/* *************************************************************
+ * 
+ * Tests for presence deltas: the changes the client registry
+ * numbers and keeps, when it falls back to a snapshot, and the
+ * text form a session answers CMD_PRESENCE with.
+ * 
+ * Title		PresenceTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class PresenceTest {
+	
+	/* *************************************************************
+	 * 
+	 * Returns changes in the text protocol's form.
+	 * 
+	 ************************************************************* */
+	
+	private static String format( List<ClientRegistry.Change> changes ) {
+		StringBuilder line = new StringBuilder();
+		for ( ClientRegistry.Change change : changes ) {
+			if ( line.length() > 0 ) {
+				line.append( ' ' );
+			}
+			if ( change.getName() != null ) {
+				line.append( '+' ).append( change.getID() ).append( ' ' ).append( change.getName() );
+			} else {
+				line.append( '-' ).append( change.getID() );
+			}
+		}
+		return line.toString();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the usernames of every registered client, in
+	 * connection order.
+	 * 
+	 ************************************************************* */
+	
+	private static String names( ClientRegistry registry ) {
+		StringBuilder names = new StringBuilder();
+		for ( Client client : registry.snapshot() ) {
+			names.append( client.getID() ).append( ' ' ).append( client.getName() ).append( ' ' );
+		}
+		return names.toString().trim();
+	}
+	
+	@Test
+	public void recordsChangesSinceVersion() {
+		ClientRegistry registry = new ClientRegistry();
+		assertTrue( registry.add( new Client( 1, "alice" )));
+		assertTrue( registry.add( new Client( 2, "bob" )));
+		assertTrue( registry.add( new Client( 3, "carol" )));
+		assertEquals( 1, registry.remove( 1 ).getID() );
+		assertNull( registry.remove( 1 ));
+		assertEquals( 4, registry.version() );
+		assertEquals( "+2 bob +3 carol -1", format( registry.changes( 1 )));
+		assertEquals( "-1", format( registry.changes( 3 )));
+		assertTrue( registry.changes( 4 ).isEmpty() );
+		assertEquals( "2 bob 3 carol", names( registry ));
+	}
+	
+	@Test
+	public void recordsRenames() {
+		ClientRegistry registry = new ClientRegistry();
+		registry.add( new Client( 1, "alice" ));
+		registry.add( new Client( 2, "bob" ));
+		assertFalse( registry.add( new Client( 3, "bob" )));
+		assertEquals( 2, registry.version() );
+		assertTrue( registry.add( new Client( 2, "bobby" )));
+		assertTrue( registry.add( new Client( 3, "bob" )));
+		assertEquals( "+2 bobby +3 bob", format( registry.changes( 2 )));
+		assertEquals( "1 alice 2 bobby 3 bob", names( registry ));
+		assertEquals( 2, registry.get( "bobby" ).getID() );
+		assertEquals( 3, registry.get( "bob" ).getID() );
+	}
+	
+	@Test
+	public void fallsBackToSnapshot() {
+		ClientRegistry registry = new ClientRegistry();
+		assertNull( registry.changes( 0 ));
+		registry.add( new Client( 1, "alice" ));
+		assertNull( registry.changes( 0 ));
+		assertNull( registry.changes( 2 ));
+		for ( int i = 0; i < MBServer.PRESENCE_LOG; i++ ) {
+			registry.add( new Client( 2, "bob" + ( i % 2 )));
+		}
+		long version = registry.version();
+		assertEquals( MBServer.PRESENCE_LOG + 1, version );
+		assertNull( registry.changes( version - MBServer.PRESENCE_LOG - 1 ));
+		assertEquals( MBServer.PRESENCE_LOG, registry.changes( version - MBServer.PRESENCE_LOG ).size() );
+		assertEquals( "1 alice 2 bob1", names( registry ));
+	}
+	
+	@Test
+	public void answersPresenceRequests() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		RecordingOutbox alice = new RecordingOutbox();
+		RecordingOutbox bob = new RecordingOutbox();
+		Session first = new Session( channels, 1, alice );
+		Session second = new Session( channels, 2, bob );
+		first.service( MBServer.CMD_CONNECT + " alice" );
+		second.service( MBServer.CMD_CONNECT + " bob" );
+		first.service( MBServer.CMD_PRESENCE + " alice 0" );
+		assertEquals( Arrays.asList( "alice", "2 = +1 alice +2 bob" ), alice.lines() );
+		first.service( MBServer.CMD_PRESENCE + " alice 2" );
+		assertEquals( Arrays.asList( "2" ), alice.lines() );
+		second.close();
+		first.service( MBServer.TAG_MARK + "5 " + MBServer.CMD_PRESENCE + " alice 2" );
+		assertEquals( Arrays.asList( MBServer.TAG_MARK + "5 3 -2" ), alice.lines() );
+		first.service( MBServer.CMD_PRESENCE + " alice 9" );
+		assertEquals( Arrays.asList( "3 = +1 alice" ), alice.lines() );
+	}
+	
+}
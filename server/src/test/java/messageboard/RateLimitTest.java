@@ -0,0 +1,89 @@
+/* *************************************************************
+ * 
+ * Tests for post rate limits: the error a rejected post gets,
+ * the disconnect once a connection runs out of strikes, the
+ * token a connection gets back when the poster's limit rejects
+ * a post, and the connection a clear needs.
+ * 
+ * Title		RateLimitTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class RateLimitTest {
+	
+	/* *************************************************************
+	 * 
+	 * Posts a message and returns the lines the session answered
+	 * with.
+	 * 
+	 ************************************************************* */
+	
+	private static List<String> post( Session session, RecordingOutbox outbox, String name ) {
+		session.service( MBServer.CMD_POST + " " + name + " hello" );
+		return outbox.lines();
+	}
+	
+	@Test
+	public void rejectsThenDisconnects() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, null, 1, 2, 2 );
+		RecordingOutbox outbox = new RecordingOutbox();
+		Session session = new Session( channels, 1, outbox );
+		session.service( MBServer.CMD_CONNECT + " alice" );
+		assertEquals( Arrays.asList( "alice" ), outbox.lines() );
+		assertTrue( post( session, outbox, "alice" ).get( 0 ).endsWith( "alice hello" ));
+		assertTrue( post( session, outbox, "alice" ).get( 0 ).endsWith( "alice hello" ));
+		assertEquals( Arrays.asList( MBServer.ERROR_RATE_LIMITED ), post( session, outbox, "alice" ));
+		assertEquals( Arrays.asList( MBServer.ERROR_RATE_LIMITED ), post( session, outbox, "alice" ));
+		assertFalse( session.isClosed() );
+		assertTrue( post( session, outbox, "alice" ).isEmpty() );
+		assertTrue( session.isClosed() );
+		assertTrue( outbox.isClosed() );
+	}
+	
+	@Test
+	public void refundsConnectionToken() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, null, 1, 2, 2 );
+		RecordingOutbox first = new RecordingOutbox();
+		RecordingOutbox second = new RecordingOutbox();
+		Session red = new Session( channels, 1, first );
+		Session blue = new Session( channels, 2, second );
+		red.service( MBServer.CMD_CONNECT + " alice red" );
+		blue.service( MBServer.CMD_CONNECT + " alice blue" );
+		assertEquals( Arrays.asList( "alice" ), first.lines() );
+		assertEquals( Arrays.asList( "alice" ), second.lines() );
+		post( red, first, "alice" );
+		post( red, first, "alice" );
+		assertEquals( Arrays.asList( MBServer.ERROR_RATE_LIMITED ), post( blue, second, "alice" ));
+		blue.service( MBServer.CMD_CONNECT + " bob" );
+		assertEquals( Arrays.asList( "bob" ), second.lines() );
+		assertTrue( post( blue, second, "bob" ).get( 0 ).endsWith( "bob hello" ));
+		assertTrue( post( blue, second, "bob" ).get( 0 ).endsWith( "bob hello" ));
+		assertFalse( blue.isClosed() );
+	}
+	
+	@Test
+	public void clearNeedsConnection() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		RecordingOutbox outbox = new RecordingOutbox();
+		Session session = new Session( channels, 1, outbox );
+		session.service( MBServer.CMD_CLEAR + " alice" );
+		assertEquals( Arrays.asList( MBServer.ERROR_NOT_CONNECTED ), outbox.lines() );
+		session.service( MBServer.CMD_CONNECT + " alice" );
+		outbox.lines();
+		session.service( MBServer.CMD_CLEAR + " alice" );
+		assertTrue( outbox.lines().isEmpty() );
+	}
+	
+}
@@ -0,0 +1,114 @@
+/* *************************************************************
+ * 
+ * Tests for dropping idle connections: a quiet session is
+ * closed after the timeout, activity puts that off, a closed
+ * session is taken off the wheel, and a session closed while
+ * connecting leaves no client registered.
+ * 
+ * Title		ReaperTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class ReaperTest {
+	
+	public static final long TIMEOUT = 100L;
+	public static final long WAIT = 5000L;
+	
+	/* *************************************************************
+	 * 
+	 * Waits for a session to be closed, returning whether it was.
+	 * 
+	 ************************************************************* */
+	
+	private static boolean awaitClose( Session session ) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT;
+		while ( !session.isClosed() && System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 5 );
+		}
+		return session.isClosed();
+	}
+	
+	@Test
+	public void closesIdleSessions() throws InterruptedException {
+		Reaper reaper = new Reaper( TIMEOUT );
+		reaper.start();
+		RecordingOutbox outbox = new RecordingOutbox();
+		Session session = new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, outbox );
+		long start = System.nanoTime();
+		reaper.watch( session );
+		assertTrue( awaitClose( session ));
+		assertTrue(( System.nanoTime() - start ) / 1000000L >= TIMEOUT );
+		assertTrue( outbox.isClosed() );
+	}
+	
+	@Test
+	public void rearmsOnActivity() throws InterruptedException {
+		Reaper reaper = new Reaper( TIMEOUT );
+		reaper.start();
+		Session session = new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, new RecordingOutbox() );
+		reaper.watch( session );
+		for ( int i = 0; i < 20; i++ ) {
+			Thread.sleep( TIMEOUT / 4 );
+			session.touch();
+			assertFalse( session.isClosed() );
+		}
+		assertEquals( 1, reaper.size() );
+		assertTrue( awaitClose( session ));
+	}
+	
+	@Test
+	public void forgetsClosedSessions() throws InterruptedException {
+		Reaper reaper = new Reaper( TIMEOUT );
+		reaper.start();
+		Session session = new Session( new Channels( MBServer.CHANNEL_LIMIT ), 1, new RecordingOutbox() );
+		reaper.watch( session );
+		assertEquals( 1, reaper.size() );
+		session.close();
+		long deadline = System.currentTimeMillis() + WAIT;
+		while ( reaper.size() > 0 && System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 5 );
+		}
+		assertEquals( 0, reaper.size() );
+	}
+	
+	@Test
+	public void undoesConnectAfterClose() {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		Session closed = new Session( channels, 1, new RecordingOutbox() );
+		closed.close();
+		closed.service( MBServer.CMD_CONNECT + " alice red" );
+		assertNull( channels.get( "red" ).getClient( "alice" ));
+		RecordingOutbox outbox = new RecordingOutbox();
+		Session next = new Session( channels, 2, outbox );
+		next.service( MBServer.CMD_CONNECT + " alice red" );
+		assertEquals( Arrays.asList( "alice" ), outbox.lines() );
+	}
+	
+	@Test
+	public void racesCloseAgainstConnect() throws InterruptedException {
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT );
+		for ( int i = 0; i < 1000; i++ ) {
+			Session session = new Session( channels, i, new RecordingOutbox() );
+			session.service( MBServer.CMD_CONNECT + " alice" );
+			Thread closer = new Thread( session::close );
+			closer.start();
+			session.service( MBServer.CMD_CONNECT + " alice red" );
+			closer.join();
+			assertNull( channels.get( MBServer.CHANNEL_DEFAULT ).getClient( "alice" ));
+			assertNull( channels.get( "red" ).getClient( "alice" ));
+		}
+	}
+	
+}
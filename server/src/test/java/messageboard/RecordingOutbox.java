@@ -0,0 +1,99 @@
+/* *************************************************************
+ * 
+ * An outbox for tests that keeps what a session sends, so its
+ * responses can be read back without a socket.
+ * 
+ * Title		RecordingOutbox.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class RecordingOutbox extends Outbox {
+	
+	private final ByteArrayOutputStream bytes;
+	
+	public RecordingOutbox() {
+		this.bytes = new ByteArrayOutputStream();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Keeps bytes as if they had been sent.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	protected synchronized void enqueue( byte[] sent ) {
+		bytes.write( sent, 0, sent.length );
+		sent( sent.length );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Marks the outbox closed.
+	 * 
+	 ************************************************************* */
+	
+	@Override
+	public void close() {
+		closed = true;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns true once the outbox has been closed.
+	 * 
+	 ************************************************************* */
+	
+	public boolean isClosed() {
+		return closed;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the text protocol lines sent since the last call,
+	 * without their terminators.
+	 * 
+	 ************************************************************* */
+	
+	public synchronized List<String> lines() {
+		String text = new String( bytes.toByteArray(), StandardCharsets.UTF_8 );
+		bytes.reset();
+		List<String> lines = new ArrayList<String>();
+		if ( !text.isEmpty() ) {
+			lines.addAll( Arrays.asList( text.split( "\n" )));
+		}
+		return lines;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the payloads of the binary frames sent since the
+	 * last call, without their length prefixes.
+	 * 
+	 ************************************************************* */
+	
+	public synchronized List<ByteBuffer> frames() {
+		ByteBuffer input = ByteBuffer.wrap( bytes.toByteArray() );
+		bytes.reset();
+		List<ByteBuffer> frames = new ArrayList<ByteBuffer>();
+		while ( input.hasRemaining() ) {
+			int length = (int) Frame.getVarint( input );
+			byte[] payload = new byte[length];
+			input.get( payload );
+			frames.add( ByteBuffer.wrap( payload ));
+		}
+		return frames;
+	}
+	
+}
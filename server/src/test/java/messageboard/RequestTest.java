@@ -0,0 +1,99 @@
+/* *************************************************************
+ * 
+ * Tests for the in-place request line parser: commands, tags,
+ * usernames, arguments, and the lines it must reject.
+ * 
+ * Title		RequestTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.CharBuffer;
+import org.junit.Test;
+
+public class RequestTest {
+	
+	@Test
+	public void parsesCommandNameAndText() {
+		Request request = new Request();
+		assertTrue( request.parse( "4 alice hello  world " ));
+		assertEquals( MBServer.CMD_POST, request.getCommand() );
+		assertEquals( -1, request.getTag() );
+		assertTrue( request.hasName() );
+		assertEquals( "alice", request.getName() );
+		assertEquals( "hello  world ", request.getText() );
+	}
+	
+	@Test
+	public void parsesTag() {
+		Request request = new Request();
+		assertTrue( request.parse( MBServer.TAG_MARK + "42 1 bob general" ));
+		assertEquals( 42, request.getTag() );
+		assertEquals( MBServer.CMD_CONNECT, request.getCommand() );
+		assertEquals( "bob", request.getName() );
+		assertEquals( "general", request.getText() );
+	}
+	
+	@Test
+	public void parsesInPlace() {
+		Request request = new Request();
+		CharBuffer line = CharBuffer.wrap( "xx\t5\tcarol\t".toCharArray(), 2, 9 );
+		assertTrue( request.parse( line ));
+		assertEquals( MBServer.CMD_UPDATE, request.getCommand() );
+		assertEquals( "carol", request.getName() );
+		assertNull( request.getText() );
+	}
+	
+	@Test
+	public void resetsBetweenLines() {
+		Request request = new Request();
+		assertTrue( request.parse( MBServer.TAG_MARK + "7 4 alice a long message" ));
+		assertTrue( request.parse( "0" ));
+		assertEquals( MBServer.CMD_NULL, request.getCommand() );
+		assertEquals( -1, request.getTag() );
+		assertFalse( request.hasName() );
+		assertNull( request.getText() );
+	}
+	
+	@Test
+	public void rejectsMalformedLines() {
+		Request request = new Request();
+		assertFalse( request.parse( "alice" ));
+		assertFalse( request.parse( "4x alice" ));
+		assertFalse( request.parse( MBServer.TAG_MARK + " 1 alice" ));
+		assertFalse( request.parse( MBServer.TAG_MARK + "x 1 alice" ));
+		assertFalse( request.parse( "1234567890 alice" ));
+		assertFalse( request.isBlank() );
+	}
+	
+	@Test
+	public void recognizesBlankLines() {
+		Request request = new Request();
+		assertFalse( request.parse( " \t " ));
+		assertTrue( request.isBlank() );
+		assertFalse( request.parse( "" ));
+		assertTrue( request.isBlank() );
+	}
+	
+	@Test
+	public void readsNumericArguments() {
+		Request request = new Request();
+		assertTrue( request.parse( "7 alice 12  34" ));
+		assertEquals( 12, request.nextLong( 0 ));
+		assertEquals( 34, request.nextLong( 0 ));
+		assertEquals( 5, request.nextLong( 5 ));
+		assertTrue( request.parse( "7 alice 1x 3 1234567890123456789" ));
+		assertEquals( -1, request.nextLong( -1 ));
+		assertEquals( 3, request.nextLong( -1 ));
+		assertEquals( -1, request.nextLong( -1 ));
+	}
+	
+}
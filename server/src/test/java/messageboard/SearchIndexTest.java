@@ -0,0 +1,134 @@
+/* *************************************************************
+ * 
+ * Tests for the search index: queries that need every word,
+ * the from: filter, and postings pruned when the ring evicts
+ * their messages or the board is cleared.
+ * 
+ * Title		SearchIndexTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class SearchIndexTest {
+	
+	/* *************************************************************
+	 * 
+	 * Stores and indexes a message.
+	 * 
+	 ************************************************************* */
+	
+	private static void add( MessageStore store, SearchIndex index, String name, String text ) {
+		Message msg = new Message( name, text );
+		store.add( msg );
+		index.add( msg );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns the texts of the messages matching a query, oldest
+	 * first.
+	 * 
+	 ************************************************************* */
+	
+	private static List<String> texts( List<Message> matches ) {
+		List<String> texts = new ArrayList<String>();
+		for ( Message msg : matches ) {
+			texts.add( msg.getName() + " " + msg.getText() );
+		}
+		return texts;
+	}
+	
+	@Test
+	public void matchesEveryWord() {
+		MessageStore store = new RingStore( 16, 0 );
+		SearchIndex index = new SearchIndex( store );
+		add( store, index, "alice", "Red apple" );
+		add( store, index, "bob", "green apple" );
+		add( store, index, "alice", "red pear" );
+		assertEquals( Arrays.asList( "alice Red apple" ), texts( index.find( "apple RED", 10 )));
+		assertEquals( Arrays.asList( "alice Red apple", "bob green apple" ), texts( index.find( "apple", 10 )));
+		assertEquals( Arrays.asList( "bob green apple" ), texts( index.find( "apple", 1 )));
+		assertTrue( index.find( "apple plum", 10 ).isEmpty() );
+		assertTrue( index.find( "", 10 ).isEmpty() );
+	}
+	
+	@Test
+	public void filtersByUsername() {
+		MessageStore store = new RingStore( 16, 0 );
+		SearchIndex index = new SearchIndex( store );
+		add( store, index, "alice", "red apple" );
+		add( store, index, "bob", "green apple" );
+		add( store, index, "alice", "red pear" );
+		assertEquals( Arrays.asList( "alice red apple", "alice red pear" ), texts( index.find( "from:alice", 10 )));
+		assertEquals( Arrays.asList( "bob green apple" ), texts( index.find( "apple from:bob", 10 )));
+		assertTrue( index.find( "pear from:bob", 10 ).isEmpty() );
+		assertTrue( index.find( "from:carol", 10 ).isEmpty() );
+	}
+	
+	@Test
+	public void prunesEvictedMessages() {
+		MessageStore store = new RingStore( 4, 0 );
+		SearchIndex index = new SearchIndex( store );
+		for ( int i = 0; i < 4; i++ ) {
+			add( store, index, "alice", "apple" );
+		}
+		add( store, index, "bob", "pear" );
+		add( store, index, "bob", "pear" );
+		assertEquals( 2, index.find( "apple", 10 ).size() );
+		assertEquals( 2, index.find( "from:alice", 10 ).size() );
+		assertEquals( 12, index.size() );
+		index.sweep();
+		assertEquals( 8, index.size() );
+		add( store, index, "bob", "pear" );
+		add( store, index, "bob", "pear" );
+		assertTrue( index.find( "apple", 10 ).isEmpty() );
+		assertTrue( index.find( "from:alice", 10 ).isEmpty() );
+		index.sweep();
+		assertEquals( 8, index.size() );
+		assertEquals( 4, index.find( "pear from:bob", 10 ).size() );
+	}
+	
+	@Test
+	public void prunesClearedMessages() {
+		Board board = new Board();
+		board.addMsg( new Message( "alice", "red apple" ));
+		board.addMsg( new Message( "bob", "green apple" ));
+		board.clear();
+		assertTrue( board.search( "apple", 10 ).isEmpty() );
+		assertTrue( board.search( "from:alice", 10 ).isEmpty() );
+		board.addMsg( new Message( "alice", "ripe apple" ));
+		assertEquals( Arrays.asList( "alice ripe apple" ), texts( board.search( "apple", 10 )));
+	}
+	
+	@Test
+	public void reusesEmptyLists() {
+		MessageStore store = new RingStore( 4, 0 );
+		SearchIndex index = new SearchIndex( store );
+		assertTrue( index.find( "apple", 10 ).isEmpty() );
+		add( store, index, "alice", "apple" );
+		add( store, index, "alice", "apple" );
+		store.clear();
+		assertTrue( index.find( "apple", 10 ).isEmpty() );
+		add( store, index, "alice", "apple" );
+		assertEquals( 1, index.find( "apple", 10 ).size() );
+		assertEquals( 2, index.size() );
+		store.clear();
+		index.sweep();
+		assertEquals( 0, index.size() );
+		assertTrue( index.find( "apple from:alice", 10 ).isEmpty() );
+		add( store, index, "alice", "apple" );
+		assertEquals( Arrays.asList( "alice apple" ), texts( index.find( "apple from:alice", 10 )));
+	}
+	
+}
@@ -0,0 +1,132 @@
+/* *************************************************************
+ * 
+ * Tests for board snapshots: a restart from the newest snapshot
+ * and the journal records after it rebuilds the same boards as
+ * replaying the whole journal, and a damaged snapshot is passed
+ * over.
+ * 
+ * Title		SnapshotsTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotsTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/* *************************************************************
+	 * 
+	 * Opens the journal in the test's directory.
+	 * 
+	 ************************************************************* */
+	
+	private Journal open() throws IOException {
+		return new Journal( folder.getRoot(), MBServer.JOURNAL_SEGMENT_MIN, 0, MBServer.JOURNAL_POLICY_NONE, MBServer.JOURNAL_SYNC_INTERVAL );
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Returns a board's messages as sequence, username and text,
+	 * oldest first.
+	 * 
+	 ************************************************************* */
+	
+	private static String contents( Board board ) {
+		StringBuilder contents = new StringBuilder();
+		for ( Message msg : board.getMsgs( 0, MBServer.HISTORY_PAGE_MAX )) {
+			contents.append( msg.getSequence() ).append( ' ' ).append( msg.getName() ).append( ' ' ).append( msg.getText() ).append( '\n' );
+		}
+		return contents.toString();
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Posts to two channels, clears one, takes a snapshot and posts
+	 * again after it.
+	 * 
+	 * Returns:
+	 * 		The journal record the snapshot was taken at.
+	 * 
+	 ************************************************************* */
+	
+	private long populate() throws IOException {
+		Journal journal = open();
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		for ( int i = 1; i <= 5; i++ ) {
+			channels.get( MBServer.CHANNEL_DEFAULT ).addMsg( new Message( "alice", "main " + i ));
+			channels.get( "other" ).addMsg( new Message( "bob", "other ✓ " + i ));
+		}
+		channels.get( MBServer.CHANNEL_DEFAULT ).clear();
+		channels.get( MBServer.CHANNEL_DEFAULT ).addMsg( new Message( "alice", "after clear" ));
+		Snapshots snapshots = new Snapshots( journal, channels, 0 );
+		long record = journal.getRecords();
+		snapshots.write();
+		channels.get( "other" ).addMsg( new Message( "carol", "after snapshot" ));
+		journal.shutdown();
+		return record;
+	}
+	
+	/* *************************************************************
+	 * 
+	 * Restarts from the journal directory as the server does.
+	 * 
+	 * Returns:
+	 * 		The channels rebuilt, and the record replayed from in
+	 * 		from[0].
+	 * 
+	 ************************************************************* */
+	
+	private Channels restart( long[] from ) throws IOException {
+		Journal journal = open();
+		Channels channels = new Channels( MBServer.CHANNEL_LIMIT, journal );
+		from[0] = new Snapshots( journal, channels, 0 ).load();
+		journal.replay( from[0], channels );
+		journal.shutdown();
+		return channels;
+	}
+	
+	@Test
+	public void roundTrips() throws IOException {
+		long record = populate();
+		long[] from = new long[1];
+		Channels channels = restart( from );
+		assertEquals( record, from[0] );
+		assertEquals( "6 alice after clear\n", contents( channels.get( MBServer.CHANNEL_DEFAULT )));
+		assertEquals( "1 bob other ✓ 1\n2 bob other ✓ 2\n3 bob other ✓ 3\n4 bob other ✓ 4\n5 bob other ✓ 5\n6 carol after snapshot\n",
+				contents( channels.get( "other" )));
+		assertEquals( 7, channels.get( MBServer.CHANNEL_DEFAULT ).addMsg( new Message( "alice", "next" )));
+	}
+	
+	@Test
+	public void skipsDamagedSnapshot() throws IOException {
+		long record = populate();
+		File snapshot = new File( folder.getRoot(), String.format( "%020d%s", record, MBServer.SNAPSHOT_SUFFIX ));
+		assertTrue( snapshot.isFile() );
+		try ( RandomAccessFile file = new RandomAccessFile( snapshot, "rw" ) ) {
+			file.seek( file.length() / 2 );
+			int b = file.read();
+			file.seek( file.length() / 2 );
+			file.write( b ^ 0xFF );
+		}
+		long[] from = new long[1];
+		Channels channels = restart( from );
+		assertEquals( 0, from[0] );
+		assertEquals( "6 alice after clear\n", contents( channels.get( MBServer.CHANNEL_DEFAULT )));
+		assertEquals( 6, channels.get( "other" ).getMsgs( 0, MBServer.HISTORY_PAGE_MAX ).size() );
+	}
+	
+}
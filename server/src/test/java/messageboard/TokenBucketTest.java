@@ -0,0 +1,77 @@
+/* *************************************************************
+ * 
+ * Tests for the token bucket: the burst it allows at once, the
+ * rate it refills at, refunds, and when it counts as full.
+ * 
+ * Title		TokenBucketTest.java
+ * Updated		2026-10-18
+ * Version		0.1 (alpha)
+ * 
+ ************************************************************* */
+
+package messageboard;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TokenBucketTest {
+	
+	public static final long SECOND = 1000000000L;
+	
+	@Test
+	public void allowsBurstThenRefills() {
+		TokenBucket bucket = new TokenBucket( 10, 3 );
+		long now = System.nanoTime();
+		assertTrue( bucket.take( now ));
+		assertTrue( bucket.take( now ));
+		assertTrue( bucket.take( now ));
+		assertFalse( bucket.take( now ));
+		assertFalse( bucket.take( now + SECOND / 20 ));
+		assertTrue( bucket.take( now + SECOND / 10 ));
+		assertFalse( bucket.take( now + SECOND / 10 ));
+		assertTrue( bucket.take( now + SECOND / 10 * 3 ));
+		assertTrue( bucket.take( now + SECOND / 10 * 3 ));
+		assertFalse( bucket.take( now + SECOND / 10 * 3 ));
+	}
+	
+	@Test
+	public void neverHoldsMoreThanBurst() {
+		TokenBucket bucket = new TokenBucket( 10, 2 );
+		long now = System.nanoTime();
+		long later = now + 60 * SECOND;
+		assertTrue( bucket.take( later ));
+		assertTrue( bucket.take( later ));
+		assertFalse( bucket.take( later ));
+	}
+	
+	@Test
+	public void refundsToken() {
+		TokenBucket bucket = new TokenBucket( 1, 2 );
+		long now = System.nanoTime();
+		assertTrue( bucket.take( now ));
+		bucket.refund();
+		assertTrue( bucket.take( now ));
+		assertTrue( bucket.take( now ));
+		assertFalse( bucket.take( now ));
+		bucket.refund();
+		assertTrue( bucket.take( now ));
+		assertFalse( bucket.take( now ));
+	}
+	
+	@Test
+	public void countsAsFullOnceRefilled() {
+		TokenBucket bucket = new TokenBucket( 10, 2 );
+		long now = System.nanoTime();
+		assertTrue( bucket.isFull( now ));
+		assertTrue( bucket.take( now ));
+		assertFalse( bucket.isFull( now ));
+		assertFalse( bucket.isFull( now + SECOND / 20 ));
+		assertTrue( bucket.isFull( now + SECOND / 10 ));
+		bucket.take( now + SECOND / 10 );
+		bucket.refund();
+		assertTrue( bucket.isFull( now + SECOND / 10 ));
+	}
+	
+}